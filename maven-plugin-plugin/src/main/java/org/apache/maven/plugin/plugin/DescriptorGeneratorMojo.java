@@ -26,6 +26,8 @@ import java.net.URI;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -43,6 +45,7 @@ import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.tools.plugin.ClassAnnotationsListener;
 import org.apache.maven.tools.plugin.DefaultPluginToolsRequest;
 import org.apache.maven.tools.plugin.ExtendedMojoDescriptor;
 import org.apache.maven.tools.plugin.ExtendedPluginDescriptor;
@@ -51,6 +54,7 @@ import org.apache.maven.tools.plugin.extractor.ExtractionException;
 import org.apache.maven.tools.plugin.generator.GeneratorException;
 import org.apache.maven.tools.plugin.generator.GeneratorUtils;
 import org.apache.maven.tools.plugin.generator.PluginDescriptorFilesGenerator;
+import org.apache.maven.tools.plugin.javadoc.JavadocLinkGeneratorPool;
 import org.apache.maven.tools.plugin.scanner.MojoScanner;
 import org.codehaus.plexus.component.repository.ComponentDependency;
 import org.codehaus.plexus.util.ReaderFactory;
@@ -196,6 +200,123 @@ public class DescriptorGeneratorMojo extends AbstractGeneratorMojo {
     @Parameter
     private List<String> mojoDependencies = null;
 
+    /**
+     * The maximum number of threads used to scan the project's classes and the dependencies for Mojo annotations.
+     * With the default value {@code 1} all classes are scanned sequentially, higher values speed up the
+     * scan of plugins with many dependencies or mojos. The result does not depend on the number of threads.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(property = "maven.plugin.scanThreads", defaultValue = "1")
+    private int scanThreads;
+
+    /**
+     * Flag controlling whether the scan results of dependency archives are cached in
+     * {@link #scanCacheDirectory}, so that unchanged dependencies are not parsed again in later builds.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(property = "maven.plugin.scanCache", defaultValue = "true")
+    private boolean scanCache;
+
+    /**
+     * The directory of the persistent cache of the dependencies scan results.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(
+            property = "maven.plugin.scanCacheDirectory",
+            defaultValue = "${settings.localRepository}/.cache/maven-plugin-tools/annotations")
+    private File scanCacheDirectory;
+
+    /**
+     * Only scan the dependency classes which are superclasses of the project's mojos, instead of every class of every
+     * dependency. The dependencies are then only indexed by class name, and the classes of the mojos' hierarchies are
+     * read on demand, which is much faster for plugins with many or large dependencies.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(property = "maven.plugin.scanDependenciesOnDemand", defaultValue = "false")
+    private boolean scanDependenciesOnDemand;
+
+    /**
+     * Keep the scan results of the project's own classes in {@link #scanStateDirectory}, so that later builds only
+     * analyze the class files which have changed in between.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(property = "maven.plugin.incrementalScan", defaultValue = "true")
+    private boolean incrementalScan;
+
+    /**
+     * The directory where the scan results of the project's own classes are kept between builds.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(defaultValue = "${project.build.directory}/maven-plugin-tools/scan-state", readonly = true)
+    private File scanStateDirectory;
+
+    /**
+     * Package an index of the Mojo annotations of the project's classes as {@code META-INF/maven/mojo-annotations.idx},
+     * so that plugins extending the mojos of this project do not need to analyze its classes again.
+     * The index is ignored by consumers if the packaged classes do not match it.
+     * It is built from the scan results kept for {@link #incrementalScan}, which must be enabled as well.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(property = "maven.plugin.mojoAnnotationsIndex", defaultValue = "false")
+    private boolean mojoAnnotationsIndex;
+
+    /**
+     * The file where the index of the Mojo annotations of the project's classes is built, before being copied to the
+     * {@link #outputDirectory} if {@link #mojoAnnotationsIndex} is enabled.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(defaultValue = "${project.build.directory}/maven-plugin-tools/mojo-annotations.idx", readonly = true)
+    private File mojoAnnotationsIndexFile;
+
+    /**
+     * Only parse the source files of the mojos and of their superclasses to extract their javadoc, instead of every
+     * source file of the source roots, of the reactor projects and of the sources artifacts providing mojos.
+     * Other types referenced from the javadoc are resolved on demand, which is much faster for large projects.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(property = "maven.plugin.parseMojoSourcesOnly", defaultValue = "false")
+    private boolean parseMojoSourcesOnly;
+
+    /**
+     * The maximum number of threads used to parse the mojo source files with {@link #parseMojoSourcesOnly}.
+     * Each thread parses its own share of the mojo class hierarchies, so superclasses shared by several mojos
+     * may be parsed more than once: this only pays off for plugins with many independent mojo hierarchies.
+     * With the default value {@code 1} the sources are parsed sequentially.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(property = "maven.plugin.parseThreads", defaultValue = "1")
+    private int parseThreads;
+
+    /**
+     * Keep the javadoc content extracted from the project's sources between builds, so that classes are neither
+     * parsed nor converted again as long as their source files, the ones of their superclasses and the dependencies
+     * do not change.
+     * Changes in other source files of the project, e.g. of types referenced from the javadoc with {@code {@link}}
+     * or {@code {@value}}, or in remote javadoc sites are not detected, so this is disabled by default.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(property = "maven.plugin.javadocCache", defaultValue = "false")
+    private boolean javadocCache;
+
+    /**
+     * The directory where the javadoc content extracted from the project's sources is kept between builds.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(defaultValue = "${project.build.directory}/maven-plugin-tools/javadoc-cache", readonly = true)
+    private File javadocCacheDirectory;
+
     /**
      * Creates links to existing external javadoc-generated documentation.
      * <br>
@@ -210,12 +331,42 @@ public class DescriptorGeneratorMojo extends AbstractGeneratorMojo {
      * is valid because <code>https://docs.oracle.com/javase/8/docs/api/package-list</code> exists.
      * See <a href="https://docs.oracle.com/en/java/javase/17/docs/specs/man/javadoc.html#standard-doclet-options">
      * link option of the javadoc tool</a>.
-     * Using this parameter requires connectivity to the given URLs during the goal execution.
+     * Using this parameter requires connectivity to the given URLs during the goal execution, unless their package
+     * lists have been cached by a previous build (see {@link #javadocSiteCache}).
      * @since 3.7.0
      */
     @Parameter(property = "externalJavadocBaseUrls", alias = "links")
     protected List<URI> externalJavadocBaseUrls;
 
+    /**
+     * Keep the package lists of the {@link #externalJavadocBaseUrls} between builds. Cached package lists are used
+     * without fetching them again for {@link #javadocSiteCacheTtl} hours, then only fetched again if they changed.
+     * They are also used if a site cannot be reached, or if Maven runs in offline mode.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(property = "maven.plugin.javadocSiteCache", defaultValue = "true")
+    private boolean javadocSiteCache;
+
+    /**
+     * The directory where the package lists of the {@link #externalJavadocBaseUrls} are kept between builds.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(
+            property = "maven.plugin.javadocSiteCacheDirectory",
+            defaultValue = "${settings.localRepository}/.cache/maven-plugin-tools/javadoc-sites")
+    private File javadocSiteCacheDirectory;
+
+    /**
+     * The number of hours cached package lists of the {@link #externalJavadocBaseUrls} are used without asking the
+     * sites whether they changed.
+     *
+     * @since 4.0.0
+     */
+    @Parameter(property = "maven.plugin.javadocSiteCacheTtl", defaultValue = "24")
+    private int javadocSiteCacheTtl;
+
     /**
      * The base URL for the Javadoc site containing the current project's API documentation.
      * This may be relative to the root of the generated Maven site.
@@ -347,6 +498,8 @@ public class DescriptorGeneratorMojo extends AbstractGeneratorMojo {
             throw new MojoExecutionException("Given parameter 'internalJavadocBaseUrl' must end with a slash but is '"
                     + internalJavadocBaseUrl + "'");
         }
+        // shared by the extraction and the descriptors, closing the connections to the external sites once done
+        JavadocLinkGeneratorPool javadocLinkGeneratorPool = new JavadocLinkGeneratorPool();
         try {
             List<ComponentDependency> deps = GeneratorUtils.toComponentDependencies(project.getArtifacts());
             pluginDescriptor.setDependencies(deps);
@@ -355,11 +508,34 @@ public class DescriptorGeneratorMojo extends AbstractGeneratorMojo {
             request.setEncoding(encoding);
             request.setSkipErrorNoDescriptorsFound(skipErrorNoDescriptorsFound);
             request.setDependencies(filterMojoDependencies());
+            DiBeansCollector diBeansCollector = new DiBeansCollector();
+            request.setClassAnnotationsListener(diBeansCollector);
+            request.setScanThreadCount(scanThreads);
+            request.setScanCacheDirectory(scanCache ? scanCacheDirectory : null);
+            request.setScanDependenciesOnDemand(scanDependenciesOnDemand);
+            request.setParseMojoSourcesOnly(parseMojoSourcesOnly);
+            request.setParseThreadCount(parseThreads);
+            if (javadocCache) {
+                request.setJavadocCacheDirectory(javadocCacheDirectory);
+            }
+            if (mojoAnnotationsIndex) {
+                request.setScanIndexFile(mojoAnnotationsIndexFile);
+            }
+            if (incrementalScan) {
+                request.setScanStateDirectory(scanStateDirectory);
+                // outside of incremental builds, the default build context reports every file as changed
+                request.setScanDeltaFilter(buildContext.isIncremental() ? buildContext::hasDelta : null);
+            }
             request.setRepoSession(mavenSession.getRepositorySession());
             request.setInternalJavadocBaseUrl(internalJavadocBaseUrl);
             request.setInternalJavadocVersion(internalJavadocVersion);
             request.setExternalJavadocBaseUrls(externalJavadocBaseUrls);
             request.setSettings(mavenSession.getSettings());
+            if (javadocSiteCache) {
+                request.setJavadocSiteCacheDirectory(javadocSiteCacheDirectory);
+                request.setJavadocSiteCacheTtl(Duration.ofHours(javadocSiteCacheTtl));
+            }
+            request.setJavadocLinkGeneratorPool(javadocLinkGeneratorPool);
 
             mojoScanner.populatePluginDescriptor(request);
             request.setPluginDescriptor(extendPluginDescriptor(request));
@@ -373,7 +549,9 @@ public class DescriptorGeneratorMojo extends AbstractGeneratorMojo {
             generateFactories(request.getPluginDescriptor());
 
             // Generate index for v4 beans
-            generateIndex();
+            generateIndex(diBeansCollector);
+
+            publishMojoAnnotationsIndex();
 
             buildContext.refresh(outputDirectory);
         } catch (GeneratorException e) {
@@ -387,59 +565,35 @@ public class DescriptorGeneratorMojo extends AbstractGeneratorMojo {
                             + " Please check the plugin dependencies configured"
                             + " in the POM and ensure the versions match.",
                     e);
+        } finally {
+            javadocLinkGeneratorPool.close();
         }
     }
 
-    private void generateIndex() throws GeneratorException {
+    /**
+     * Copies the index of the Mojo annotations to the output directory, or removes the one of a previous build.
+     */
+    private void publishMojoAnnotationsIndex() throws GeneratorException {
+        Path path = outputDirectory.toPath().resolve(mojoAnnotationsIndexFile.getName());
         try {
-            Set<String> diBeans = new TreeSet<>();
-            try (Stream<Path> paths = Files.walk(classesOutputDirectory.toPath())) {
-                List<Path> classes = paths.filter(
-                                p -> p.getFileName().toString().endsWith(".class"))
-                        .collect(Collectors.toList());
-                for (Path classFile : classes) {
-                    String fileString = classFile.toString();
-                    String className = fileString
-                            .substring(0, fileString.length() - ".class".length())
-                            .replace('/', '.');
-                    try (InputStream is = Files.newInputStream(classFile)) {
-                        ClassReader rdr = new ClassReader(is);
-                        rdr.accept(
-                                new ClassVisitor(Opcodes.ASM9) {
-                                    String className;
-
-                                    @Override
-                                    public void visit(
-                                            int version,
-                                            int access,
-                                            String name,
-                                            String signature,
-                                            String superName,
-                                            String[] interfaces) {
-                                        super.visit(version, access, name, signature, superName, interfaces);
-                                        className = name;
-                                    }
+            if (mojoAnnotationsIndex && mojoAnnotationsIndexFile.isFile()) {
+                Files.copy(mojoAnnotationsIndexFile.toPath(), path, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            throw new GeneratorException("Unable to write mojo annotations index " + path, e);
+        }
+    }
 
-                                    @Override
-                                    public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
-                                        if ("Lorg/apache/maven/api/di/Named;".equals(descriptor)) {
-                                            diBeans.add(className.replace('/', '.'));
-                                        }
-                                        return null;
-                                    }
-                                },
-                                ClassReader.SKIP_FRAMES | ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
-                    }
-
-                    //                    Class<?> clazz = project.getClassRealm().loadClass(className);
-                    //                    boolean hasQualifier = Stream.of(clazz.getAnnotations())
-                    //                            .flatMap(ann -> Stream.of(ann.getClass().getAnnotations()))
-                    //                            .anyMatch(ann -> "org.apache.maven.api.di.Qualifier"
-                    //                                    .equals(ann.annotationType().getName()));
-                    //                    if (hasQualifier) {
-                    //                        diBeans.add(className);
-                    //                    }
-                }
+    private void generateIndex(DiBeansCollector diBeansCollector) throws GeneratorException {
+        try {
+            Set<String> diBeans = diBeansCollector.beans;
+            if (diBeansCollector.notified) {
+                getLog().debug("Using the v4 beans found while scanning mojo annotations");
+            } else {
+                // the classes have not been analyzed by any extractor
+                collectDiBeans(diBeans);
             }
             Path path = outputDirectory.toPath().resolve("org.apache.maven.api.di.Inject");
             if (diBeans.isEmpty()) {
@@ -456,6 +610,46 @@ public class DescriptorGeneratorMojo extends AbstractGeneratorMojo {
         }
     }
 
+    /**
+     * Reads the classes of the output directory to find the v4 beans.
+     */
+    private void collectDiBeans(Set<String> diBeans) throws IOException {
+        try (Stream<Path> paths = Files.walk(classesOutputDirectory.toPath())) {
+            List<Path> classes = paths.filter(p -> p.getFileName().toString().endsWith(".class"))
+                    .collect(Collectors.toList());
+            for (Path classFile : classes) {
+                try (InputStream is = Files.newInputStream(classFile)) {
+                    ClassReader rdr = new ClassReader(is);
+                    rdr.accept(
+                            new ClassVisitor(Opcodes.ASM9) {
+                                String className;
+
+                                @Override
+                                public void visit(
+                                        int version,
+                                        int access,
+                                        String name,
+                                        String signature,
+                                        String superName,
+                                        String[] interfaces) {
+                                    super.visit(version, access, name, signature, superName, interfaces);
+                                    className = name;
+                                }
+
+                                @Override
+                                public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                                    if ("Lorg/apache/maven/api/di/Named;".equals(descriptor)) {
+                                        diBeans.add(className.replace('/', '.'));
+                                    }
+                                    return null;
+                                }
+                            },
+                            ClassReader.SKIP_FRAMES | ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
+                }
+            }
+        }
+    }
+
     private void generateFactories(PluginDescriptor pd) throws GeneratorException {
         try {
             for (MojoDescriptor md : pd.getMojos()) {
@@ -597,4 +791,22 @@ public class DescriptorGeneratorMojo extends AbstractGeneratorMojo {
 
         return filteredArtifacts;
     }
+
+    /**
+     * Collects the v4 beans, i.e. the classes annotated with {@code @org.apache.maven.api.di.Named}, while the
+     * extractors analyze the project's classes.
+     */
+    private static class DiBeansCollector implements ClassAnnotationsListener {
+        private final Set<String> beans = new TreeSet<>();
+
+        private boolean notified;
+
+        @Override
+        public void classAnalyzed(String className, Set<String> annotationClassNames) {
+            notified = true;
+            if (annotationClassNames.contains("org.apache.maven.api.di.Named")) {
+                beans.add(className);
+            }
+        }
+    }
 }
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.thoughtworks.qdox.model.DocletTag;
+import com.thoughtworks.qdox.model.JavaAnnotatedElement;
+import com.thoughtworks.qdox.model.JavaClass;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ComponentAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ParameterAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.scanner.MojoAnnotatedClass;
+
+/**
+ * Class hierarchies of the scanned classes, resolved once per extraction: each class is only merged with the already
+ * merged result of its parent, so that base classes shared by many mojos are not walked again for every mojo.
+ * The merged maps are shared and must not be modified.
+ *
+ * @since 4.0.0
+ */
+final class ClassHierarchyIndex {
+    private final Map<String, MojoAnnotatedClass> mojoAnnotatedClasses;
+
+    private final Map<String, List<MojoAnnotatedClass>> ancestors = new HashMap<>();
+
+    private final Map<String, Map<String, ParameterAnnotationContent>> parameters = new HashMap<>();
+
+    private final Map<String, Map<String, ComponentAnnotationContent>> components = new HashMap<>();
+
+    private final Map<JavaClass, Map<String, Optional<DocletTag>>> tags = new IdentityHashMap<>();
+
+    private final Map<JavaClass, Map<String, JavaAnnotatedElement>> fields = new IdentityHashMap<>();
+
+    private final Map<JavaClass, Map<String, JavaAnnotatedElement>> setters = new IdentityHashMap<>();
+
+    /**
+     * @param mojoAnnotatedClasses the scanned classes, by class name
+     */
+    ClassHierarchyIndex(Map<String, MojoAnnotatedClass> mojoAnnotatedClasses) {
+        this.mojoAnnotatedClasses = mojoAnnotatedClasses;
+    }
+
+    /**
+     * @param mojoAnnotatedClass a scanned class
+     * @return the class followed by its scanned superclasses, up to the first one which has not been scanned
+     */
+    List<MojoAnnotatedClass> getAncestors(MojoAnnotatedClass mojoAnnotatedClass) {
+        List<MojoAnnotatedClass> result = ancestors.get(mojoAnnotatedClass.getClassName());
+        if (result == null) {
+            MojoAnnotatedClass parent = getParent(mojoAnnotatedClass);
+            List<MojoAnnotatedClass> parentAncestors = parent != null ? getAncestors(parent) : Collections.emptyList();
+            result = new ArrayList<>(parentAncestors.size() + 1);
+            result.add(mojoAnnotatedClass);
+            result.addAll(parentAncestors);
+            result = Collections.unmodifiableList(result);
+            ancestors.put(mojoAnnotatedClass.getClassName(), result);
+        }
+        return result;
+    }
+
+    /**
+     * @param mojoAnnotatedClass a scanned class
+     * @return the first class of the hierarchy with an {@code @Execute} annotation, or {@code null}
+     */
+    MojoAnnotatedClass findClassWithExecuteAnnotation(MojoAnnotatedClass mojoAnnotatedClass) {
+        for (MojoAnnotatedClass ancestor : getAncestors(mojoAnnotatedClass)) {
+            if (ancestor.getExecute() != null) {
+                return ancestor;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param mojoAnnotatedClass a scanned class
+     * @return the parameters of the class hierarchy by field name, the ones of subclasses hiding the inherited ones
+     */
+    Map<String, ParameterAnnotationContent> getParameters(MojoAnnotatedClass mojoAnnotatedClass) {
+        Map<String, ParameterAnnotationContent> result = parameters.get(mojoAnnotatedClass.getClassName());
+        if (result == null) {
+            MojoAnnotatedClass parent = getParent(mojoAnnotatedClass);
+            result = new HashMap<>();
+            if (parent != null) {
+                result.putAll(getParameters(parent));
+            }
+            for (ParameterAnnotationContent parameter :
+                    mojoAnnotatedClass.getParameters().values()) {
+                result.put(parameter.getFieldName(), parameter);
+            }
+            result = Collections.unmodifiableMap(result);
+            parameters.put(mojoAnnotatedClass.getClassName(), result);
+        }
+        return result;
+    }
+
+    /**
+     * @param mojoAnnotatedClass a scanned class
+     * @return the components of the class hierarchy by field name, the ones of subclasses hiding the inherited ones
+     */
+    Map<String, ComponentAnnotationContent> getComponents(MojoAnnotatedClass mojoAnnotatedClass) {
+        Map<String, ComponentAnnotationContent> result = components.get(mojoAnnotatedClass.getClassName());
+        if (result == null) {
+            MojoAnnotatedClass parent = getParent(mojoAnnotatedClass);
+            result = new HashMap<>();
+            if (parent != null) {
+                result.putAll(getComponents(parent));
+            }
+            for (ComponentAnnotationContent component :
+                    mojoAnnotatedClass.getComponents().values()) {
+                result.put(component.getFieldName(), component);
+            }
+            result = Collections.unmodifiableMap(result);
+            components.put(mojoAnnotatedClass.getClassName(), result);
+        }
+        return result;
+    }
+
+    /**
+     * @param javaClass a parsed class
+     * @param tagName   the name of the javadoc tag
+     * @return the tag of the class, or else the one of its nearest superclass, or {@code null}
+     */
+    DocletTag findInClassHierarchy(JavaClass javaClass, String tagName) {
+        Map<String, Optional<DocletTag>> classTags = tags.computeIfAbsent(javaClass, c -> new HashMap<>());
+        Optional<DocletTag> tag = classTags.get(tagName);
+        if (tag == null) {
+            DocletTag docletTag = javaClass.getTagByName(tagName);
+            if (docletTag == null) {
+                JavaClass superClass = javaClass.getSuperJavaClass();
+                if (superClass != null) {
+                    docletTag = findInClassHierarchy(superClass, tagName);
+                }
+            }
+            tag = Optional.ofNullable(docletTag);
+            classTags.put(tagName, tag);
+        }
+        return tag.orElse(null);
+    }
+
+    /**
+     * @param javaClass a parsed class
+     * @return the fields of the class hierarchy by name, or {@code null} if they have not been {@link #putFields put}
+     */
+    Map<String, JavaAnnotatedElement> getFields(JavaClass javaClass) {
+        return fields.get(javaClass);
+    }
+
+    /**
+     * @param javaClass   a parsed class
+     * @param classFields the fields of the class hierarchy by name
+     * @return the shared fields
+     */
+    Map<String, JavaAnnotatedElement> putFields(JavaClass javaClass, Map<String, JavaAnnotatedElement> classFields) {
+        Map<String, JavaAnnotatedElement> result = Collections.unmodifiableMap(classFields);
+        fields.put(javaClass, result);
+        return result;
+    }
+
+    /**
+     * @param javaClass a parsed class
+     * @return the public setters of the class hierarchy by property name, or {@code null} if they have not been
+     * {@link #putSetters put}
+     */
+    Map<String, JavaAnnotatedElement> getSetters(JavaClass javaClass) {
+        return setters.get(javaClass);
+    }
+
+    /**
+     * @param javaClass    a parsed class
+     * @param classSetters the public setters of the class hierarchy by property name
+     * @return the shared setters
+     */
+    Map<String, JavaAnnotatedElement> putSetters(JavaClass javaClass, Map<String, JavaAnnotatedElement> classSetters) {
+        Map<String, JavaAnnotatedElement> result = Collections.unmodifiableMap(classSetters);
+        setters.put(javaClass, result);
+        return result;
+    }
+
+    private MojoAnnotatedClass getParent(MojoAnnotatedClass mojoAnnotatedClass) {
+        String parentClassName = mojoAnnotatedClass.getParentClassName();
+        if (parentClassName == null || parentClassName.isEmpty()) {
+            return null;
+        }
+        return mojoAnnotatedClasses.get(parentClassName);
+    }
+}
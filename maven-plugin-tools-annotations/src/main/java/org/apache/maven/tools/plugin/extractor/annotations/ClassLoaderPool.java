@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Classloaders over the artifacts of a project, used by QDox to resolve the types referenced from sources.
+ * A classloader is shared by all the executions which need the same artifacts at the same time, and is closed as soon
+ * as the last {@link Lease lease} holding it is closed, so that no jar file stays open after the extraction.
+ *
+ * @since 4.0.0
+ */
+final class ClassLoaderPool {
+    private final Map<List<URL>, PooledClassLoader> classLoaders = new HashMap<>();
+
+    /**
+     * @return a new lease, to be closed once the classloaders acquired with it are no longer used
+     */
+    Lease lease() {
+        return new Lease();
+    }
+
+    /**
+     * @return the number of open classloaders
+     */
+    synchronized int size() {
+        return classLoaders.size();
+    }
+
+    private synchronized PooledClassLoader acquire(List<URL> urls) {
+        PooledClassLoader classLoader = classLoaders.computeIfAbsent(
+                urls,
+                key -> new PooledClassLoader(
+                        key, new URLClassLoader(key.toArray(new URL[0]), ClassLoader.getSystemClassLoader())));
+        classLoader.references++;
+        return classLoader;
+    }
+
+    private void release(PooledClassLoader classLoader) {
+        synchronized (this) {
+            if (--classLoader.references > 0) {
+                return;
+            }
+            classLoaders.remove(classLoader.urls);
+        }
+        try {
+            classLoader.classLoader.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    private static final class PooledClassLoader {
+        private final List<URL> urls;
+
+        private final URLClassLoader classLoader;
+
+        private int references;
+
+        PooledClassLoader(List<URL> urls, URLClassLoader classLoader) {
+            this.urls = urls;
+            this.classLoader = classLoader;
+        }
+    }
+
+    /**
+     * The classloaders used by one extraction.
+     */
+    final class Lease implements Closeable {
+        private final List<PooledClassLoader> acquired = new ArrayList<>();
+
+        private Lease() {}
+
+        /**
+         * Build isolated classloader with only the given artifacts (none of this plugin).
+         *
+         * @param artifacts the artifacts, in lookup order
+         * @return the classloader over the artifacts, or {@code null} if this lease already holds it
+         */
+        ClassLoader acquire(Collection<Artifact> artifacts) {
+            List<URL> urls = new ArrayList<>(artifacts.size());
+            for (Artifact artifact : artifacts) {
+                try {
+                    urls.add(artifact.getFile().toURI().toURL());
+                } catch (MalformedURLException e) {
+                    // noop
+                }
+            }
+            for (PooledClassLoader classLoader : acquired) {
+                if (classLoader.urls.equals(urls)) {
+                    return null;
+                }
+            }
+            PooledClassLoader classLoader = ClassLoaderPool.this.acquire(urls);
+            acquired.add(classLoader);
+            return classLoader.classLoader;
+        }
+
+        /**
+         * Releases the classloaders acquired with this lease, closing the ones no other lease holds.
+         */
+        @Override
+        public void close() {
+            for (PooledClassLoader classLoader : acquired) {
+                release(classLoader);
+            }
+            acquired.clear();
+        }
+    }
+}
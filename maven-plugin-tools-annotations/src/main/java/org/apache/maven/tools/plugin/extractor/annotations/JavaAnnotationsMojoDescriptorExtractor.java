@@ -23,16 +23,20 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import java.io.File;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLClassLoader;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -40,6 +44,10 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
 import java.util.stream.Collectors;
 
 import com.thoughtworks.qdox.JavaProjectBuilder;
@@ -63,10 +71,15 @@ import org.apache.maven.tools.plugin.PluginToolsRequest;
 import org.apache.maven.tools.plugin.extractor.ExtractionException;
 import org.apache.maven.tools.plugin.extractor.GroupKey;
 import org.apache.maven.tools.plugin.extractor.MojoDescriptorExtractor;
+import org.apache.maven.tools.plugin.extractor.annotations.JavadocCache.JavadocValue;
+import org.apache.maven.tools.plugin.extractor.annotations.JavadocCache.JavadocValue.Attribute;
+import org.apache.maven.tools.plugin.extractor.annotations.JavadocCache.JavadocValue.Target;
 import org.apache.maven.tools.plugin.extractor.annotations.converter.ConverterContext;
 import org.apache.maven.tools.plugin.extractor.annotations.converter.JavaClassConverterContext;
 import org.apache.maven.tools.plugin.extractor.annotations.converter.JavadocBlockTagsToXhtmlConverter;
 import org.apache.maven.tools.plugin.extractor.annotations.converter.JavadocInlineTagsToXhtmlConverter;
+import org.apache.maven.tools.plugin.extractor.annotations.converter.ReferenceResolutionCache;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.AnnotatedContent;
 import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ComponentAnnotationContent;
 import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ExecuteAnnotationContent;
 import org.apache.maven.tools.plugin.extractor.annotations.datamodel.MojoAnnotationContent;
@@ -75,10 +88,6 @@ import org.apache.maven.tools.plugin.extractor.annotations.scanner.MojoAnnotated
 import org.apache.maven.tools.plugin.extractor.annotations.scanner.MojoAnnotationsScanner;
 import org.apache.maven.tools.plugin.extractor.annotations.scanner.MojoAnnotationsScannerRequest;
 import org.apache.maven.tools.plugin.javadoc.JavadocLinkGenerator;
-import org.codehaus.plexus.archiver.ArchiverException;
-import org.codehaus.plexus.archiver.UnArchiver;
-import org.codehaus.plexus.archiver.manager.ArchiverManager;
-import org.codehaus.plexus.archiver.manager.NoSuchArchiverException;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
 import org.codehaus.plexus.util.StringUtils;
 import org.eclipse.aether.RepositorySystem;
@@ -88,6 +97,8 @@ import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.aether.resolution.ArtifactResult;
 import org.objectweb.asm.Opcodes;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 /**
  * JavaMojoDescriptorExtractor, a MojoDescriptor extractor to read descriptors from java classes with annotations.
  * Notice that source files are also parsed to get description, since and deprecation information.
@@ -142,13 +153,12 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
     private RepositorySystem repositorySystem;
 
     @Inject
-    private ArchiverManager archiverManager;
+    JavadocInlineTagsToXhtmlConverter javadocInlineTagsToHtmlConverter;
 
     @Inject
-    private JavadocInlineTagsToXhtmlConverter javadocInlineTagsToHtmlConverter;
+    JavadocBlockTagsToXhtmlConverter javadocBlockTagsToHtmlConverter;
 
-    @Inject
-    private JavadocBlockTagsToXhtmlConverter javadocBlockTagsToHtmlConverter;
+    final ClassLoaderPool classLoaderPool = new ClassLoaderPool();
 
     @Override
     public String getName() {
@@ -188,6 +198,7 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
     public List<MojoDescriptor> execute(PluginToolsRequest request)
             throws ExtractionException, InvalidPluginDescriptorException {
         Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = scanAnnotations(request);
+        ClassHierarchyIndex classHierarchy = new ClassHierarchyIndex(mojoAnnotatedClasses);
 
         Optional<Integer> maxClassVersion = mojoAnnotatedClasses.values().stream()
                 .map(MojoAnnotatedClass::getClassVersion)
@@ -201,25 +212,197 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
                 request.setRequiredJavaVersion(requiredJavaVersion);
             }
         }
-        JavaProjectBuilder builder = scanJavadoc(request, mojoAnnotatedClasses.values());
-        Map<String, JavaClass> javaClassesMap = discoverClasses(builder);
+        JavadocCache javadocCache = null;
+        Map<String, String> javadocCacheKeys = Collections.emptyMap();
+        if (request.getJavadocCacheDirectory() != null) {
+            javadocCacheKeys = getJavadocCacheKeys(request, mojoAnnotatedClasses);
+            if (!javadocCacheKeys.isEmpty()) {
+                javadocCache = new JavadocCache(request.getJavadocCacheDirectory(), getLogger());
+            }
+        }
+        Set<String> uncachedClasses = new HashSet<>(mojoAnnotatedClasses.keySet());
+        if (javadocCache != null) {
+            for (Map.Entry<String, String> javadocCacheKey : javadocCacheKeys.entrySet()) {
+                if (javadocCache.contains(javadocCacheKey.getKey(), javadocCacheKey.getValue())) {
+                    uncachedClasses.remove(javadocCacheKey.getKey());
+                }
+            }
+            if (getLogger().isDebugEnabled()) {
+                getLogger()
+                        .debug("Javadoc cache hits: " + (mojoAnnotatedClasses.size() - uncachedClasses.size())
+                                + ", misses: " + uncachedClasses.size());
+            }
+        }
 
-        final JavadocLinkGenerator linkGenerator;
-        if (request.getInternalJavadocBaseUrl() != null
-                || (request.getExternalJavadocBaseUrls() != null
-                        && !request.getExternalJavadocBaseUrls().isEmpty())) {
-            linkGenerator = new JavadocLinkGenerator(
-                    request.getInternalJavadocBaseUrl(),
-                    request.getInternalJavadocVersion(),
-                    request.getExternalJavadocBaseUrls(),
-                    request.getSettings());
+        if (javadocCache != null && Collections.disjoint(uncachedClasses, javadocCacheKeys.keySet())) {
+            // the remaining classes have no annotations or no source to extract javadoc from
+            populateDataFromJavadoc(
+                    javaClass -> null,
+                    mojoAnnotatedClasses,
+                    classHierarchy,
+                    Collections.emptyMap(),
+                    null,
+                    javadocCache,
+                    javadocCacheKeys);
         } else {
-            linkGenerator = null;
+            // in targeted mode the source roots are only registered for lookups, and sources jars are kept open
+            // until the mojo sources have been parsed
+            try (ClassLoaderPool.Lease classLoaders = classLoaderPool.lease();
+                    MojoSources mojoSources = request.isParseMojoSourcesOnly()
+                            ? new MojoSources(request.getEncoding(), getLogger())
+                            : null;
+                    JavadocLinkGenerator linkGenerator = JavadocLinkGenerator.create(request)) {
+                JavaProjectBuilder builder = scanJavadoc(request, mojoAnnotatedClasses, mojoSources, classLoaders);
+                Map<String, JavaClass> javaClassesMap;
+                Function<JavaClass, JavaProjectBuilder> builders;
+                if (mojoSources != null) {
+                    javaClassesMap = mojoSources.parse(
+                            builder,
+                            mojoAnnotatedClasses,
+                            uncachedClasses::contains,
+                            request.getParseThreadCount(),
+                            this::discoverClasses);
+                    builders = javaClass -> mojoSources.getBuilder(javaClass, builder);
+                } else {
+                    javaClassesMap = discoverClasses(builder);
+                    builders = javaClass -> builder;
+                }
+                populateDataFromJavadoc(
+                        builders,
+                        mojoAnnotatedClasses,
+                        classHierarchy,
+                        javaClassesMap,
+                        linkGenerator,
+                        javadocCache,
+                        javadocCacheKeys);
+            }
+        }
+        if (javadocCache != null) {
+            javadocCache.save();
+        }
+
+        return toMojoDescriptors(mojoAnnotatedClasses, classHierarchy, request.getPluginDescriptor());
+    }
+
+    /**
+     * Computes the keys of the javadoc content of the annotated classes whose source is in the project or in a reactor
+     * project, from the content of the source files of their class hierarchy and from the javadoc link configuration.
+     *
+     * @return the cache keys by class name, empty if javadoc content has to be extracted from sources artifacts
+     */
+    private Map<String, String> getJavadocCacheKeys(
+            PluginToolsRequest request, Map<String, MojoAnnotatedClass> mojoAnnotatedClasses)
+            throws ExtractionException {
+        Map<String, List<File>> sourceRoots = new HashMap<>();
+        sourceRoots.put(request.getProject().getArtifact().getArtifactId(), getSourceRoots(request.getProject()));
+        for (MojoAnnotatedClass mojoAnnotatedClass : mojoAnnotatedClasses.values()) {
+            if (!isMojoAnnnotatedClassCandidate(mojoAnnotatedClass)
+                    || sourceRoots.containsKey(mojoAnnotatedClass.getArtifact().getArtifactId())) {
+                continue;
+            }
+            MavenProject mavenProject =
+                    getFromProjectReferences(mojoAnnotatedClass.getArtifact(), request.getProject());
+            if (mavenProject == null) {
+                if (getLogger().isDebugEnabled()) {
+                    getLogger()
+                            .debug("Javadoc cache disabled, " + mojoAnnotatedClass.getClassName() + " comes from "
+                                    + mojoAnnotatedClass.getArtifact().getId());
+                }
+                return Collections.emptyMap();
+            }
+            sourceRoots.put(mojoAnnotatedClass.getArtifact().getArtifactId(), getSourceRoots(mavenProject));
+        }
+
+        String configuration = request.isParseMojoSourcesOnly() + "|" + request.getEncoding() + "|"
+                + request.getInternalJavadocBaseUrl() + "|" + request.getInternalJavadocVersion() + "|"
+                + request.getExternalJavadocBaseUrls() + "|" + getClasspathKey(request);
+        Map<String, File> sourceFiles = new HashMap<>();
+        Map<File, String> sourceFileDigests = new HashMap<>();
+        Map<String, String> javadocCacheKeys = new HashMap<>();
+        for (MojoAnnotatedClass mojoAnnotatedClass : mojoAnnotatedClasses.values()) {
+            if (!isMojoAnnnotatedClassCandidate(mojoAnnotatedClass)
+                    || getSourceFile(mojoAnnotatedClass, sourceRoots, sourceFiles) == null) {
+                continue;
+            }
+            StringBuilder key = new StringBuilder(JavadocCache.EXTRACTOR_VERSION)
+                    .append('|')
+                    .append(configuration);
+            String className = mojoAnnotatedClass.getClassName();
+            Set<String> visited = new HashSet<>();
+            while (className != null && visited.add(className)) {
+                MojoAnnotatedClass parent = mojoAnnotatedClasses.get(className);
+                File sourceFile = getSourceFile(parent, sourceRoots, sourceFiles);
+                key.append('|').append(className).append('=');
+                if (sourceFile != null) {
+                    key.append(getDigest(sourceFile, sourceFileDigests));
+                } else if (parent != null && parent.getArtifact() != null) {
+                    key.append(parent.getArtifact().getId());
+                } else {
+                    key.append('-');
+                }
+                className = parent != null ? parent.getParentClassName() : null;
+            }
+            javadocCacheKeys.put(
+                    mojoAnnotatedClass.getClassName(), digest(key.toString().getBytes(UTF_8)));
         }
+        return javadocCacheKeys;
+    }
+
+    /**
+     * The types referenced from the javadoc are resolved against the dependencies, so any change of them, including
+     * rebuilt snapshots, invalidates the cached javadoc content.
+     */
+    private static String getClasspathKey(PluginToolsRequest request) {
+        Set<String> dependencies = new TreeSet<>();
+        for (Artifact dependency : request.getDependencies()) {
+            File file = dependency.getFile();
+            dependencies.add(dependency.getId() + "="
+                    + (file != null ? file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified() : "-"));
+        }
+        return dependencies.toString();
+    }
+
+    private static File getSourceFile(
+            MojoAnnotatedClass mojoAnnotatedClass, Map<String, List<File>> sourceRoots, Map<String, File> sourceFiles) {
+        if (mojoAnnotatedClass == null || mojoAnnotatedClass.getArtifact() == null) {
+            return null;
+        }
+        List<File> roots = sourceRoots.get(mojoAnnotatedClass.getArtifact().getArtifactId());
+        if (roots == null) {
+            return null;
+        }
+        return sourceFiles.computeIfAbsent(mojoAnnotatedClass.getClassName(), className -> {
+            String sourceFile = MojoSources.toSourceFile(className);
+            for (File root : roots) {
+                File file = new File(root, sourceFile);
+                if (file.isFile()) {
+                    return file;
+                }
+            }
+            return null;
+        });
+    }
 
-        populateDataFromJavadoc(builder, mojoAnnotatedClasses, javaClassesMap, linkGenerator);
+    private static String getDigest(File sourceFile, Map<File, String> sourceFileDigests) throws ExtractionException {
+        String digest = sourceFileDigests.get(sourceFile);
+        if (digest == null) {
+            try {
+                digest = digest(Files.readAllBytes(sourceFile.toPath()));
+            } catch (IOException e) {
+                throw new ExtractionException("Unable to read source file " + sourceFile + ": " + e.getMessage(), e);
+            }
+            sourceFileDigests.put(sourceFile, digest);
+        }
+        return digest;
+    }
 
-        return toMojoDescriptors(mojoAnnotatedClasses, request.getPluginDescriptor());
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+            return String.format("%040x", new BigInteger(1, digest));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     private Map<String, MojoAnnotatedClass> scanAnnotations(PluginToolsRequest request) throws ExtractionException {
@@ -232,13 +415,35 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
 
         mojoAnnotationsScannerRequest.setProject(request.getProject());
 
+        mojoAnnotationsScannerRequest.setThreadCount(request.getScanThreadCount());
+
+        mojoAnnotationsScannerRequest.setCacheDirectory(request.getScanCacheDirectory());
+
+        mojoAnnotationsScannerRequest.setDependenciesOnDemand(request.isScanDependenciesOnDemand());
+
+        mojoAnnotationsScannerRequest.setStateDirectory(request.getScanStateDirectory());
+
+        mojoAnnotationsScannerRequest.setDeltaFilter(request.getScanDeltaFilter());
+
+        mojoAnnotationsScannerRequest.setIndexFile(request.getScanIndexFile());
+
+        mojoAnnotationsScannerRequest.setClassAnnotationsListener(request.getClassAnnotationsListener());
+
         Map<String, MojoAnnotatedClass> result = mojoAnnotationsScanner.scan(mojoAnnotationsScannerRequest);
         request.setUsedMavenApiVersion(mojoAnnotationsScannerRequest.getMavenApiVersion());
         return result;
     }
 
+    /**
+     * @param mojoSources  if not {@code null}, collects the sources to parse the mojo sources from, otherwise all
+     *                     sources are parsed
+     * @param classLoaders the lease to acquire the classloaders used for type resolution with
+     */
     private JavaProjectBuilder scanJavadoc(
-            PluginToolsRequest request, Collection<MojoAnnotatedClass> mojoAnnotatedClasses)
+            PluginToolsRequest request,
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
+            MojoSources mojoSources,
+            ClassLoaderPool.Lease classLoaders)
             throws ExtractionException {
         // found artifact from reactors to scan sources
         // we currently only scan sources from reactors
@@ -249,9 +454,9 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
 
         JavaProjectBuilder builder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
         builder.setEncoding(request.getEncoding());
-        extendJavaProjectBuilder(builder, request.getProject());
+        extendJavaProjectBuilder(builder, request.getProject(), mojoSources, classLoaders);
 
-        for (MojoAnnotatedClass mojoAnnotatedClass : mojoAnnotatedClasses) {
+        for (MojoAnnotatedClass mojoAnnotatedClass : mojoAnnotatedClasses.values()) {
             if (Objects.equals(
                     mojoAnnotatedClass.getArtifact().getArtifactId(),
                     request.getProject().getArtifact().getArtifactId())) {
@@ -273,18 +478,32 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
             }
         }
 
-        // try to get artifact with sources classifier, extract somewhere then scan for @since, @deprecated
+        // try to get artifacts with sources classifier, then scan for @since, @deprecated
+        Map<Artifact, String> sourcesClassifiers = new LinkedHashMap<>();
         for (Artifact artifact : externalArtifacts) {
             // parameter for test-sources too ?? olamy I need that for it test only
-            if (StringUtils.equalsIgnoreCase("tests", artifact.getClassifier())) {
-                extendJavaProjectBuilderWithSourcesJar(builder, artifact, request, "test-sources");
+            String classifier =
+                    StringUtils.equalsIgnoreCase("tests", artifact.getClassifier()) ? "test-sources" : "sources";
+            sourcesClassifiers.put(artifact, classifier);
+        }
+
+        for (File sources : resolveSources(sourcesClassifiers, request).values()) {
+            if (sources.isDirectory()) {
+                extendJavaProjectBuilder(
+                        builder, Arrays.asList(sources), request.getDependencies(), mojoSources, classLoaders);
             } else {
-                extendJavaProjectBuilderWithSourcesJar(builder, artifact, request, "sources");
+                extendJavaProjectBuilder(
+                        builder, Collections.emptyList(), request.getDependencies(), mojoSources, classLoaders);
+                if (mojoSources != null) {
+                    mojoSources.addSourcesJar(sources);
+                } else {
+                    addSourcesJar(builder, sources);
+                }
             }
         }
 
         for (MavenProject mavenProject : mavenProjects) {
-            extendJavaProjectBuilder(builder, mavenProject);
+            extendJavaProjectBuilder(builder, mavenProject, mojoSources, classLoaders);
         }
 
         return builder;
@@ -302,92 +521,204 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
             Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
             Map<String, JavaClass> javaClassesMap,
             JavadocLinkGenerator linkGenerator) {
+        populateDataFromJavadoc(
+                javaClass -> javaProjectBuilder,
+                mojoAnnotatedClasses,
+                new ClassHierarchyIndex(mojoAnnotatedClasses),
+                javaClassesMap,
+                linkGenerator,
+                null,
+                Collections.emptyMap());
+    }
+
+    /**
+     * @param javaProjectBuilders the builder which parsed each class
+     * @param classHierarchy      the hierarchies of the scanned classes
+     * @param javadocCache        the cache of the javadoc content, or {@code null}
+     * @param javadocCacheKeys    the cache keys of the classes whose javadoc content may be cached
+     */
+    private void populateDataFromJavadoc(
+            Function<JavaClass, JavaProjectBuilder> javaProjectBuilders,
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
+            ClassHierarchyIndex classHierarchy,
+            Map<String, JavaClass> javaClassesMap,
+            JavadocLinkGenerator linkGenerator,
+            JavadocCache javadocCache,
+            Map<String, String> javadocCacheKeys) {
+        ReferenceResolutionCache resolutionCache = new ReferenceResolutionCache();
 
         for (Map.Entry<String, MojoAnnotatedClass> entry : mojoAnnotatedClasses.entrySet()) {
-            JavaClass javaClass = javaClassesMap.get(entry.getKey());
-            if (javaClass == null) {
-                continue;
+            String javadocCacheKey = javadocCacheKeys.get(entry.getKey());
+            List<JavadocValue> values =
+                    javadocCacheKey != null ? javadocCache.get(entry.getKey(), javadocCacheKey) : null;
+            if (values == null) {
+                JavaClass javaClass = javaClassesMap.get(entry.getKey());
+                if (javaClass == null) {
+                    continue;
+                }
+                values = extractJavadoc(
+                        javaClass,
+                        javaProjectBuilders.apply(javaClass),
+                        entry.getValue(),
+                        mojoAnnotatedClasses,
+                        classHierarchy,
+                        javaClassesMap,
+                        linkGenerator,
+                        resolutionCache);
+                if (javadocCacheKey != null) {
+                    javadocCache.put(entry.getKey(), javadocCacheKey, values);
+                }
             }
-            // populate class-level content
-            MojoAnnotationContent mojoAnnotationContent = entry.getValue().getMojo();
-            if (mojoAnnotationContent != null) {
-                JavaClassConverterContext context = new JavaClassConverterContext(
-                        javaClass, javaProjectBuilder, mojoAnnotatedClasses, linkGenerator, javaClass.getLineNumber());
-                mojoAnnotationContent.setDescription(getDescriptionFromElement(javaClass, context));
+            applyJavadoc(values, entry.getValue(), classHierarchy);
+        }
 
-                DocletTag since = findInClassHierarchy(javaClass, "since");
-                if (since != null) {
-                    mojoAnnotationContent.setSince(getRawValueFromTaglet(since, context));
-                }
+        if (getLogger().isDebugEnabled()) {
+            getLogger()
+                    .debug("Javadoc reference resolution cache hits: " + resolutionCache.getHits() + ", misses: "
+                            + resolutionCache.getMisses());
+        }
+    }
 
-                DocletTag deprecated = findInClassHierarchy(javaClass, "deprecated");
-                if (deprecated != null) {
-                    mojoAnnotationContent.setDeprecated(getRawValueFromTaglet(deprecated, context));
-                }
+    /**
+     * @return the javadoc content of the class and of its parameters and components, in the order it is set
+     */
+    private List<JavadocValue> extractJavadoc(
+            JavaClass javaClass,
+            JavaProjectBuilder javaProjectBuilder,
+            MojoAnnotatedClass mojoAnnotatedClass,
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
+            ClassHierarchyIndex classHierarchy,
+            Map<String, JavaClass> javaClassesMap,
+            JavadocLinkGenerator linkGenerator,
+            ReferenceResolutionCache resolutionCache) {
+        List<JavadocValue> values = new ArrayList<>();
+
+        // populate class-level content
+        if (mojoAnnotatedClass.getMojo() != null) {
+            JavaClassConverterContext context = new JavaClassConverterContext(
+                    javaClass,
+                    javaClass,
+                    javaProjectBuilder,
+                    mojoAnnotatedClasses,
+                    linkGenerator,
+                    javaClass.getLineNumber(),
+                    resolutionCache);
+            values.add(new JavadocValue(
+                    Target.MOJO, null, Attribute.DESCRIPTION, getDescriptionFromElement(javaClass, context)));
+
+            DocletTag since = findInClassHierarchy(javaClass, "since", classHierarchy);
+            if (since != null) {
+                values.add(new JavadocValue(Target.MOJO, null, Attribute.SINCE, getRawValueFromTaglet(since, context)));
             }
 
-            Map<String, JavaAnnotatedElement> fieldsMap = extractFieldsAnnotations(javaClass, javaClassesMap);
-            Map<String, JavaAnnotatedElement> methodsMap = extractMethodsAnnotations(javaClass, javaClassesMap);
+            DocletTag deprecated = findInClassHierarchy(javaClass, "deprecated", classHierarchy);
+            if (deprecated != null) {
+                values.add(new JavadocValue(
+                        Target.MOJO, null, Attribute.DEPRECATED, getRawValueFromTaglet(deprecated, context)));
+            }
+        }
 
-            // populate parameters
-            Map<String, ParameterAnnotationContent> parameters =
-                    getParametersParentHierarchy(entry.getValue(), mojoAnnotatedClasses);
-            parameters = new TreeMap<>(parameters);
-            for (Map.Entry<String, ParameterAnnotationContent> parameter : parameters.entrySet()) {
-                JavaAnnotatedElement element;
-                if (parameter.getValue().isAnnotationOnMethod()) {
-                    element = methodsMap.get(parameter.getKey());
-                } else {
-                    element = fieldsMap.get(parameter.getKey());
-                }
+        Map<String, JavaAnnotatedElement> fieldsMap =
+                extractFieldsAnnotations(javaClass, javaClassesMap, classHierarchy);
+        Map<String, JavaAnnotatedElement> methodsMap =
+                extractMethodsAnnotations(javaClass, javaClassesMap, classHierarchy);
+
+        // populate parameters
+        Map<String, ParameterAnnotationContent> parameters =
+                new TreeMap<>(classHierarchy.getParameters(mojoAnnotatedClass));
+        for (Map.Entry<String, ParameterAnnotationContent> parameter : parameters.entrySet()) {
+            JavaAnnotatedElement element;
+            if (parameter.getValue().isAnnotationOnMethod()) {
+                element = methodsMap.get(parameter.getKey());
+            } else {
+                element = fieldsMap.get(parameter.getKey());
+            }
 
-                if (element == null) {
-                    continue;
-                }
+            if (element == null) {
+                continue;
+            }
 
-                JavaClassConverterContext context = new JavaClassConverterContext(
-                        javaClass, ((JavaMember) element).getDeclaringClass(),
-                        javaProjectBuilder, mojoAnnotatedClasses,
-                        linkGenerator, element.getLineNumber());
-                ParameterAnnotationContent parameterAnnotationContent = parameter.getValue();
-                parameterAnnotationContent.setDescription(getDescriptionFromElement(element, context));
+            JavaClassConverterContext context = new JavaClassConverterContext(
+                    javaClass,
+                    ((JavaMember) element).getDeclaringClass(),
+                    javaProjectBuilder,
+                    mojoAnnotatedClasses,
+                    linkGenerator,
+                    element.getLineNumber(),
+                    resolutionCache);
+            values.add(new JavadocValue(
+                    Target.PARAMETER,
+                    parameter.getKey(),
+                    Attribute.DESCRIPTION,
+                    getDescriptionFromElement(element, context)));
+
+            DocletTag deprecated = element.getTagByName("deprecated");
+            if (deprecated != null) {
+                values.add(new JavadocValue(
+                        Target.PARAMETER,
+                        parameter.getKey(),
+                        Attribute.DEPRECATED,
+                        getRawValueFromTaglet(deprecated, context)));
+            }
 
-                DocletTag deprecated = element.getTagByName("deprecated");
-                if (deprecated != null) {
-                    parameterAnnotationContent.setDeprecated(getRawValueFromTaglet(deprecated, context));
-                }
+            DocletTag since = element.getTagByName("since");
+            if (since != null) {
+                values.add(new JavadocValue(
+                        Target.PARAMETER, parameter.getKey(), Attribute.SINCE, getRawValueFromTaglet(since, context)));
+            }
+        }
 
-                DocletTag since = element.getTagByName("since");
-                if (since != null) {
-                    parameterAnnotationContent.setSince(getRawValueFromTaglet(since, context));
-                }
+        // populate components
+        for (String component : mojoAnnotatedClass.getComponents().keySet()) {
+            JavaAnnotatedElement element = fieldsMap.get(component);
+            if (element == null) {
+                continue;
             }
 
-            // populate components
-            Map<String, ComponentAnnotationContent> components =
-                    entry.getValue().getComponents();
-            for (Map.Entry<String, ComponentAnnotationContent> component : components.entrySet()) {
-                JavaAnnotatedElement element = fieldsMap.get(component.getKey());
-                if (element == null) {
-                    continue;
-                }
+            JavaClassConverterContext context = new JavaClassConverterContext(
+                    javaClass,
+                    ((JavaMember) element).getDeclaringClass(),
+                    javaProjectBuilder,
+                    mojoAnnotatedClasses,
+                    linkGenerator,
+                    javaClass.getLineNumber(),
+                    resolutionCache);
+            values.add(new JavadocValue(
+                    Target.COMPONENT, component, Attribute.DESCRIPTION, getDescriptionFromElement(element, context)));
+
+            DocletTag deprecated = element.getTagByName("deprecated");
+            if (deprecated != null) {
+                values.add(new JavadocValue(
+                        Target.COMPONENT, component, Attribute.DEPRECATED, getRawValueFromTaglet(deprecated, context)));
+            }
 
-                JavaClassConverterContext context = new JavaClassConverterContext(
-                        javaClass, ((JavaMember) element).getDeclaringClass(),
-                        javaProjectBuilder, mojoAnnotatedClasses,
-                        linkGenerator, javaClass.getLineNumber());
-                ComponentAnnotationContent componentAnnotationContent = component.getValue();
-                componentAnnotationContent.setDescription(getDescriptionFromElement(element, context));
+            DocletTag since = element.getTagByName("since");
+            if (since != null) {
+                values.add(new JavadocValue(
+                        Target.COMPONENT, component, Attribute.SINCE, getRawValueFromTaglet(since, context)));
+            }
+        }
 
-                DocletTag deprecated = element.getTagByName("deprecated");
-                if (deprecated != null) {
-                    componentAnnotationContent.setDeprecated(getRawValueFromTaglet(deprecated, context));
-                }
+        return values;
+    }
 
-                DocletTag since = element.getTagByName("since");
-                if (since != null) {
-                    componentAnnotationContent.setSince(getRawValueFromTaglet(since, context));
-                }
+    private void applyJavadoc(
+            List<JavadocValue> values, MojoAnnotatedClass mojoAnnotatedClass, ClassHierarchyIndex classHierarchy) {
+        for (JavadocValue value : values) {
+            AnnotatedContent content;
+            switch (value.getTarget()) {
+                case MOJO:
+                    content = mojoAnnotatedClass.getMojo();
+                    break;
+                case PARAMETER:
+                    content = classHierarchy.getParameters(mojoAnnotatedClass).get(value.getName());
+                    break;
+                default:
+                    content = mojoAnnotatedClass.getComponents().get(value.getName());
+            }
+            // the cache key covers the class hierarchy, so the annotated members cannot differ
+            if (content != null) {
+                value.apply(content);
             }
         }
     }
@@ -421,23 +752,14 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
     }
 
     /**
-     * @param javaClass not null
-     * @param tagName   not null
+     * @param javaClass      not null
+     * @param tagName        not null
+     * @param classHierarchy not null
      * @return docletTag instance
      */
-    private DocletTag findInClassHierarchy(JavaClass javaClass, String tagName) {
+    private DocletTag findInClassHierarchy(JavaClass javaClass, String tagName, ClassHierarchyIndex classHierarchy) {
         try {
-            DocletTag tag = javaClass.getTagByName(tagName);
-
-            if (tag == null) {
-                JavaClass superClass = javaClass.getSuperJavaClass();
-
-                if (superClass != null) {
-                    tag = findInClassHierarchy(superClass, tagName);
-                }
-            }
-
-            return tag;
+            return classHierarchy.findInClassHierarchy(javaClass, tagName);
         } catch (NoClassDefFoundError e) {
             if (e.getMessage().replace('/', '.').contains(MojoAnnotationsScanner.V4_API_PLUGIN_PACKAGE)) {
                 return null;
@@ -460,7 +782,11 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
      * @return map with Mojo parameters names as keys
      */
     private Map<String, JavaAnnotatedElement> extractFieldsAnnotations(
-            JavaClass javaClass, Map<String, JavaClass> javaClassesMap) {
+            JavaClass javaClass, Map<String, JavaClass> javaClassesMap, ClassHierarchyIndex classHierarchy) {
+        Map<String, JavaAnnotatedElement> fields = classHierarchy.getFields(javaClass);
+        if (fields != null) {
+            return fields;
+        }
         try {
             Map<String, JavaAnnotatedElement> rawParams = new TreeMap<>();
 
@@ -470,12 +796,12 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
 
             if (superClass != null) {
                 if (!superClass.getFields().isEmpty()) {
-                    rawParams = extractFieldsAnnotations(superClass, javaClassesMap);
+                    rawParams = new TreeMap<>(extractFieldsAnnotations(superClass, javaClassesMap, classHierarchy));
                 }
                 // maybe sources comes from scan of sources artifact
                 superClass = javaClassesMap.get(superClass.getFullyQualifiedName());
                 if (superClass != null && !superClass.getFields().isEmpty()) {
-                    rawParams = extractFieldsAnnotations(superClass, javaClassesMap);
+                    rawParams = new TreeMap<>(extractFieldsAnnotations(superClass, javaClassesMap, classHierarchy));
                 }
             } else {
 
@@ -486,7 +812,7 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
                 rawParams.put(field.getName(), field);
             }
 
-            return rawParams;
+            return classHierarchy.putFields(javaClass, rawParams);
         } catch (NoClassDefFoundError e) {
             getLogger().warn("Failed extracting parameters from " + javaClass);
             throw e;
@@ -500,7 +826,11 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
      * @return map with Mojo parameters names as keys
      */
     private Map<String, JavaAnnotatedElement> extractMethodsAnnotations(
-            JavaClass javaClass, Map<String, JavaClass> javaClassesMap) {
+            JavaClass javaClass, Map<String, JavaClass> javaClassesMap, ClassHierarchyIndex classHierarchy) {
+        Map<String, JavaAnnotatedElement> setters = classHierarchy.getSetters(javaClass);
+        if (setters != null) {
+            return setters;
+        }
         try {
             Map<String, JavaAnnotatedElement> rawParams = new TreeMap<>();
 
@@ -510,12 +840,12 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
 
             if (superClass != null) {
                 if (!superClass.getMethods().isEmpty()) {
-                    rawParams = extractMethodsAnnotations(superClass, javaClassesMap);
+                    rawParams = new TreeMap<>(extractMethodsAnnotations(superClass, javaClassesMap, classHierarchy));
                 }
                 // maybe sources comes from scan of sources artifact
                 superClass = javaClassesMap.get(superClass.getFullyQualifiedName());
                 if (superClass != null && !superClass.getMethods().isEmpty()) {
-                    rawParams = extractMethodsAnnotations(superClass, javaClassesMap);
+                    rawParams = new TreeMap<>(extractMethodsAnnotations(superClass, javaClassesMap, classHierarchy));
                 }
             } else {
 
@@ -529,7 +859,7 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
                 }
             }
 
-            return rawParams;
+            return classHierarchy.putSetters(javaClass, rawParams);
         } catch (NoClassDefFoundError e) {
             if (e.getMessage().replace('/', '.').contains(MojoAnnotationsScanner.V4_API_PLUGIN_PACKAGE)) {
                 return new TreeMap<>();
@@ -570,62 +900,132 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
         return javaClassMap;
     }
 
+    /**
+     * @deprecated no longer called: the sources artifacts of all mojos are resolved with a single request and read in
+     * place by {@code addSourcesJar}, with the classloaders of the extraction
+     */
+    @Deprecated
     protected void extendJavaProjectBuilderWithSourcesJar(
             JavaProjectBuilder builder, Artifact artifact, PluginToolsRequest request, String classifier)
             throws ExtractionException {
-        try {
+        File sources = resolveSources(Collections.singletonMap(artifact, classifier), request)
+                .get(artifact);
+        if (sources == null) {
+            return;
+        }
+        try (ClassLoaderPool.Lease classLoaders = classLoaderPool.lease()) {
+            if (sources.isDirectory()) {
+                extendJavaProjectBuilder(
+                        builder, Arrays.asList(sources), request.getDependencies(), null, classLoaders);
+            } else {
+                extendJavaProjectBuilder(
+                        builder, Collections.emptyList(), request.getDependencies(), null, classLoaders);
+                addSourcesJar(builder, sources);
+            }
+        }
+    }
+
+    /**
+     * Resolves the sources artifacts of several artifacts with a single request to the repository system, so that
+     * they can be downloaded in parallel. Artifacts without sources are reported and left out.
+     *
+     * @param sourcesClassifiers the classifier of the sources artifact to resolve, by artifact
+     * @param request            the request
+     * @return the sources jar or directory, by artifact
+     */
+    private Map<Artifact, File> resolveSources(Map<Artifact, String> sourcesClassifiers, PluginToolsRequest request) {
+        if (sourcesClassifiers.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Artifact> artifacts = new ArrayList<>(sourcesClassifiers.keySet());
+        List<ArtifactRequest> resolveRequests = new ArrayList<>(artifacts.size());
+        for (Artifact artifact : artifacts) {
             org.eclipse.aether.artifact.Artifact sourcesArtifact = new DefaultArtifact(
                     artifact.getGroupId(),
                     artifact.getArtifactId(),
-                    classifier,
+                    sourcesClassifiers.get(artifact),
                     artifact.getArtifactHandler().getExtension(),
                     artifact.getVersion());
+            resolveRequests.add(
+                    new ArtifactRequest(sourcesArtifact, request.getProject().getRemoteProjectRepositories(), null));
+        }
 
-            ArtifactRequest resolveRequest =
-                    new ArtifactRequest(sourcesArtifact, request.getProject().getRemoteProjectRepositories(), null);
-            try {
-                ArtifactResult result = repositorySystem.resolveArtifact(request.getRepoSession(), resolveRequest);
-                sourcesArtifact = result.getArtifact();
-            } catch (ArtifactResolutionException e) {
+        long start = System.nanoTime();
+        List<ArtifactResult> results;
+        try {
+            results = repositorySystem.resolveArtifacts(request.getRepoSession(), resolveRequests);
+        } catch (ArtifactResolutionException e) {
+            // some artifacts could not be resolved, the results of all requests are still available
+            results = e.getResults();
+        }
+        if (getLogger().isDebugEnabled()) {
+            getLogger()
+                    .debug("Resolved " + resolveRequests.size() + " sources artifacts in "
+                            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        }
+
+        // results are in the order of the requests
+        Map<Artifact, File> sources = new LinkedHashMap<>();
+        for (int i = 0; i < artifacts.size(); i++) {
+            Artifact artifact = artifacts.get(i);
+            ArtifactResult result = results.get(i);
+            if (!result.isResolved()) {
                 String message = "Unable to get sources artifact for " + artifact.getId()
                         + ". Some javadoc tags (@since, @deprecated and comments) won't be used";
-                if (getLogger().isDebugEnabled()) {
-                    getLogger().warn(message, e);
+                if (getLogger().isDebugEnabled() && !result.getExceptions().isEmpty()) {
+                    getLogger().warn(message, result.getExceptions().get(0));
                 } else {
                     getLogger().warn(message);
                 }
-                return;
+                continue;
             }
 
-            if (sourcesArtifact.getFile() == null || !sourcesArtifact.getFile().exists()) {
+            File file = result.getArtifact().getFile();
+            if (file == null || !file.exists()) {
                 // could not get artifact sources
-                return;
+                continue;
             }
+            if (getLogger().isDebugEnabled()) {
+                getLogger()
+                        .debug("Resolved sources artifact " + result.getArtifact() + " from " + result.getRepository()
+                                + ": " + file);
+            }
+            sources.put(artifact, file);
+        }
+        return sources;
+    }
 
-            if (sourcesArtifact.getFile().isFile()) {
-                // extract sources to target/maven-plugin-plugin-sources/${groupId}/${artifact}/sources
-                File extractDirectory = new File(
-                        request.getProject().getBuild().getDirectory(),
-                        "maven-plugin-plugin-sources/" + sourcesArtifact.getGroupId() + "/"
-                                + sourcesArtifact.getArtifactId() + "/" + sourcesArtifact.getVersion()
-                                + "/" + sourcesArtifact.getClassifier());
-                extractDirectory.mkdirs();
-
-                UnArchiver unArchiver = archiverManager.getUnArchiver("jar");
-                unArchiver.setSourceFile(sourcesArtifact.getFile());
-                unArchiver.setDestDirectory(extractDirectory);
-                unArchiver.extract();
-
-                extendJavaProjectBuilder(builder, Arrays.asList(extractDirectory), request.getDependencies());
-            } else if (sourcesArtifact.getFile().isDirectory()) {
-                extendJavaProjectBuilder(builder, Arrays.asList(sourcesArtifact.getFile()), request.getDependencies());
+    /**
+     * Parses all the source files of a sources jar, read in place.
+     */
+    private void addSourcesJar(JavaProjectBuilder builder, File sourcesJar) throws ExtractionException {
+        try (JarFile jarFile = MojoSources.openSourcesJar(sourcesJar)) {
+            Enumeration<JarEntry> entries = jarFile.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                if (!entry.isDirectory() && entry.getName().endsWith(".java")) {
+                    MojoSources.addSource(builder, jarFile, entry);
+                }
             }
-        } catch (ArchiverException | NoSuchArchiverException e) {
-            throw new ExtractionException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw new ExtractionException("Unable to read sources jar " + sourcesJar + ": " + e.getMessage(), e);
         }
     }
 
-    private void extendJavaProjectBuilder(JavaProjectBuilder builder, final MavenProject project) {
+    /**
+     * @param mojoSources if not {@code null}, the source roots are only registered as source folders to look up
+     *                    types in; otherwise all their source files are parsed
+     */
+    private void extendJavaProjectBuilder(
+            JavaProjectBuilder builder,
+            final MavenProject project,
+            MojoSources mojoSources,
+            ClassLoaderPool.Lease classLoaders) {
+        extendJavaProjectBuilder(builder, getSourceRoots(project), project.getArtifacts(), mojoSources, classLoaders);
+    }
+
+    private static List<File> getSourceRoots(MavenProject project) {
         List<File> sources = new ArrayList<>();
 
         for (String source : project.getCompileSourceRoots()) {
@@ -637,30 +1037,42 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
         if (!project.getCompileSourceRoots().contains(generatedPlugin.getAbsolutePath()) && generatedPlugin.exists()) {
             sources.add(generatedPlugin);
         }
-        extendJavaProjectBuilder(builder, sources, project.getArtifacts());
+        return sources;
     }
 
     private void extendJavaProjectBuilder(
-            JavaProjectBuilder builder, List<File> sourceDirectories, Set<Artifact> artifacts) {
-
-        // Build isolated Classloader with only the artifacts of the project (none of this plugin)
-        List<URL> urls = new ArrayList<>(artifacts.size());
-        for (Artifact artifact : artifacts) {
-            try {
-                urls.add(artifact.getFile().toURI().toURL());
-            } catch (MalformedURLException e) {
-                // noop
+            JavaProjectBuilder builder,
+            List<File> sourceDirectories,
+            Set<Artifact> artifacts,
+            MojoSources mojoSources,
+            ClassLoaderPool.Lease classLoaders) {
+
+        // shared with the other sources using the same artifacts, only registered once
+        ClassLoader classLoader = classLoaders.acquire(artifacts);
+
+        if (mojoSources == null) {
+            if (classLoader != null) {
+                builder.addClassLoader(classLoader);
+            }
+            for (File source : sourceDirectories) {
+                builder.addSourceTree(source);
+            }
+        } else {
+            if (classLoader != null) {
+                mojoSources.addClassLoader(builder, classLoader);
+            }
+            for (File source : sourceDirectories) {
+                if (source.isDirectory()) {
+                    mojoSources.addSourceFolder(builder, source);
+                }
             }
-        }
-        builder.addClassLoader(new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getSystemClassLoader()));
-
-        for (File source : sourceDirectories) {
-            builder.addSourceTree(source);
         }
     }
 
     private List<MojoDescriptor> toMojoDescriptors(
-            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses, PluginDescriptor pluginDescriptor)
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
+            ClassHierarchyIndex classHierarchy,
+            PluginDescriptor pluginDescriptor)
             throws InvalidPluginDescriptorException {
         List<MojoDescriptor> mojoDescriptors = new ArrayList<>(mojoAnnotatedClasses.size());
         for (MojoAnnotatedClass mojoAnnotatedClass : mojoAnnotatedClasses.values()) {
@@ -705,7 +1117,7 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
             mojoDescriptor.setThreadSafe(mojo.threadSafe());
 
             MojoAnnotatedClass mojoAnnotatedClassWithExecute =
-                    findClassWithExecuteAnnotationInParentHierarchy(mojoAnnotatedClass, mojoAnnotatedClasses);
+                    classHierarchy.findClassWithExecuteAnnotation(mojoAnnotatedClass);
             if (mojoAnnotatedClassWithExecute != null && mojoAnnotatedClassWithExecute.getExecute() != null) {
                 ExecuteAnnotationContent execute = mojoAnnotatedClassWithExecute.getExecute();
                 mojoDescriptor.setExecuteGoal(execute.goal());
@@ -734,8 +1146,7 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
             mojoDescriptor.setPhase(mojo.defaultPhase().id());
 
             // Parameter annotations
-            Map<String, ParameterAnnotationContent> parameters =
-                    getParametersParentHierarchy(mojoAnnotatedClass, mojoAnnotatedClasses);
+            Map<String, ParameterAnnotationContent> parameters = classHierarchy.getParameters(mojoAnnotatedClass);
 
             for (ParameterAnnotationContent parameterAnnotationContent : new TreeSet<>(parameters.values())) {
                 org.apache.maven.plugin.descriptor.Parameter parameter =
@@ -772,8 +1183,7 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
             }
 
             // Component annotations
-            Map<String, ComponentAnnotationContent> components =
-                    getComponentsParentHierarchy(mojoAnnotatedClass, mojoAnnotatedClasses);
+            Map<String, ComponentAnnotationContent> components = classHierarchy.getComponents(mojoAnnotatedClass);
 
             for (ComponentAnnotationContent componentAnnotationContent : new TreeSet<>(components.values())) {
                 org.apache.maven.plugin.descriptor.Parameter parameter =
@@ -800,36 +1210,12 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
 
     protected MojoAnnotatedClass findClassWithExecuteAnnotationInParentHierarchy(
             MojoAnnotatedClass mojoAnnotatedClass, Map<String, MojoAnnotatedClass> mojoAnnotatedClasses) {
-        if (mojoAnnotatedClass.getExecute() != null) {
-            return mojoAnnotatedClass;
-        }
-        String parentClassName = mojoAnnotatedClass.getParentClassName();
-        if (parentClassName == null || parentClassName.isEmpty()) {
-            return null;
-        }
-        MojoAnnotatedClass parent = mojoAnnotatedClasses.get(parentClassName);
-        if (parent == null) {
-            return null;
-        }
-        return findClassWithExecuteAnnotationInParentHierarchy(parent, mojoAnnotatedClasses);
+        return new ClassHierarchyIndex(mojoAnnotatedClasses).findClassWithExecuteAnnotation(mojoAnnotatedClass);
     }
 
     protected Map<String, ParameterAnnotationContent> getParametersParentHierarchy(
             MojoAnnotatedClass mojoAnnotatedClass, Map<String, MojoAnnotatedClass> mojoAnnotatedClasses) {
-        List<ParameterAnnotationContent> parameterAnnotationContents = new ArrayList<>();
-
-        parameterAnnotationContents =
-                getParametersParent(mojoAnnotatedClass, parameterAnnotationContents, mojoAnnotatedClasses);
-
-        // move to parent first to build the Map
-        Collections.reverse(parameterAnnotationContents);
-
-        Map<String, ParameterAnnotationContent> map = new HashMap<>(parameterAnnotationContents.size());
-
-        for (ParameterAnnotationContent parameterAnnotationContent : parameterAnnotationContents) {
-            map.put(parameterAnnotationContent.getFieldName(), parameterAnnotationContent);
-        }
-        return map;
+        return new HashMap<>(new ClassHierarchyIndex(mojoAnnotatedClasses).getParameters(mojoAnnotatedClass));
     }
 
     protected List<ParameterAnnotationContent> getParametersParent(
@@ -849,20 +1235,7 @@ public class JavaAnnotationsMojoDescriptorExtractor extends AbstractLogEnabled i
 
     protected Map<String, ComponentAnnotationContent> getComponentsParentHierarchy(
             MojoAnnotatedClass mojoAnnotatedClass, Map<String, MojoAnnotatedClass> mojoAnnotatedClasses) {
-        List<ComponentAnnotationContent> componentAnnotationContents = new ArrayList<>();
-
-        componentAnnotationContents =
-                getComponentParent(mojoAnnotatedClass, componentAnnotationContents, mojoAnnotatedClasses);
-
-        // move to parent first to build the Map
-        Collections.reverse(componentAnnotationContents);
-
-        Map<String, ComponentAnnotationContent> map = new HashMap<>(componentAnnotationContents.size());
-
-        for (ComponentAnnotationContent componentAnnotationContent : componentAnnotationContents) {
-            map.put(componentAnnotationContent.getFieldName(), componentAnnotationContent);
-        }
-        return map;
+        return new HashMap<>(new ClassHierarchyIndex(mojoAnnotatedClasses).getComponents(mojoAnnotatedClass));
     }
 
     protected List<ComponentAnnotationContent> getComponentParent(
@@ -0,0 +1,292 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations;
+
+import java.io.BufferedInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.AnnotatedContent;
+import org.apache.maven.tools.plugin.extractor.annotations.scanner.ScanResultFormat;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Javadoc content extracted from the sources of the scanned classes, kept between builds so that classes whose
+ * sources have not changed are neither parsed nor converted again. Each class is stored with a key computed from the
+ * content of the source files of its class hierarchy and from the javadoc link configuration, and the cached content
+ * is only used if the key is unchanged.
+ * Classes which are not {@link #get(String, String) looked up} are evicted when the cache is {@link #save() saved}.
+ *
+ * @since 4.0.0
+ */
+final class JavadocCache {
+    /**
+     * Must be increased whenever the format of the cache file changes.
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    /**
+     * Identifies the code of the extractor, including the converters and the scanner, as cached content converted by
+     * another version is not used.
+     */
+    static final String EXTRACTOR_VERSION = ScanResultFormat.getCodeVersion(JavadocCache.class);
+
+    private final Path cacheFile;
+
+    private final Logger logger;
+
+    private final Map<String, ClassJavadoc> previous;
+
+    private final Map<String, ClassJavadoc> current = new HashMap<>();
+
+    private boolean changed;
+
+    /**
+     * Loads the cache, or starts with an empty cache if there is none or if it is unusable.
+     *
+     * @param cacheDirectory the directory where the cache is stored
+     * @param logger         the logger
+     */
+    JavadocCache(File cacheDirectory, Logger logger) {
+        this.cacheFile = cacheDirectory.toPath().resolve("javadoc.cache");
+        this.logger = logger;
+        this.previous = load();
+    }
+
+    /**
+     * @param className the name of the class
+     * @param key       the current key of the class
+     * @return {@code true} if there is cached javadoc content of the class for this key
+     */
+    boolean contains(String className, String key) {
+        ClassJavadoc classJavadoc = previous.get(className);
+        return classJavadoc != null && classJavadoc.key.equals(key);
+    }
+
+    /**
+     * @param className the name of the class
+     * @param key       the current key of the class
+     * @return the cached javadoc content of the class, or {@code null} if there is none for this key
+     */
+    List<JavadocValue> get(String className, String key) {
+        ClassJavadoc classJavadoc = previous.get(className);
+        if (classJavadoc == null || !classJavadoc.key.equals(key)) {
+            return null;
+        }
+        current.put(className, classJavadoc);
+        return classJavadoc.values;
+    }
+
+    /**
+     * @param className the name of the class
+     * @param key       the current key of the class
+     * @param values    the javadoc content of the class
+     */
+    void put(String className, String key, List<JavadocValue> values) {
+        current.put(className, new ClassJavadoc(key, new ArrayList<>(values)));
+        changed = true;
+    }
+
+    /**
+     * Stores the classes put or looked up since loading, if anything changed.
+     */
+    void save() {
+        if (!changed && current.keySet().equals(previous.keySet())) {
+            return;
+        }
+
+        try {
+            ScanResultFormat.writeAtomically(cacheFile, out -> {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(EXTRACTOR_VERSION);
+                out.writeInt(current.size());
+                for (Map.Entry<String, ClassJavadoc> entry : current.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeUTF(entry.getValue().key);
+                    out.writeInt(entry.getValue().values.size());
+                    for (JavadocValue value : entry.getValue().values) {
+                        value.write(out);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Unable to write javadoc cache " + cacheFile + ": " + e.getMessage());
+        }
+    }
+
+    private Map<String, ClassJavadoc> load() {
+        if (!Files.isRegularFile(cacheFile)) {
+            return new HashMap<>();
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+            if (in.readInt() == FORMAT_VERSION && EXTRACTOR_VERSION.equals(in.readUTF())) {
+                int size = in.readInt();
+                Map<String, ClassJavadoc> classes = new HashMap<>();
+                for (int i = 0; i < size; i++) {
+                    String className = in.readUTF();
+                    String key = in.readUTF();
+                    int valueCount = in.readInt();
+                    List<JavadocValue> values = new ArrayList<>();
+                    for (int j = 0; j < valueCount; j++) {
+                        values.add(JavadocValue.read(in));
+                    }
+                    classes.put(className, new ClassJavadoc(key, values));
+                }
+                return classes;
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Ignoring javadoc cache " + cacheFile + " of another extractor");
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Ignoring javadoc cache " + cacheFile + " (" + e + ")");
+            }
+        }
+        // will be overwritten
+        return new HashMap<>();
+    }
+
+    private static final class ClassJavadoc {
+        private final String key;
+
+        private final List<JavadocValue> values;
+
+        ClassJavadoc(String key, List<JavadocValue> values) {
+            this.key = key;
+            this.values = values;
+        }
+    }
+
+    /**
+     * A value extracted from the javadoc and set on the annotation content of a class, replayed in the same order.
+     */
+    static final class JavadocValue {
+        /**
+         * The kinds of annotation contents javadoc values are set on.
+         */
+        enum Target {
+            MOJO,
+            PARAMETER,
+            COMPONENT
+        }
+
+        /**
+         * The javadoc attributes.
+         */
+        enum Attribute {
+            DESCRIPTION,
+            SINCE,
+            DEPRECATED
+        }
+
+        private final Target target;
+
+        private final String name;
+
+        private final Attribute attribute;
+
+        private final String value;
+
+        /**
+         * @param target    the kind of annotation content
+         * @param name      the field name of the parameter or component, {@code null} for the mojo
+         * @param attribute the javadoc attribute
+         * @param value     the value, may be {@code null}
+         */
+        JavadocValue(Target target, String name, Attribute attribute, String value) {
+            this.target = target;
+            this.name = name;
+            this.attribute = attribute;
+            this.value = value;
+        }
+
+        void write(DataOutput out) throws IOException {
+            out.writeUTF(target.name());
+            writeString(out, name);
+            out.writeUTF(attribute.name());
+            writeString(out, value);
+        }
+
+        static JavadocValue read(DataInput in) throws IOException {
+            Target target = Target.valueOf(in.readUTF());
+            String name = readString(in);
+            Attribute attribute = Attribute.valueOf(in.readUTF());
+            return new JavadocValue(target, name, attribute, readString(in));
+        }
+
+        /**
+         * Writes the length and the UTF-8 bytes of a value, as descriptions may exceed the limit of
+         * {@link DataOutput#writeUTF(String)}.
+         */
+        private static void writeString(DataOutput out, String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+
+        private static String readString(DataInput in) throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        Target getTarget() {
+            return target;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        /**
+         * Sets the value on the annotation content it has been extracted for.
+         */
+        void apply(AnnotatedContent content) {
+            switch (attribute) {
+                case DESCRIPTION:
+                    content.setDescription(value);
+                    break;
+                case SINCE:
+                    content.setSince(value);
+                    break;
+                default:
+                    content.setDeprecated(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,373 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+import org.apache.maven.tools.plugin.extractor.ExtractionException;
+import org.apache.maven.tools.plugin.extractor.annotations.scanner.MojoAnnotatedClass;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * The sources to extract the javadoc of the mojos from, when only the source files of the mojos and of their
+ * superclasses are parsed. Source roots are registered as source folders, in which QDox looks up other types on
+ * demand, and sources jars are only searched for the mojo source files.
+ * <p>
+ * With more than one thread, the mojos are split into partitions parsed concurrently, each by its own
+ * {@link JavaProjectBuilder} configured with the same source folders and classloaders. Each partition parses the
+ * whole superclass chains of its mojos, so that hierarchy lookups stay within one builder and give the same result as
+ * a sequential parse.
+ *
+ * @since 4.0.0
+ */
+final class MojoSources implements Closeable {
+    private final String encoding;
+
+    private final Logger logger;
+
+    private final List<File> sourceFolders = new ArrayList<>();
+
+    private final List<ClassLoader> classLoaders = new ArrayList<>();
+
+    private final List<JarFile> sourcesJars = new ArrayList<>();
+
+    /**
+     * The builders of the partitions, by class parsed in them.
+     */
+    private final Map<JavaClass, JavaProjectBuilder> partitionBuilders = new IdentityHashMap<>();
+
+    MojoSources(String encoding, Logger logger) {
+        this.encoding = encoding;
+        this.logger = logger;
+    }
+
+    void addSourceFolder(JavaProjectBuilder builder, File sourceFolder) {
+        builder.addSourceFolder(sourceFolder);
+        sourceFolders.add(sourceFolder);
+    }
+
+    void addClassLoader(JavaProjectBuilder builder, ClassLoader classLoader) {
+        builder.addClassLoader(classLoader);
+        classLoaders.add(classLoader);
+    }
+
+    void addSourcesJar(File sourcesJar) throws ExtractionException {
+        sourcesJars.add(openSourcesJar(sourcesJar));
+    }
+
+    /**
+     * Parses the source files of the annotated classes and of their superclasses only. Any other type referenced
+     * from their javadoc is resolved on demand from the source folders, or else from the classloaders.
+     *
+     * @param builder              the builder with the source folders and classloaders registered
+     * @param mojoAnnotatedClasses the scanned classes
+     * @param threadCount          the maximum number of threads to parse with, values lower than 2 mean sequential
+     *                             parsing with the given builder
+     * @param discoverClasses      the lookup of the parsed classes of a builder, by fully qualified name
+     * @return the parsed classes, by fully qualified name
+     * @throws ExtractionException if a source file cannot be read
+     */
+    Map<String, JavaClass> parse(
+            JavaProjectBuilder builder,
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
+            int threadCount,
+            Function<JavaProjectBuilder, Map<String, JavaClass>> discoverClasses)
+            throws ExtractionException {
+        return parse(builder, mojoAnnotatedClasses, className -> true, threadCount, discoverClasses);
+    }
+
+    /**
+     * Parses the source files of the selected annotated classes and of their superclasses only.
+     *
+     * @param classNames the annotated classes to parse the source files of
+     * @see #parse(JavaProjectBuilder, Map, int, Function)
+     */
+    Map<String, JavaClass> parse(
+            JavaProjectBuilder builder,
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
+            Predicate<String> classNames,
+            int threadCount,
+            Function<JavaProjectBuilder, Map<String, JavaClass>> discoverClasses)
+            throws ExtractionException {
+        // sorted, so that partitions do not depend on the scan order
+        Map<String, Set<String>> hierarchies = new TreeMap<>();
+        for (MojoAnnotatedClass mojoAnnotatedClass : mojoAnnotatedClasses.values()) {
+            if (mojoAnnotatedClass == null
+                    || !mojoAnnotatedClass.hasAnnotations()
+                    || !classNames.test(mojoAnnotatedClass.getClassName())) {
+                continue;
+            }
+            Set<String> sourceFiles = new LinkedHashSet<>();
+            String className = mojoAnnotatedClass.getClassName();
+            Set<String> visited = new HashSet<>();
+            while (className != null && visited.add(className)) {
+                sourceFiles.add(toSourceFile(className));
+                MojoAnnotatedClass parent = mojoAnnotatedClasses.get(className);
+                className = parent != null ? parent.getParentClassName() : null;
+            }
+            hierarchies.put(mojoAnnotatedClass.getClassName(), sourceFiles);
+        }
+
+        int partitionCount = Math.min(threadCount, hierarchies.size());
+        if (partitionCount < 2) {
+            Set<String> sourceFiles = new LinkedHashSet<>();
+            hierarchies.values().forEach(sourceFiles::addAll);
+            int parsed = addSources(builder, sourceFiles);
+            if (logger.isDebugEnabled()) {
+                logger.debug("Parsed " + parsed + " mojo source files out of " + sourceFolders.size()
+                        + " source folders and " + sourcesJars.size() + " sources jars");
+            }
+            return discoverClasses.apply(builder);
+        }
+
+        return parseParallel(hierarchies, partitionCount, discoverClasses);
+    }
+
+    /**
+     * @param javaClass a parsed class
+     * @param builder   the builder given to {@link #parse(JavaProjectBuilder, Map, int, Function)}
+     * @return the builder which parsed the class
+     */
+    JavaProjectBuilder getBuilder(JavaClass javaClass, JavaProjectBuilder builder) {
+        return partitionBuilders.getOrDefault(javaClass, builder);
+    }
+
+    private Map<String, JavaClass> parseParallel(
+            Map<String, Set<String>> hierarchies,
+            int partitionCount,
+            Function<JavaProjectBuilder, Map<String, JavaClass>> discoverClasses)
+            throws ExtractionException {
+        List<Set<String>> partitions = new ArrayList<>(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new LinkedHashSet<>());
+        }
+        // the annotated classes are owned by the partition they are assigned to, ancestors may be parsed in several
+        Map<String, Integer> owners = new HashMap<>();
+        int index = 0;
+        for (Map.Entry<String, Set<String>> hierarchy : hierarchies.entrySet()) {
+            int partition = index++ % partitionCount;
+            partitions.get(partition).addAll(hierarchy.getValue());
+            owners.put(hierarchy.getKey().replace('$', '.'), partition);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(partitionCount, new ParserThreadFactory());
+        try {
+            List<Future<JavaProjectBuilder>> results = new ArrayList<>(partitionCount);
+            for (Set<String> partition : partitions) {
+                results.add(executor.submit(() -> {
+                    JavaProjectBuilder builder = newPartitionBuilder();
+                    addSources(builder, partition);
+                    return builder;
+                }));
+            }
+
+            Map<String, JavaClass> javaClasses = new HashMap<>();
+            for (int i = 0; i < partitionCount; i++) {
+                JavaProjectBuilder builder = results.get(i).get();
+                for (Map.Entry<String, JavaClass> entry :
+                        discoverClasses.apply(builder).entrySet()) {
+                    partitionBuilders.put(entry.getValue(), builder);
+                    Integer owner = owners.get(entry.getKey());
+                    if (owner == null ? !javaClasses.containsKey(entry.getKey()) : owner == i) {
+                        javaClasses.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+
+            if (logger.isDebugEnabled()) {
+                int parsed = partitions.stream().mapToInt(Set::size).sum();
+                logger.debug("Parsed " + parsed + " mojo source files in " + partitionCount + " partitions");
+            }
+            return javaClasses;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExtractionException("Interrupted while parsing mojo sources", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ExtractionException) {
+                throw (ExtractionException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ExtractionException(cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private JavaProjectBuilder newPartitionBuilder() {
+        JavaProjectBuilder builder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+        builder.setEncoding(encoding);
+        for (ClassLoader classLoader : classLoaders) {
+            builder.addClassLoader(classLoader);
+        }
+        for (File sourceFolder : sourceFolders) {
+            builder.addSourceFolder(sourceFolder);
+        }
+        return builder;
+    }
+
+    /**
+     * @return the number of source files found and parsed
+     */
+    private int addSources(JavaProjectBuilder builder, Set<String> sourceFiles) throws ExtractionException {
+        int parsed = 0;
+        for (String sourceFile : sourceFiles) {
+            if (addSource(builder, sourceFile)) {
+                parsed++;
+            }
+        }
+        return parsed;
+    }
+
+    private boolean addSource(JavaProjectBuilder builder, String sourceFile) throws ExtractionException {
+        for (File sourceFolder : sourceFolders) {
+            File file = new File(sourceFolder, sourceFile);
+            if (file.isFile()) {
+                try {
+                    builder.addSource(file);
+                } catch (IOException e) {
+                    throw new ExtractionException("Unable to parse " + file + ": " + e.getMessage(), e);
+                }
+                return true;
+            }
+        }
+        for (JarFile sourcesJar : sourcesJars) {
+            JarEntry entry = sourcesJar.getJarEntry(sourceFile);
+            if (entry != null) {
+                addSource(builder, sourcesJar, entry);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        for (JarFile sourcesJar : sourcesJars) {
+            try {
+                sourcesJar.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+        sourcesJars.clear();
+    }
+
+    /**
+     * @param className the binary name of a class
+     * @return the path of the source file declaring the class, relative to its source folder
+     */
+    static String toSourceFile(String className) {
+        int nested = className.indexOf('$');
+        String topLevelClassName = nested > 0 ? className.substring(0, nested) : className;
+        return topLevelClassName.replace('.', '/') + ".java";
+    }
+
+    static JarFile openSourcesJar(File sourcesJar) throws ExtractionException {
+        try {
+            return new JarFile(sourcesJar);
+        } catch (IOException e) {
+            throw new ExtractionException("Unable to read sources jar " + sourcesJar + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Parses a source file of a sources jar. The source is read from the open jar, but keeps a {@code jar:} URL as
+     * location for messages.
+     */
+    static void addSource(JavaProjectBuilder builder, JarFile jarFile, JarEntry entry) throws ExtractionException {
+        String location = "jar:" + new File(jarFile.getName()).toURI() + "!/" + entry.getName();
+        try {
+            builder.addSource(new URL(null, location, new JarEntryStreamHandler(jarFile, entry)));
+        } catch (IOException e) {
+            throw new ExtractionException("Unable to parse " + location + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Opens the entry of an already open jar, instead of opening the jar again through {@code JarURLConnection}.
+     */
+    private static final class JarEntryStreamHandler extends URLStreamHandler {
+        private final JarFile jarFile;
+
+        private final JarEntry entry;
+
+        JarEntryStreamHandler(JarFile jarFile, JarEntry entry) {
+            this.jarFile = jarFile;
+            this.entry = entry;
+        }
+
+        @Override
+        protected URLConnection openConnection(URL url) {
+            return new URLConnection(url) {
+                @Override
+                public void connect() {
+                    connected = true;
+                }
+
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    return jarFile.getInputStream(entry);
+                }
+            };
+        }
+    }
+
+    private static final class ParserThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "mojo-sources-parser-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -25,9 +25,11 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import com.thoughtworks.qdox.JavaProjectBuilder;
@@ -65,6 +67,8 @@ public class JavaClassConverterContext implements ConverterContext {
 
     final Map<String, Object> attributes;
 
+    final ReferenceResolutionCache resolutionCache; // may be null
+
     public JavaClassConverterContext(
             JavaClass mojoClass,
             JavaProjectBuilder javaProjectBuilder,
@@ -81,6 +85,22 @@ public class JavaClassConverterContext implements ConverterContext {
             Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
             JavadocLinkGenerator linkGenerator,
             int lineNumber) {
+        this(mojoClass, declaringClass, javaProjectBuilder, mojoAnnotatedClasses, linkGenerator, lineNumber, null);
+    }
+
+    /**
+     * @param resolutionCache the cache of the references resolved by the contexts of the same extraction, may be
+     *                        {@code null}
+     * @since 4.0.0
+     */
+    public JavaClassConverterContext(
+            JavaClass mojoClass,
+            JavaClass declaringClass,
+            JavaProjectBuilder javaProjectBuilder,
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
+            JavadocLinkGenerator linkGenerator,
+            int lineNumber,
+            ReferenceResolutionCache resolutionCache) {
         this.mojoClass = mojoClass;
         this.declaringClass = declaringClass;
         this.javaProjectBuilder = javaProjectBuilder;
@@ -88,6 +108,7 @@ public class JavaClassConverterContext implements ConverterContext {
         this.linkGenerator = linkGenerator;
         this.lineNumber = lineNumber;
         this.attributes = new HashMap<>();
+        this.resolutionCache = resolutionCache;
 
         javaModule = mojoClass.getJavaClassLibrary().getJavaModules().stream()
                 .filter(m -> m.getDescriptor().getExports().stream()
@@ -126,25 +147,34 @@ public class JavaClassConverterContext implements ConverterContext {
      */
     @Override
     public boolean isReferencedBy(FullyQualifiedJavadocReference reference) {
-        JavaClass javaClassInHierarchy = this.mojoClass;
+        Set<String> hierarchy = resolutionCache != null
+                ? resolutionCache.getHierarchy(mojoClass, JavaClassConverterContext::getHierarchy)
+                : getHierarchy(mojoClass);
+        return hierarchy.contains(toHierarchyKey(
+                reference.getPackageName().orElse(""), reference.getClassName().orElse("")));
+    }
+
+    /**
+     * @return the keys of the class, of its super classes and of the interfaces they implement
+     */
+    private static Set<String> getHierarchy(JavaClass mojoClass) {
+        Set<String> hierarchy = new HashSet<>();
+        JavaClass javaClassInHierarchy = mojoClass;
         while (javaClassInHierarchy != null) {
-            if (isClassReferencedByReference(javaClassInHierarchy, reference)) {
-                return true;
-            }
+            hierarchy.add(toHierarchyKey(javaClassInHierarchy.getPackageName(), javaClassInHierarchy.getSimpleName()));
             // check implemented interfaces
             for (JavaClass implementedInterfaces : javaClassInHierarchy.getInterfaces()) {
-                if (isClassReferencedByReference(implementedInterfaces, reference)) {
-                    return true;
-                }
+                hierarchy.add(
+                        toHierarchyKey(implementedInterfaces.getPackageName(), implementedInterfaces.getSimpleName()));
             }
             javaClassInHierarchy = javaClassInHierarchy.getSuperJavaClass();
         }
-        return false;
+        return hierarchy;
     }
 
-    private static boolean isClassReferencedByReference(JavaClass javaClass, FullyQualifiedJavadocReference reference) {
-        return javaClass.getPackageName().equals(reference.getPackageName().orElse(""))
-                && javaClass.getSimpleName().equals(reference.getClassName().orElse(""));
+    private static String toHierarchyKey(String packageName, String className) {
+        // ':' is no valid character of Java names
+        return packageName + ':' + className;
     }
 
     @Override
@@ -185,13 +215,22 @@ public class JavaClassConverterContext implements ConverterContext {
 
     @Override
     public FullyQualifiedJavadocReference resolveReference(JavadocReference reference) {
+        Optional<FullyQualifiedJavadocReference> resolvedName = resolutionCache != null
+                ? resolutionCache.resolveReference(
+                        declaringClass, mojoClass.getJavaClassLibrary(), reference, () -> resolve(reference))
+                : resolve(reference);
+        return resolvedName.orElseThrow(
+                () -> new IllegalArgumentException("Could not resolve javadoc reference " + reference));
+    }
+
+    private Optional<FullyQualifiedJavadocReference> resolve(JavadocReference reference) {
         Optional<FullyQualifiedJavadocReference> resolvedName;
         // is it already fully qualified?
         if (reference.getPackageNameClassName().isPresent()) {
             resolvedName = resolveMember(
                     reference.getPackageNameClassName().get(), reference.getMember(), reference.getLabel());
             if (resolvedName.isPresent()) {
-                return resolvedName.get();
+                return resolvedName;
             }
         }
         // is it a member only?
@@ -201,13 +240,13 @@ public class JavaClassConverterContext implements ConverterContext {
             // 1. The current class or interface (only for members)
             resolvedName = resolveMember(declaringClass, reference.getMember(), reference.getLabel());
             if (resolvedName.isPresent()) {
-                return resolvedName.get();
+                return resolvedName;
             }
             // 2. Any enclosing classes and interfaces searching the closest first (only members)
             for (JavaClass nestedClass : declaringClass.getNestedClasses()) {
                 resolvedName = resolveMember(nestedClass, reference.getMember(), reference.getLabel());
                 if (resolvedName.isPresent()) {
-                    return resolvedName.get();
+                    return resolvedName;
                 }
             }
             // 3. Any superclasses and superinterfaces, searching the closest first. (only members)
@@ -215,7 +254,7 @@ public class JavaClassConverterContext implements ConverterContext {
             while (superClass != null) {
                 resolvedName = resolveMember(superClass, reference.getMember(), reference.getLabel());
                 if (resolvedName.isPresent()) {
-                    return resolvedName.get();
+                    return resolvedName;
                 }
                 superClass = superClass.getSuperJavaClass();
             }
@@ -227,7 +266,7 @@ public class JavaClassConverterContext implements ConverterContext {
                     reference.getMember(),
                     reference.getLabel());
             if (resolvedName.isPresent()) {
-                return resolvedName.get();
+                return resolvedName;
             }
             // 5. Any imported packages, classes, and interfaces, searching in the order of the import statement.
             List<String> importNames = new ArrayList<>();
@@ -238,13 +277,13 @@ public class JavaClassConverterContext implements ConverterContext {
                     resolvedName = resolveMember(
                             importName.replace("*", packageNameClassName), reference.getMember(), reference.getLabel());
                     if (resolvedName.isPresent()) {
-                        return resolvedName.get();
+                        return resolvedName;
                     }
                 } else {
                     if (importName.endsWith(packageNameClassName)) {
                         resolvedName = resolveMember(importName, reference.getMember(), reference.getLabel());
                         if (resolvedName.isPresent()) {
-                            return resolvedName.get();
+                            return resolvedName;
                         }
                     } else {
                         // ends with prefix of reference (nested class name)
@@ -257,14 +296,14 @@ public class JavaClassConverterContext implements ConverterContext {
                                     reference.getMember(),
                                     reference.getLabel());
                             if (resolvedName.isPresent()) {
-                                return resolvedName.get();
+                                return resolvedName;
                             }
                         }
                     }
                 }
             }
         }
-        throw new IllegalArgumentException("Could not resolve javadoc reference " + reference);
+        return Optional.empty();
     }
 
     @Override
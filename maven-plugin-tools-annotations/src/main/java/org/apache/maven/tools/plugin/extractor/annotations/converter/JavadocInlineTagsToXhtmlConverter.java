@@ -23,8 +23,6 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.maven.tools.plugin.extractor.annotations.converter.tag.JavadocTagToHtmlConverter;
 import org.apache.maven.tools.plugin.extractor.annotations.converter.tag.inline.JavadocInlineTagToHtmlConverter;
@@ -43,10 +41,6 @@ public class JavadocInlineTagsToXhtmlConverter {
 
     private final Map<String, JavadocInlineTagToHtmlConverter> converters;
 
-    private static final Pattern INLINE_TAG_PATTERN = Pattern.compile("\\{@([^\\s]*)(?:\\s([^\\}]*))?\\}");
-    private static final int GROUP_TAG_NAME = 1;
-    private static final int GROUP_REFERENCE = 2;
-
     @Inject
     public JavadocInlineTagsToXhtmlConverter(Map<String, JavadocInlineTagToHtmlConverter> converters) {
         this.converters = converters;
@@ -59,31 +53,87 @@ public class JavadocInlineTagsToXhtmlConverter {
      * @return
      */
     public String convert(String text, ConverterContext context) {
-        Matcher matcher = INLINE_TAG_PATTERN.matcher(text);
-        StringBuffer sb = new StringBuffer();
-        while (matcher.find()) {
-            String tagName = matcher.group(GROUP_TAG_NAME);
-            JavadocTagToHtmlConverter converter = converters.get(tagName);
-            String patternReplacement;
-            if (converter == null) {
-                patternReplacement = matcher.group(0) + "<!-- unsupported tag '" + tagName + "' -->";
-                LOG.warn("Found unsupported javadoc inline tag '{}' in {}", tagName, context.getLocation());
-            } else {
-                try {
-                    patternReplacement = converter.convert(matcher.group(GROUP_REFERENCE), context);
-                } catch (Throwable t) {
-                    patternReplacement = matcher.group(0) + "<!-- error processing javadoc tag '" + tagName + "': "
-                            + t.getMessage() + " -->"; // leave original javadoc in place
-                    LOG.warn("Error converting javadoc inline tag '{}' in {}", tagName, context.getLocation(), t);
-                }
+        StringBuilder sb = new StringBuilder(text.length() + text.length() / 4);
+        int start = 0;
+        int tagStart;
+        while ((tagStart = text.indexOf("{@", start)) >= 0) {
+            int tagEnd = findInlineTagEnd(text, tagStart);
+            if (tagEnd < 0) {
+                // not a valid inline tag, keep the brace and look for the next one: like the javadoc tool, braces
+                // in the content have to be balanced, so "{@code {text}" is intentionally kept as is, where the
+                // former regular expression stopped at the first closing brace and produced "<code>{text</code>"
+                sb.append(text, start, tagStart + 1);
+                start = tagStart + 1;
+                continue;
             }
-            matcher.appendReplacement(sb, Matcher.quoteReplacement(patternReplacement));
+            sb.append(text, start, tagStart);
+            appendInlineTag(sb, text, tagStart, tagEnd, context);
+            start = tagEnd + 1;
         }
-        matcher.appendTail(sb);
+        sb.append(text, start, text.length());
         return toXHTML(sb.toString());
     }
 
+    /**
+     * Finds the closing brace of an inline tag, skipping balanced braces in its content as in
+     * <code>{&#64;code Map&lt;String, {...}&gt;}</code>.
+     *
+     * @param text the text
+     * @param tagStart the index of the opening brace of the inline tag
+     * @return the index of the closing brace, or {@code -1} if the inline tag is not closed
+     */
+    private static int findInlineTagEnd(String text, int tagStart) {
+        int depth = 0;
+        for (int i = tagStart + 2; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}') {
+                if (depth == 0) {
+                    return i;
+                }
+                depth--;
+            }
+        }
+        return -1;
+    }
+
+    private void appendInlineTag(StringBuilder sb, String text, int tagStart, int tagEnd, ConverterContext context) {
+        int nameEnd = tagStart + 2;
+        while (nameEnd < tagEnd && !Character.isWhitespace(text.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        String tagName = text.substring(tagStart + 2, nameEnd);
+        // the content starts after the single whitespace separating it from the tag name
+        String reference = nameEnd < tagEnd ? text.substring(nameEnd + 1, tagEnd) : null;
+        JavadocTagToHtmlConverter converter = converters.get(tagName);
+        if (converter == null) {
+            sb.append(text, tagStart, tagEnd + 1)
+                    .append("<!-- unsupported tag '")
+                    .append(tagName)
+                    .append("' -->");
+            LOG.warn("Found unsupported javadoc inline tag '{}' in {}", tagName, context.getLocation());
+            return;
+        }
+        try {
+            sb.append(converter.convert(reference, context));
+        } catch (Throwable t) {
+            sb.append(text, tagStart, tagEnd + 1)
+                    .append("<!-- error processing javadoc tag '")
+                    .append(tagName)
+                    .append("': ")
+                    .append(t.getMessage())
+                    .append(" -->"); // leave original javadoc in place
+            LOG.warn("Error converting javadoc inline tag '{}' in {}", tagName, context.getLocation(), t);
+        }
+    }
+
     static String toXHTML(String bodySnippet) {
+        // most javadoc only contains text and inline elements, which does not need a document
+        String xhtml = XhtmlSnippetNormalizer.normalize(bodySnippet);
+        if (xhtml != null) {
+            return xhtml;
+        }
         String html = "<html><head></head><body>" + bodySnippet + "</body>"; // make it a valid HTML document
         final Document document = Jsoup.parse(html);
         document.outputSettings().syntax(Document.OutputSettings.Syntax.xml);
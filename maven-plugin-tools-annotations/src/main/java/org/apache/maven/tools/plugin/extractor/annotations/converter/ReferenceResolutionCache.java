@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations.converter;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.thoughtworks.qdox.library.ClassLibrary;
+import com.thoughtworks.qdox.model.JavaClass;
+import org.apache.maven.tools.plugin.javadoc.FullyQualifiedJavadocReference;
+import org.apache.maven.tools.plugin.javadoc.JavadocReference;
+
+/**
+ * Javadoc references resolved by the {@link JavaClassConverterContext}s of one extraction, so that references used in
+ * many javadoc comments of the same class are only resolved once.
+ * References are cached per declaring class, as they are resolved against its package and imports.
+ * This class is not thread-safe.
+ *
+ * @since 4.0.0
+ */
+public class ReferenceResolutionCache {
+    private final Map<Key, Optional<FullyQualifiedJavadocReference>> references = new HashMap<>();
+
+    private final Map<JavaClass, Set<String>> hierarchies = new IdentityHashMap<>();
+
+    private int hits;
+
+    private int misses;
+
+    /**
+     * @return the number of lookups answered from the cache
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups which had to be computed
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * @param declaringClass the class whose javadoc contains the reference
+     * @param mojoLibrary    the library of the mojo class, which tells whether the resolved reference is external
+     * @param reference      the reference
+     * @param resolver       resolves the reference, returning empty if it cannot be resolved
+     * @return the resolved reference, or empty if it cannot be resolved
+     */
+    Optional<FullyQualifiedJavadocReference> resolveReference(
+            JavaClass declaringClass,
+            ClassLibrary mojoLibrary,
+            JavadocReference reference,
+            Supplier<Optional<FullyQualifiedJavadocReference>> resolver) {
+        Key key = new Key(declaringClass, mojoLibrary, reference);
+        Optional<FullyQualifiedJavadocReference> resolved = references.get(key);
+        if (resolved != null) {
+            hits++;
+            return resolved;
+        }
+        misses++;
+        resolved = resolver.get();
+        references.put(key, resolved);
+        return resolved;
+    }
+
+    /**
+     * @param mojoClass the class of a mojo
+     * @param resolver  computes the classes and interfaces the mojo class is referenced by
+     * @return the classes and interfaces the mojo class is referenced by
+     */
+    Set<String> getHierarchy(JavaClass mojoClass, Function<JavaClass, Set<String>> resolver) {
+        Set<String> hierarchy = hierarchies.get(mojoClass);
+        if (hierarchy != null) {
+            hits++;
+            return hierarchy;
+        }
+        misses++;
+        hierarchy = resolver.apply(mojoClass);
+        hierarchies.put(mojoClass, hierarchy);
+        return hierarchy;
+    }
+
+    private static final class Key {
+        private final JavaClass declaringClass;
+
+        private final ClassLibrary mojoLibrary;
+
+        private final JavadocReference reference;
+
+        Key(JavaClass declaringClass, ClassLibrary mojoLibrary, JavadocReference reference) {
+            this.declaringClass = declaringClass;
+            this.mojoLibrary = mojoLibrary;
+            this.reference = reference;
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * System.identityHashCode(declaringClass) + System.identityHashCode(mojoLibrary)) * 31
+                    + reference.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return declaringClass == other.declaringClass
+                    && mojoLibrary == other.mojoLibrary
+                    && reference.equals(other.reference);
+        }
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations.converter;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Single pass normalization of HTML body snippets to XHTML, producing the same output as Jsoup's pretty printed XML
+ * serialization for snippets which only contain text and properly nested inline elements with quoted attributes.
+ * Any other markup, like block elements, unclosed elements or unknown entities, is left to Jsoup.
+ * The Jsoup output relied on is pinned by {@code JavadocInlineTagsToXhtmlConverterTest}.
+ *
+ * @since 4.0.0
+ */
+final class XhtmlSnippetNormalizer {
+    /**
+     * Inline elements, which are never put on separate lines when pretty printing.
+     */
+    private static final Set<String> INLINE_ELEMENTS = new HashSet<>(Arrays.asList(
+            "a", "abbr", "b", "big", "cite", "code", "dfn", "em", "font", "i", "kbd", "q", "s", "samp", "small", "span",
+            "strike", "strong", "sub", "sup", "tt", "u", "var"));
+
+    private final String snippet;
+
+    private final StringBuilder xhtml;
+
+    private final StringBuilder text = new StringBuilder();
+
+    private final Deque<String> openElements = new ArrayDeque<>();
+
+    private int index;
+
+    private boolean firstNode = true;
+
+    private XhtmlSnippetNormalizer(String snippet) {
+        this.snippet = snippet;
+        this.xhtml = new StringBuilder(snippet.length() + 16);
+    }
+
+    /**
+     * @param snippet the HTML body snippet
+     * @return the XHTML snippet, or {@code null} if the snippet contains markup which needs to be parsed as a document
+     */
+    static String normalize(String snippet) {
+        return new XhtmlSnippetNormalizer(snippet).normalize();
+    }
+
+    private String normalize() {
+        while (index < snippet.length()) {
+            char c = snippet.charAt(index);
+            if (c == '<') {
+                char next = index + 1 < snippet.length() ? snippet.charAt(index + 1) : ' ';
+                if (isAsciiLetter(next)) {
+                    flushText(false);
+                    if (!startTag()) {
+                        return null;
+                    }
+                } else if (next == '/') {
+                    flushText(false);
+                    if (!endTag()) {
+                        return null;
+                    }
+                } else if (isWhitespace(next) || Character.isDigit(next) || next == '=') {
+                    text.append(c);
+                    index++;
+                } else {
+                    // comments, doctypes or a bogus markup
+                    return null;
+                }
+            } else if (c == '&') {
+                if (!entity()) {
+                    return null;
+                }
+            } else if (c == '\u00A0' || (c < ' ' && !isWhitespace(c))) {
+                // escaped or dropped by Jsoup
+                return null;
+            } else {
+                text.append(c);
+                index++;
+            }
+        }
+        if (!openElements.isEmpty()) {
+            return null;
+        }
+        flushText(true);
+        return xhtml.toString();
+    }
+
+    private boolean startTag() {
+        int nameStart = ++index;
+        while (index < snippet.length() && isAsciiLetterOrDigit(snippet.charAt(index))) {
+            index++;
+        }
+        String name = snippet.substring(nameStart, index).toLowerCase(Locale.ROOT);
+        if (!INLINE_ELEMENTS.contains(name) || ("a".equals(name) && openElements.contains(name))) {
+            return false;
+        }
+        xhtml.append('<').append(name);
+        Set<String> attributeNames = new HashSet<>();
+        while (true) {
+            int whitespaceStart = index;
+            skipWhitespace();
+            if (index >= snippet.length()) {
+                return false;
+            }
+            if (snippet.charAt(index) == '>') {
+                index++;
+                break;
+            }
+            if (whitespaceStart == index || !attribute(attributeNames)) {
+                return false;
+            }
+        }
+        xhtml.append('>');
+        openElements.push(name);
+        return true;
+    }
+
+    private boolean attribute(Set<String> attributeNames) {
+        int nameStart = index;
+        while (index < snippet.length() && isAttributeNameChar(snippet.charAt(index))) {
+            index++;
+        }
+        String name = snippet.substring(nameStart, index).toLowerCase(Locale.ROOT);
+        if (name.isEmpty() || !isAsciiLetter(name.charAt(0)) || !attributeNames.add(name)) {
+            return false;
+        }
+        skipWhitespace();
+        if (index >= snippet.length() || snippet.charAt(index) != '=') {
+            return false;
+        }
+        index++;
+        skipWhitespace();
+        if (index >= snippet.length()) {
+            return false;
+        }
+        char quote = snippet.charAt(index);
+        if (quote != '"' && quote != '\'') {
+            return false;
+        }
+        int valueStart = ++index;
+        while (index < snippet.length() && snippet.charAt(index) != quote) {
+            char c = snippet.charAt(index);
+            if (c == '&' || c == '<' || c == '>' || c == '"' || c == '\u00A0' || (c < ' ' && !isWhitespace(c))) {
+                return false;
+            }
+            index++;
+        }
+        if (index >= snippet.length()) {
+            return false;
+        }
+        xhtml.append(' ')
+                .append(name)
+                .append("=\"")
+                .append(snippet, valueStart, index)
+                .append('"');
+        index++;
+        return true;
+    }
+
+    private boolean endTag() {
+        int nameStart = index + 2;
+        int nameEnd = nameStart;
+        while (nameEnd < snippet.length() && isAsciiLetterOrDigit(snippet.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        String name = snippet.substring(nameStart, nameEnd).toLowerCase(Locale.ROOT);
+        index = nameEnd;
+        skipWhitespace();
+        if (index >= snippet.length()
+                || snippet.charAt(index) != '>'
+                || openElements.isEmpty()
+                || !openElements.peek().equals(name)) {
+            return false;
+        }
+        index++;
+        openElements.pop();
+        xhtml.append("</").append(name).append('>');
+        return true;
+    }
+
+    /**
+     * Decodes the few entities which are likely to be found in javadoc, they are escaped again when flushed.
+     */
+    private boolean entity() {
+        int end = snippet.indexOf(';', index);
+        if (end < 0 || end - index > 10) {
+            // a literal ampersand, unless it may start an entity which Jsoup resolves without semicolon
+            if (index + 1 < snippet.length() && !isWhitespace(snippet.charAt(index + 1))) {
+                return false;
+            }
+            text.append('&');
+            index++;
+            return true;
+        }
+        String name = snippet.substring(index + 1, end);
+        char decoded;
+        switch (name) {
+            case "amp":
+                decoded = '&';
+                break;
+            case "lt":
+                decoded = '<';
+                break;
+            case "gt":
+                decoded = '>';
+                break;
+            case "quot":
+                decoded = '"';
+                break;
+            default:
+                return false;
+        }
+        text.append(decoded);
+        index = end + 1;
+        return true;
+    }
+
+    /**
+     * Writes the pending text node with collapsed whitespace, leading whitespace of the first node and trailing
+     * whitespace of the last node of the body being trimmed.
+     */
+    private void flushText(boolean lastNode) {
+        boolean topLevel = openElements.isEmpty();
+        boolean trimLeading = topLevel && firstNode;
+        boolean pendingWhitespace = false;
+        int length = xhtml.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isWhitespace(c)) {
+                pendingWhitespace = true;
+                continue;
+            }
+            if (pendingWhitespace && !(trimLeading && xhtml.length() == length)) {
+                xhtml.append(' ');
+            }
+            pendingWhitespace = false;
+            switch (c) {
+                case '&':
+                    xhtml.append("&amp;");
+                    break;
+                case '<':
+                    xhtml.append("&lt;");
+                    break;
+                case '>':
+                    xhtml.append("&gt;");
+                    break;
+                default:
+                    xhtml.append(c);
+            }
+        }
+        if (pendingWhitespace && !(topLevel && lastNode) && !(trimLeading && xhtml.length() == length)) {
+            xhtml.append(' ');
+        }
+        text.setLength(0);
+        firstNode = false;
+    }
+
+    private void skipWhitespace() {
+        while (index < snippet.length() && isWhitespace(snippet.charAt(index))) {
+            index++;
+        }
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isAttributeNameChar(char c) {
+        return isAsciiLetterOrDigit(c) || c == '-' || c == '_' || c == ':';
+    }
+}
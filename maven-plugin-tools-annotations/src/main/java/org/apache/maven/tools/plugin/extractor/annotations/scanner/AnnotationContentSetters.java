@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations.scanner;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ComponentAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ExecuteAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.MojoAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ParameterAnnotationContent;
+import org.codehaus.plexus.util.reflection.ReflectorException;
+
+/**
+ * Table of the setters of annotation attributes in the annotation content classes, i.e. the public one-argument
+ * methods named after the attributes. Setters are looked up once per content class and invoked through method
+ * handles, which is thread-safe and does not involve any reflective lookup per attribute.
+ *
+ * @since 4.0.0
+ */
+final class AnnotationContentSetters {
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<Map<String, MethodHandle>> SETTERS = new ClassValue<Map<String, MethodHandle>>() {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return findSetters(type);
+        }
+    };
+
+    static {
+        // the data model classes populated by the scanner are resolved upfront
+        SETTERS.get(MojoAnnotationContent.class);
+        SETTERS.get(ExecuteAnnotationContent.class);
+        SETTERS.get(ParameterAnnotationContent.class);
+        SETTERS.get(ComponentAnnotationContent.class);
+    }
+
+    private AnnotationContentSetters() {
+        // no op
+    }
+
+    /**
+     * @param content   the annotation content to populate
+     * @param attribute the name of the annotation attribute
+     * @param value     the value of the annotation attribute, as reported by ASM
+     * @throws ReflectorException if the content has no setter for the attribute, or if the value does not fit
+     */
+    static void set(Object content, String attribute, Object value) throws ReflectorException {
+        MethodHandle setter = SETTERS.get(content.getClass()).get(attribute);
+        if (setter == null) {
+            throw new ReflectorException("No setter for annotation attribute '" + attribute + "' in "
+                    + content.getClass().getName());
+        }
+        try {
+            setter.invokeExact(content, value);
+        } catch (ClassCastException | NullPointerException e) {
+            throw new ReflectorException(
+                    "Unable to set annotation attribute '" + attribute + "' of "
+                            + content.getClass().getName() + " to " + value,
+                    e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new ReflectorException(
+                    "Unable to set annotation attribute '" + attribute + "' of "
+                            + content.getClass().getName(),
+                    t);
+        }
+    }
+
+    private static Map<String, MethodHandle> findSetters(Class<?> type) {
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        Map<String, MethodHandle> setters = new HashMap<>();
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())
+                    || method.isBridge()
+                    || method.getParameterCount() != 1
+                    || method.getReturnType() != void.class) {
+                continue;
+            }
+            try {
+                // attribute setters are not overloaded, so the name is enough
+                setters.put(method.getName(), lookup.unreflect(method).asType(SETTER_TYPE));
+            } catch (IllegalAccessException e) {
+                // not accessible, hence not an attribute setter
+            }
+        }
+        return Collections.unmodifiableMap(setters);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations.scanner;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.artifact.Artifact;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Persistent cache of the annotated classes found in archives, so that immutable dependencies are not parsed again on
+ * every build. Entries are stored per artifact coordinates and are only used if the archive still has the same path,
+ * size and modification time, otherwise they are replaced.
+ * Corrupt entries or entries written by another version of the scanner are discarded.
+ * Entries are stored in the {@link ScanResultFormat scan result format}, as the cache directory may be shared.
+ *
+ * @since 4.0.0
+ */
+final class ArchiveScanCache {
+    /**
+     * Must be increased whenever the format of the entries changes.
+     */
+    private static final int FORMAT_VERSION = 3;
+
+    private static final String EXTENSION = ".annotations";
+
+    private final Path directory;
+
+    private final Logger logger;
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicInteger misses = new AtomicInteger();
+
+    ArchiveScanCache(File directory, Logger logger) {
+        this.directory = directory.toPath();
+        this.logger = logger;
+    }
+
+    /**
+     * @param archive     the scanned archive
+     * @param artifact    the artifact of the archive
+     * @param excludeMojo whether Mojo annotations have been excluded
+     * @return the cached annotated classes, or {@code null} if there is no valid entry
+     */
+    Map<String, MojoAnnotatedClass> get(File archive, Artifact artifact, boolean excludeMojo) {
+        Path entry = getEntry(archive, artifact, excludeMojo);
+        if (entry == null || !Files.isRegularFile(entry)) {
+            misses.incrementAndGet();
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            if (in.readInt() != FORMAT_VERSION || !ScanResultFormat.SCANNER_VERSION.equals(in.readUTF())) {
+                discard(entry, "version mismatch");
+                misses.incrementAndGet();
+                return null;
+            }
+            if (!archive.getAbsolutePath().equals(in.readUTF())
+                    || archive.length() != in.readLong()
+                    || archive.lastModified() != in.readLong()) {
+                // outdated, will be overwritten
+                misses.incrementAndGet();
+                return null;
+            }
+
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = ScanResultFormat.readClasses(in);
+            for (MojoAnnotatedClass mojoAnnotatedClass : mojoAnnotatedClasses.values()) {
+                mojoAnnotatedClass.setArtifact(artifact);
+            }
+            hits.incrementAndGet();
+            return mojoAnnotatedClasses;
+        } catch (IOException e) {
+            discard(entry, e.toString());
+            misses.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * @param archive              the scanned archive
+     * @param artifact             the artifact of the archive
+     * @param excludeMojo          whether Mojo annotations have been excluded
+     * @param mojoAnnotatedClasses the annotated classes found in the archive
+     */
+    void put(
+            File archive,
+            Artifact artifact,
+            boolean excludeMojo,
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses) {
+        Path entry = getEntry(archive, artifact, excludeMojo);
+        if (entry == null) {
+            return;
+        }
+
+        try {
+            ScanResultFormat.writeAtomically(entry, out -> {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(ScanResultFormat.SCANNER_VERSION);
+                out.writeUTF(archive.getAbsolutePath());
+                out.writeLong(archive.length());
+                out.writeLong(archive.lastModified());
+                ScanResultFormat.writeClasses(out, mojoAnnotatedClasses);
+            });
+        } catch (IOException e) {
+            logger.warn("Unable to write mojo annotations scan cache entry " + entry + ": " + e.getMessage());
+        }
+    }
+
+    int getHits() {
+        return hits.get();
+    }
+
+    int getMisses() {
+        return misses.get();
+    }
+
+    private Path getEntry(File archive, Artifact artifact, boolean excludeMojo) {
+        if (artifact == null || artifact.getGroupId() == null || artifact.getBaseVersion() == null) {
+            return null;
+        }
+        return directory
+                .resolve(artifact.getGroupId())
+                .resolve(artifact.getArtifactId())
+                .resolve(artifact.getBaseVersion())
+                .resolve(archive.getName() + (excludeMojo ? "" : "-mojos") + EXTENSION);
+    }
+
+    private void discard(Path entry, String reason) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Discarding mojo annotations scan cache entry " + entry + " (" + reason + ")");
+        }
+        try {
+            Files.deleteIfExists(entry);
+        } catch (IOException e) {
+            // will be overwritten
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations.scanner;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.maven.artifact.Artifact;
+import org.codehaus.plexus.logging.Logger;
+
+/**
+ * Scan results of the class files of a classes directory, kept between builds so that only changed class files are
+ * analyzed again. A class file is considered unchanged if it has the same size and modification time as in the
+ * previous build, or else the same content digest, unless the build environment reports a change.
+ * Class files which are not {@link #keep(String, ClassFileState, Artifact) kept} are evicted when the state is
+ * {@link #save() saved}.
+ *
+ * @since 4.0.0
+ */
+final class ClassesDirectoryScanState {
+    /**
+     * Must be increased whenever the format of the state file changes.
+     */
+    private static final int FORMAT_VERSION = 4;
+
+    private static final String DIGEST_ALGORITHM = "SHA-1";
+
+    private final File classesDirectory;
+
+    private final Path stateFile;
+
+    private final Logger logger;
+
+    private final Map<String, ClassFileState> previous;
+
+    private final Map<String, ClassFileState> current = new HashMap<>();
+
+    private boolean changed;
+
+    /**
+     * Loads the state of a classes directory, or starts with an empty state if there is none or if it is unusable.
+     *
+     * @param stateDirectory   the directory where the states are stored
+     * @param classesDirectory the classes directory
+     * @param logger           the logger
+     */
+    ClassesDirectoryScanState(File stateDirectory, File classesDirectory, Logger logger) {
+        this.classesDirectory = classesDirectory;
+        this.logger = logger;
+        String path = classesDirectory.getAbsolutePath();
+        this.stateFile = stateDirectory
+                .toPath()
+                .resolve(classesDirectory.getName() + "-" + Integer.toHexString(path.hashCode()) + ".state");
+        this.previous = load(path);
+    }
+
+    /**
+     * @param classFile the path of the class file, relative to the classes directory
+     * @param file      the class file
+     * @param delta     {@code true} if the build environment reports the class file as changed
+     * @return the previous state if the class file has the same size and modification time, otherwise {@code null}
+     */
+    ClassFileState getUnchanged(String classFile, File file, boolean delta) {
+        ClassFileState state = previous.get(classFile);
+        if (state == null || delta || state.lastModified != file.lastModified() || state.length != file.length()) {
+            return null;
+        }
+        return state;
+    }
+
+    /**
+     * @param classFile the path of the class file, relative to the classes directory
+     * @param file      the class file
+     * @param digest    the {@link #digest(byte[]) digest} of the class file content
+     * @return the previous state updated with the current size and modification time if the class file has the same
+     * content, otherwise {@code null}
+     */
+    ClassFileState getUnchanged(String classFile, File file, byte[] digest) {
+        ClassFileState state = previous.get(classFile);
+        if (state == null || !Arrays.equals(state.digest, digest)) {
+            return null;
+        }
+        return newState(file, digest, state.crc, state.mojoAnnotatedClass);
+    }
+
+    /**
+     * @param file               the class file
+     * @param digest             the {@link #digest(byte[]) digest} of the class file content
+     * @param crc                the CRC-32 of the class file content, as listed in archives
+     * @param mojoAnnotatedClass the result of the analysis, {@code null} if the class has been ignored
+     * @return the state of the class file
+     */
+    ClassFileState newState(File file, byte[] digest, long crc, MojoAnnotatedClass mojoAnnotatedClass) {
+        changed = true;
+        return new ClassFileState(file.lastModified(), file.length(), digest, crc, mojoAnnotatedClass);
+    }
+
+    /**
+     * Keeps the state of a class file which still exists.
+     *
+     * @param classFile the path of the class file, relative to the classes directory
+     * @param state     the state of the class file
+     * @param artifact  the artifact of the classes directory
+     * @return the scan result of the class file, or {@code null} if the class has been ignored
+     */
+    MojoAnnotatedClass keep(String classFile, ClassFileState state, Artifact artifact) {
+        current.put(classFile, state);
+        if (state.mojoAnnotatedClass != null) {
+            state.mojoAnnotatedClass.setArtifact(artifact);
+        }
+        return state.mojoAnnotatedClass;
+    }
+
+    /**
+     * Stores the state of the class files kept since loading, if anything changed.
+     */
+    void save() {
+        if (!changed && current.keySet().equals(previous.keySet())) {
+            return;
+        }
+
+        try {
+            ScanResultFormat.writeAtomically(stateFile, out -> {
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(ScanResultFormat.SCANNER_VERSION);
+                out.writeUTF(classesDirectory.getAbsolutePath());
+                out.writeInt(current.size());
+                for (Map.Entry<String, ClassFileState> entry : new TreeMap<>(current).entrySet()) {
+                    ClassFileState state = entry.getValue();
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(state.lastModified);
+                    out.writeLong(state.length);
+                    out.writeShort(state.digest.length);
+                    out.write(state.digest);
+                    out.writeLong(state.crc);
+                    out.writeBoolean(state.mojoAnnotatedClass != null);
+                    if (state.mojoAnnotatedClass != null) {
+                        ScanResultFormat.writeClass(out, state.mojoAnnotatedClass, true);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            logger.warn("Unable to write mojo annotations scan state " + stateFile + ": " + e.getMessage());
+        }
+    }
+
+    private Map<String, ClassFileState> load(String path) {
+        if (!Files.isRegularFile(stateFile)) {
+            return new HashMap<>();
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(stateFile)))) {
+            if (in.readInt() == FORMAT_VERSION
+                    && ScanResultFormat.SCANNER_VERSION.equals(in.readUTF())
+                    && path.equals(in.readUTF())) {
+                int size = in.readInt();
+                Map<String, ClassFileState> states = new HashMap<>();
+                for (int i = 0; i < size; i++) {
+                    String classFile = in.readUTF();
+                    long lastModified = in.readLong();
+                    long length = in.readLong();
+                    byte[] digest = new byte[in.readUnsignedShort()];
+                    in.readFully(digest);
+                    long crc = in.readLong();
+                    MojoAnnotatedClass mojoAnnotatedClass = in.readBoolean() ? ScanResultFormat.readClass(in) : null;
+                    states.put(classFile, new ClassFileState(lastModified, length, digest, crc, mojoAnnotatedClass));
+                }
+                return states;
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("Ignoring mojo annotations scan state " + stateFile + " of another scanner");
+            }
+        } catch (IOException e) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Ignoring mojo annotations scan state " + stateFile + " (" + e + ")");
+            }
+        }
+        // will be overwritten
+        return new HashMap<>();
+    }
+
+    static byte[] digest(byte[] bytes) {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM).digest(bytes);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The state of a class file at the time it has been analyzed.
+     */
+    static final class ClassFileState {
+        private final long lastModified;
+
+        private final long length;
+
+        private final byte[] digest;
+
+        private final long crc;
+
+        private final MojoAnnotatedClass mojoAnnotatedClass;
+
+        ClassFileState(long lastModified, long length, byte[] digest, long crc, MojoAnnotatedClass mojoAnnotatedClass) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.digest = digest;
+            this.crc = crc;
+            this.mojoAnnotatedClass = mojoAnnotatedClass;
+        }
+
+        long getCrc() {
+            return crc;
+        }
+    }
+}
@@ -21,20 +21,36 @@ package org.apache.maven.tools.plugin.extractor.annotations.scanner;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
-import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.EOFException;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.regex.Pattern;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.zip.ZipFile;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugins.annotations.Component;
@@ -52,10 +68,13 @@ import org.apache.maven.tools.plugin.extractor.annotations.scanner.visitors.Mojo
 import org.apache.maven.tools.plugin.extractor.annotations.scanner.visitors.MojoParameterVisitor;
 import org.codehaus.plexus.logging.AbstractLogEnabled;
 import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.StringUtils;
-import org.codehaus.plexus.util.reflection.Reflector;
 import org.codehaus.plexus.util.reflection.ReflectorException;
+import org.objectweb.asm.AnnotationVisitor;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Opcodes;
 import org.objectweb.asm.Type;
 
 /**
@@ -81,46 +100,270 @@ public class DefaultMojoAnnotationsScanner extends AbstractLogEnabled implements
     private static final Pattern SCANNABLE_CLASS = Pattern.compile("[^-]+\\.class");
     private static final String EMPTY = "";
 
-    private Reflector reflector = new Reflector();
+    private static final int CONSTANT_UTF8_TAG = 1;
+
+    private static final byte[] MOJO_ANNOTATIONS_DESCRIPTOR_PREFIX =
+            ("L" + Mojo.class.getPackage().getName().replace('.', '/') + "/").getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] MOJO_V4_ANNOTATIONS_DESCRIPTOR_PREFIX =
+            ("L" + MVN4_API.replace('.', '/')).getBytes(StandardCharsets.US_ASCII);
 
     @Override
     public Map<String, MojoAnnotatedClass> scan(MojoAnnotationsScannerRequest request) throws ExtractionException {
-        Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = new HashMap<>();
+        // order matters: classes found in later sources override the ones found in earlier sources
+        List<ScanSource> sources = new ArrayList<>();
+
+        String mavenApiVersion = null;
+        for (Artifact dependency : request.getDependencies()) {
+            sources.add(new ScanSource(dependency.getFile(), dependency, true));
+            if (request.getMavenApiVersion() == null
+                    && dependency.getGroupId().equals("org.apache.maven")
+                    && (dependency.getArtifactId().equals("maven-plugin-api")
+                            || dependency.getArtifactId().equals("maven-api-core"))) {
+                String version = dependency.getVersion();
+                if (mavenApiVersion != null && !Objects.equals(version, mavenApiVersion)) {
+                    throw new UnsupportedOperationException("Mixing Maven 3 and Maven 4 plugins is not supported."
+                            + " Fix your dependencies so that you depend either on maven-plugin-api for a Maven 3 plugin,"
+                            + " or maven-api-core for a Maven 4 plugin.");
+                }
+                mavenApiVersion = version;
+            }
+        }
+        request.setMavenApiVersion(mavenApiVersion);
+
+        for (File classDirectory : request.getClassesDirectories()) {
+            sources.add(new ScanSource(classDirectory, request.getProject().getArtifact(), false));
+        }
+
+        ArchiveScanCache cache = request.getCacheDirectory() != null
+                ? new ArchiveScanCache(request.getCacheDirectory(), getLogger())
+                : null;
+
+        SortedMap<String, MojoAnnotationsIndex.Entry> indexEntries = null;
+        if (request.getIndexFile() != null) {
+            if (request.getStateDirectory() != null) {
+                indexEntries = Collections.synchronizedSortedMap(new TreeMap<>());
+            } else {
+                getLogger()
+                        .warn("Not writing mojo annotations index " + request.getIndexFile()
+                                + ": it is built from the incremental scan state, which is disabled");
+            }
+        }
 
+        Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = new HashMap<>();
         try {
-            String mavenApiVersion = null;
-            for (Artifact dependency : request.getDependencies()) {
-                scan(mojoAnnotatedClasses, dependency.getFile(), request.getIncludePatterns(), dependency, true);
-                if (request.getMavenApiVersion() == null
-                        && dependency.getGroupId().equals("org.apache.maven")
-                        && (dependency.getArtifactId().equals("maven-plugin-api")
-                                || dependency.getArtifactId().equals("maven-api-core"))) {
-                    String version = dependency.getVersion();
-                    if (mavenApiVersion != null && !Objects.equals(version, mavenApiVersion)) {
-                        throw new UnsupportedOperationException("Mixing Maven 3 and Maven 4 plugins is not supported."
-                                + " Fix your dependencies so that you depend either on maven-plugin-api for a Maven 3 plugin,"
-                                + " or maven-api-core for a Maven 4 plugin.");
-                    }
-                    mavenApiVersion = version;
+            if (request.isDependenciesOnDemand()) {
+                scanOnDemand(mojoAnnotatedClasses, sources, request, indexEntries);
+            } else if (request.getThreadCount() > 1 && sources.size() > 1) {
+                scanParallel(mojoAnnotatedClasses, sources, request, cache, indexEntries);
+            } else {
+                for (ScanSource source : sources) {
+                    mojoAnnotatedClasses.putAll(scan(source, request, cache, indexEntries));
                 }
             }
-            request.setMavenApiVersion(mavenApiVersion);
-
-            for (File classDirectory : request.getClassesDirectories()) {
-                scan(
-                        mojoAnnotatedClasses,
-                        classDirectory,
-                        request.getIncludePatterns(),
-                        request.getProject().getArtifact(),
-                        false);
+            if (indexEntries != null) {
+                writeIndex(request.getIndexFile(), indexEntries);
+            }
+            if (request.getClassAnnotationsListener() != null) {
+                Artifact projectArtifact = request.getProject().getArtifact();
+                for (MojoAnnotatedClass mojoAnnotatedClass : mojoAnnotatedClasses.values()) {
+                    if (mojoAnnotatedClass.getArtifact() == projectArtifact) {
+                        request.getClassAnnotationsListener()
+                                .classAnalyzed(
+                                        mojoAnnotatedClass.getClassName(),
+                                        Collections.unmodifiableSet(mojoAnnotatedClass.getAnnotationClassNames()));
+                    }
+                }
             }
         } catch (IOException e) {
             throw new ExtractionException(e.getMessage(), e);
         }
 
+        if (cache != null
+                && cache.getHits() + cache.getMisses() > 0
+                && getLogger().isDebugEnabled()) {
+            getLogger()
+                    .debug("Mojo annotations scan cache: " + cache.getHits() + " hit(s), " + cache.getMisses()
+                            + " miss(es)");
+        }
+
         return mojoAnnotatedClasses;
     }
 
+    private Map<String, MojoAnnotatedClass> scan(
+            ScanSource source,
+            MojoAnnotationsScannerRequest request,
+            ArchiveScanCache cache,
+            SortedMap<String, MojoAnnotationsIndex.Entry> indexEntries)
+            throws IOException, ExtractionException {
+        List<String> includePatterns = request.getIncludePatterns();
+        // only the project's own classes change between builds
+        if (request.getStateDirectory() != null
+                && !source.excludeMojo
+                && source.file != null
+                && source.file.isDirectory()) {
+            return scanDirectoryIncrementally(
+                    source.file,
+                    includePatterns,
+                    source.artifact,
+                    request.getStateDirectory(),
+                    request.getDeltaFilter(),
+                    indexEntries);
+        }
+
+        // only archives are immutable enough to be cached
+        if (cache == null || source.file == null || !source.file.isFile()) {
+            return scan(source.file, includePatterns, source.artifact, source.excludeMojo);
+        }
+
+        Map<String, MojoAnnotatedClass> mojoAnnotatedClasses =
+                cache.get(source.file, source.artifact, source.excludeMojo);
+        if (mojoAnnotatedClasses == null) {
+            mojoAnnotatedClasses = scan(source.file, includePatterns, source.artifact, source.excludeMojo);
+            cache.put(source.file, source.artifact, source.excludeMojo, mojoAnnotatedClasses);
+        }
+        return mojoAnnotatedClasses;
+    }
+
+    /**
+     * Writes the index of the class files of the classes directories, including the ignored ones so that consumers
+     * can check that the index matches the packaged classes. The checksums are the ones of the scan state, so that
+     * unchanged class files are not read again.
+     */
+    private void writeIndex(File indexFile, SortedMap<String, MojoAnnotationsIndex.Entry> entries) throws IOException {
+        MojoAnnotationsIndex.write(indexFile.toPath(), entries);
+        if (getLogger().isDebugEnabled()) {
+            getLogger().debug("Wrote mojo annotations index of " + entries.size() + " classes to " + indexFile);
+        }
+    }
+
+    /**
+     * Scans all sources concurrently, and merges the results in the order of the given sources, so that the outcome
+     * is the same as the one of a sequential scan.
+     */
+    private void scanParallel(
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
+            List<ScanSource> sources,
+            MojoAnnotationsScannerRequest request,
+            ArchiveScanCache cache,
+            SortedMap<String, MojoAnnotationsIndex.Entry> indexEntries)
+            throws IOException, ExtractionException {
+        int threadCount = request.getThreadCount();
+        getLogger().debug("Scanning " + sources.size() + " sources with " + threadCount + " threads");
+
+        ExecutorService executor =
+                Executors.newFixedThreadPool(Math.min(threadCount, sources.size()), new ScannerThreadFactory());
+        try {
+            List<Future<Map<String, MojoAnnotatedClass>>> scanResults = new ArrayList<>(sources.size());
+            for (ScanSource source : sources) {
+                scanResults.add(executor.submit(() -> scan(source, request, cache, indexEntries)));
+            }
+
+            for (Future<Map<String, MojoAnnotatedClass>> scanResult : scanResults) {
+                mojoAnnotatedClasses.putAll(scanResult.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExtractionException("Interrupted while scanning for mojo annotations", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ExtractionException) {
+                throw (ExtractionException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ExtractionException(cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Scans the classes directories completely, but only the dependency classes which are superclasses of the mojos
+     * found there. Dependencies are just indexed by class name from the archives' central directories, and the
+     * classes of the mojo hierarchies are then read one by one, so the work depends on the depth of the hierarchies
+     * instead of the number of dependency classes.
+     */
+    private void scanOnDemand(
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
+            List<ScanSource> sources,
+            MojoAnnotationsScannerRequest request,
+            SortedMap<String, MojoAnnotationsIndex.Entry> indexEntries)
+            throws IOException, ExtractionException {
+        List<ScanSource> dependencySources = new ArrayList<>();
+        for (ScanSource source : sources) {
+            if (source.excludeMojo) {
+                dependencySources.add(source);
+            } else {
+                mojoAnnotatedClasses.putAll(scan(source, request, null, indexEntries));
+            }
+        }
+
+        List<MojoAnnotatedClass> mojos = new ArrayList<>();
+        for (MojoAnnotatedClass mojoAnnotatedClass : mojoAnnotatedClasses.values()) {
+            if (mojoAnnotatedClass.getMojo() != null) {
+                mojos.add(mojoAnnotatedClass);
+            }
+        }
+        if (mojos.isEmpty()) {
+            return;
+        }
+
+        int scannedClasses = 0;
+        try (DependencyClassIndex index = new DependencyClassIndex(dependencySources)) {
+            Set<String> visited = new HashSet<>();
+            for (MojoAnnotatedClass mojo : mojos) {
+                // parents found in the classes directories may themselves extend dependency classes
+                String parentClassName = mojo.getParentClassName();
+                while (parentClassName != null && visited.add(parentClassName)) {
+                    MojoAnnotatedClass parent = mojoAnnotatedClasses.get(parentClassName);
+                    if (parent == null) {
+                        if (!scanDependencyClass(mojoAnnotatedClasses, index, parentClassName)) {
+                            // outside of the dependencies, i.e. a JDK class
+                            break;
+                        }
+                        scannedClasses++;
+                        parent = mojoAnnotatedClasses.get(parentClassName);
+                    }
+                    parentClassName = parent.getParentClassName();
+                }
+            }
+
+            if (getLogger().isDebugEnabled()) {
+                getLogger()
+                        .debug("Scanned " + scannedClasses + " of " + index.size()
+                                + " dependency classes for the hierarchies of " + mojos.size() + " mojo(s)");
+            }
+        }
+    }
+
+    /**
+     * @return {@code true} if the class has been found in a dependency and added to {@code mojoAnnotatedClasses}
+     */
+    private boolean scanDependencyClass(
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses, DependencyClassIndex index, String className)
+            throws IOException, ExtractionException {
+        String classFileName = className.replace('.', '/') + ".class";
+        ScanSource source = index.find(classFileName);
+        if (source == null) {
+            return false;
+        }
+
+        byte[] classFile = index.read(source, classFileName);
+        analyzeClass(
+                mojoAnnotatedClasses,
+                classFile,
+                source.artifact,
+                source.excludeMojo,
+                source.file.getAbsolutePath(),
+                classFileName);
+        return mojoAnnotatedClasses.containsKey(className);
+    }
+
     protected void scan(
             Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
             File source,
@@ -128,18 +371,31 @@ public class DefaultMojoAnnotationsScanner extends AbstractLogEnabled implements
             Artifact artifact,
             boolean excludeMojo)
             throws IOException, ExtractionException {
+        mojoAnnotatedClasses.putAll(scan(source, includePatterns, artifact, excludeMojo));
+    }
+
+    /**
+     * @param source          the classes directory or archive to scan
+     * @param includePatterns
+     * @param artifact
+     * @param excludeMojo     for dependencies, we exclude Mojo annotations found
+     * @return annotated classes found, empty if the source does not exist
+     * @throws IOException
+     * @throws ExtractionException
+     * @since 4.0.0
+     */
+    protected Map<String, MojoAnnotatedClass> scan(
+            File source, List<String> includePatterns, Artifact artifact, boolean excludeMojo)
+            throws IOException, ExtractionException {
         if (source == null || !source.exists()) {
-            return;
+            return Collections.emptyMap();
         }
 
-        Map<String, MojoAnnotatedClass> scanResult;
         if (source.isDirectory()) {
-            scanResult = scanDirectory(source, includePatterns, artifact, excludeMojo);
+            return scanDirectory(source, includePatterns, artifact, excludeMojo);
         } else {
-            scanResult = scanArchive(source, artifact, excludeMojo);
+            return scanArchive(source, artifact, excludeMojo);
         }
-
-        mojoAnnotatedClasses.putAll(scanResult);
     }
 
     /**
@@ -155,22 +411,29 @@ public class DefaultMojoAnnotationsScanner extends AbstractLogEnabled implements
         Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = new HashMap<>();
 
         String zipEntryName = null;
-        try (ZipInputStream archiveStream = new ZipInputStream(new FileInputStream(archiveFile))) {
+        // the central directory allows to skip entries without inflating them
+        try (ZipFile zipFile = new ZipFile(archiveFile)) {
             String archiveFilename = archiveFile.getAbsolutePath();
-            for (ZipEntry zipEntry = archiveStream.getNextEntry();
-                    zipEntry != null;
-                    zipEntry = archiveStream.getNextEntry()) {
+            if (excludeMojo) {
+                Map<String, MojoAnnotatedClass> indexedClasses = readIndex(zipFile, archiveFilename, artifact);
+                if (indexedClasses != null) {
+                    return indexedClasses;
+                }
+            }
+
+            Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry zipEntry = zipEntries.nextElement();
                 zipEntryName = zipEntry.getName();
-                if (!SCANNABLE_CLASS.matcher(zipEntryName).matches()) {
+                if (zipEntry.isDirectory()
+                        || !SCANNABLE_CLASS.matcher(zipEntryName).matches()) {
                     continue;
                 }
-                analyzeClassStream(
-                        mojoAnnotatedClasses,
-                        archiveStream,
-                        artifact,
-                        excludeMojo,
-                        archiveFilename,
-                        zipEntry.getName());
+                byte[] classFile;
+                try (InputStream is = zipFile.getInputStream(zipEntry)) {
+                    classFile = readClassFile(is, zipEntry.getSize());
+                }
+                analyzeClass(mojoAnnotatedClasses, classFile, artifact, excludeMojo, archiveFilename, zipEntryName);
             }
         } catch (IllegalArgumentException e) {
             // In case of a class with newer specs an IllegalArgumentException can be thrown
@@ -182,6 +445,23 @@ public class DefaultMojoAnnotationsScanner extends AbstractLogEnabled implements
         return mojoAnnotatedClasses;
     }
 
+    /**
+     * @return the annotated classes of the archive from its index, or {@code null} if it has no usable index
+     */
+    private Map<String, MojoAnnotatedClass> readIndex(ZipFile zipFile, String archiveFilename, Artifact artifact) {
+        try {
+            Map<String, MojoAnnotatedClass> indexedClasses =
+                    MojoAnnotationsIndex.read(zipFile, SCANNABLE_CLASS, artifact);
+            if (indexedClasses == null && zipFile.getEntry(MojoAnnotationsIndex.INDEX_ENTRY) != null) {
+                getLogger().debug("Ignoring outdated mojo annotations index of " + archiveFilename);
+            }
+            return indexedClasses;
+        } catch (IOException e) {
+            getLogger().debug("Ignoring unreadable mojo annotations index of " + archiveFilename + ": " + e);
+            return null;
+        }
+    }
+
     /**
      * @param classDirectory
      * @param includePatterns
@@ -211,26 +491,145 @@ public class DefaultMojoAnnotationsScanner extends AbstractLogEnabled implements
                 continue;
             }
 
-            try (InputStream is = //
-                    new BufferedInputStream(new FileInputStream(new File(classDirectory, classFile)))) {
-                analyzeClassStream(mojoAnnotatedClasses, is, artifact, excludeMojo, classDirname, classFile);
+            byte[] bytes = Files.readAllBytes(new File(classDirectory, classFile).toPath());
+            analyzeClass(mojoAnnotatedClasses, bytes, artifact, excludeMojo, classDirname, classFile);
+        }
+        return mojoAnnotatedClasses;
+    }
+
+    /**
+     * Scans a classes directory like {@link #scanDirectory(File, List, Artifact, boolean)}, but only analyzes the
+     * class files which changed since the previous scan. Mojo annotations are never excluded.
+     */
+    private Map<String, MojoAnnotatedClass> scanDirectoryIncrementally(
+            File classDirectory,
+            List<String> includePatterns,
+            Artifact artifact,
+            File stateDirectory,
+            Predicate<File> deltaFilter,
+            SortedMap<String, MojoAnnotationsIndex.Entry> indexEntries)
+            throws IOException, ExtractionException {
+        ClassesDirectoryScanState state = new ClassesDirectoryScanState(stateDirectory, classDirectory, getLogger());
+
+        Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = new HashMap<>();
+
+        DirectoryScanner scanner = new DirectoryScanner();
+        scanner.setBasedir(classDirectory);
+        scanner.addDefaultExcludes();
+        if (includePatterns != null) {
+            scanner.setIncludes(includePatterns.toArray(new String[includePatterns.size()]));
+        }
+        scanner.scan();
+        String[] classFiles = scanner.getIncludedFiles();
+        String classDirname = classDirectory.getAbsolutePath();
+
+        int analyzed = 0;
+        for (String classFile : classFiles) {
+            if (!SCANNABLE_CLASS.matcher(classFile).matches()) {
+                continue;
+            }
+
+            File file = new File(classDirectory, classFile);
+            ClassesDirectoryScanState.ClassFileState classFileState =
+                    state.getUnchanged(classFile, file, deltaFilter != null && deltaFilter.test(file));
+            if (classFileState == null) {
+                byte[] bytes = Files.readAllBytes(file.toPath());
+                byte[] digest = ClassesDirectoryScanState.digest(bytes);
+                classFileState = state.getUnchanged(classFile, file, digest);
+                if (classFileState == null) {
+                    Map<String, MojoAnnotatedClass> analyzedClasses = new HashMap<>(1);
+                    analyzeClass(analyzedClasses, bytes, artifact, false, classDirname, classFile);
+                    MojoAnnotatedClass mojoAnnotatedClass = analyzedClasses.isEmpty()
+                            ? null
+                            : analyzedClasses.values().iterator().next();
+                    CRC32 crc = new CRC32();
+                    crc.update(bytes);
+                    classFileState = state.newState(file, digest, crc.getValue(), mojoAnnotatedClass);
+                    analyzed++;
+                }
+            }
+
+            MojoAnnotatedClass mojoAnnotatedClass = state.keep(classFile, classFileState, artifact);
+            if (mojoAnnotatedClass != null) {
+                mojoAnnotatedClasses.put(mojoAnnotatedClass.getClassName(), mojoAnnotatedClass);
+            }
+            if (indexEntries != null) {
+                indexEntries.put(
+                        classFile.replace(File.separatorChar, '/'),
+                        new MojoAnnotationsIndex.Entry(classFileState.getCrc(), mojoAnnotatedClass));
             }
         }
+        // class files which do not exist anymore are evicted
+        state.save();
+
+        if (getLogger().isDebugEnabled()) {
+            getLogger()
+                    .debug("Analyzed " + analyzed + " changed class file(s) out of " + classFiles.length + " in "
+                            + classDirname);
+        }
         return mojoAnnotatedClasses;
     }
 
-    private void analyzeClassStream(
+    /**
+     * Reads a class file completely, without intermediate buffers if its size is known.
+     *
+     * @param is   the class file content
+     * @param size the size of the class file, or {@code -1} if unknown
+     * @return the class file bytes
+     * @throws IOException
+     */
+    private static byte[] readClassFile(InputStream is, long size) throws IOException {
+        if (size < 0 || size > Integer.MAX_VALUE) {
+            return IOUtil.toByteArray(is);
+        }
+        byte[] classFile = new byte[(int) size];
+        int offset = 0;
+        while (offset < classFile.length) {
+            int read = is.read(classFile, offset, classFile.length - offset);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of class file after " + offset + " of " + size + " bytes");
+            }
+            offset += read;
+        }
+        return classFile;
+    }
+
+    private void analyzeClass(
             Map<String, MojoAnnotatedClass> mojoAnnotatedClasses,
-            InputStream is,
+            byte[] classFile,
             Artifact artifact,
             boolean excludeMojo,
             String source,
             String file)
-            throws IOException, ExtractionException {
-        MojoClassVisitor mojoClassVisitor = new MojoClassVisitor();
+            throws ExtractionException {
+        MojoClassVisitor mojoClassVisitor = null;
+        MojoAnnotatedClass mojoAnnotatedClass;
+        int classVersion;
         try {
-            ClassReader rdr = new ClassReader(is);
-            rdr.accept(mojoClassVisitor, ClassReader.SKIP_FRAMES | ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
+            ClassReader rdr = new ClassReader(classFile);
+            if (referencesMojoAnnotations(rdr, classFile)) {
+                // only the project's classes are reported to the class annotations listener
+                mojoClassVisitor = new MojoClassVisitor(!excludeMojo);
+                rdr.accept(mojoClassVisitor, ClassReader.SKIP_FRAMES | ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
+                mojoAnnotatedClass = mojoClassVisitor.getMojoAnnotatedClass();
+                classVersion = mojoClassVisitor.getVersion();
+            } else {
+                // no annotations to extract, only the parent class is needed to resolve the hierarchy
+                mojoAnnotatedClass = new MojoAnnotatedClass()
+                        .setClassName(Type.getObjectType(rdr.getClassName()).getClassName());
+                if (rdr.getSuperName() != null) {
+                    mojoAnnotatedClass.setParentClassName(
+                            Type.getObjectType(rdr.getSuperName()).getClassName());
+                }
+                // minor_version and major_version, as passed to ClassVisitor.visit()
+                classVersion = rdr.readInt(4);
+                if (!excludeMojo) {
+                    // other collectors may rely on the annotations of the project's classes
+                    rdr.accept(
+                            new ClassAnnotationsVisitor(mojoAnnotatedClass.getAnnotationClassNames()),
+                            ClassReader.SKIP_FRAMES | ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG);
+                }
+            }
         } catch (ArrayIndexOutOfBoundsException aiooe) {
             getLogger()
                     .warn(
@@ -249,9 +648,9 @@ public class DefaultMojoAnnotationsScanner extends AbstractLogEnabled implements
             }
         }
 
-        analyzeVisitors(mojoClassVisitor);
-
-        MojoAnnotatedClass mojoAnnotatedClass = mojoClassVisitor.getMojoAnnotatedClass();
+        if (mojoClassVisitor != null) {
+            analyzeVisitors(mojoClassVisitor);
+        }
 
         if (excludeMojo) {
             mojoAnnotatedClass.setMojo(null);
@@ -266,15 +665,51 @@ public class DefaultMojoAnnotationsScanner extends AbstractLogEnabled implements
             }
             mojoAnnotatedClass.setArtifact(artifact);
             mojoAnnotatedClasses.put(mojoAnnotatedClass.getClassName(), mojoAnnotatedClass);
-            mojoAnnotatedClass.setClassVersion(mojoClassVisitor.getVersion());
+            mojoAnnotatedClass.setClassVersion(classVersion);
         }
     }
 
+    /**
+     * Checks the constant pool of a class for references to the Maven 3 or Maven 4 plugin annotations packages.
+     * Classes without such references cannot carry any of the annotations extracted by the scanner.
+     *
+     * @param rdr       the class reader
+     * @param classFile the bytes of the class file read by {@code rdr}
+     * @return {@code true} if the class may be annotated with Mojo annotations
+     */
+    private static boolean referencesMojoAnnotations(ClassReader rdr, byte[] classFile) {
+        for (int i = 1; i < rdr.getItemCount(); i++) {
+            // offset of the cp_info structure plus one, 0 for the unusable entries after long and double constants
+            int offset = rdr.getItem(i);
+            if (offset == 0 || classFile[offset - 1] != CONSTANT_UTF8_TAG) {
+                continue;
+            }
+            int length = rdr.readUnsignedShort(offset);
+            if (startsWith(classFile, offset + 2, length, MOJO_ANNOTATIONS_DESCRIPTOR_PREFIX)
+                    || startsWith(classFile, offset + 2, length, MOJO_V4_ANNOTATIONS_DESCRIPTOR_PREFIX)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, int length, byte[] prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     protected void populateAnnotationContent(Object content, MojoAnnotationVisitor mojoAnnotationVisitor)
             throws ReflectorException {
         for (Map.Entry<String, Object> entry :
                 mojoAnnotationVisitor.getAnnotationValues().entrySet()) {
-            reflector.invoke(content, entry.getKey(), new Object[] {entry.getValue()});
+            AnnotationContentSetters.set(content, entry.getKey(), entry.getValue());
         }
     }
 
@@ -357,8 +792,7 @@ public class DefaultMojoAnnotationsScanner extends AbstractLogEnabled implements
                             Type type = (Type) entry.getValue();
                             componentAnnotationContent.setRoleClassName(type.getClassName());
                         } else {
-                            reflector.invoke(
-                                    componentAnnotationContent, entry.getKey(), new Object[] {entry.getValue()});
+                            AnnotationContentSetters.set(componentAnnotationContent, methodName, entry.getValue());
                         }
                     }
 
@@ -374,4 +808,150 @@ public class DefaultMojoAnnotationsScanner extends AbstractLogEnabled implements
             throw new ExtractionException(e.getMessage(), e);
         }
     }
+
+    /**
+     * A classes directory or archive to scan.
+     */
+    private static final class ScanSource {
+        private final File file;
+
+        private final Artifact artifact;
+
+        private final boolean excludeMojo;
+
+        ScanSource(File file, Artifact artifact, boolean excludeMojo) {
+            this.file = file;
+            this.artifact = artifact;
+            this.excludeMojo = excludeMojo;
+        }
+    }
+
+    /**
+     * Index of the class files of dependencies, built from the archives' central directories without reading any
+     * class. Archives are only opened again to read the classes looked up.
+     */
+    private static final class DependencyClassIndex implements Closeable {
+        private final List<ScanSource> sources;
+
+        /**
+         * The position in {@link #sources} of the last archive containing each class file.
+         */
+        private final Map<String, Integer> archiveClassFiles = new HashMap<>();
+
+        /**
+         * The positions in {@link #sources} of the directories, which are looked up on demand.
+         */
+        private final List<Integer> directories = new ArrayList<>();
+
+        private final Map<File, ZipFile> openedArchives = new HashMap<>();
+
+        DependencyClassIndex(List<ScanSource> sources) throws IOException {
+            this.sources = sources;
+            for (int i = 0; i < sources.size(); i++) {
+                ScanSource source = sources.get(i);
+                if (source.file == null || !source.file.exists()) {
+                    continue;
+                }
+                if (source.file.isDirectory()) {
+                    directories.add(i);
+                    continue;
+                }
+                try (ZipFile zipFile = new ZipFile(source.file)) {
+                    Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+                    while (zipEntries.hasMoreElements()) {
+                        ZipEntry zipEntry = zipEntries.nextElement();
+                        if (!zipEntry.isDirectory()
+                                && SCANNABLE_CLASS.matcher(zipEntry.getName()).matches()) {
+                            // classes of later dependencies override the ones of earlier dependencies, as in a full
+                            // scan
+                            archiveClassFiles.put(zipEntry.getName(), i);
+                        }
+                    }
+                }
+            }
+        }
+
+        int size() {
+            return archiveClassFiles.size();
+        }
+
+        /**
+         * @return the last source containing the class file, as a full scan lets later sources override earlier ones,
+         * or {@code null} if there is none
+         */
+        ScanSource find(String classFileName) {
+            Integer archive = archiveClassFiles.get(classFileName);
+            // only the directories after the archive can override it
+            for (int i = directories.size() - 1; i >= 0; i--) {
+                int directory = directories.get(i);
+                if (archive != null && directory < archive) {
+                    break;
+                }
+                if (new File(sources.get(directory).file, classFileName).isFile()) {
+                    return sources.get(directory);
+                }
+            }
+            return archive != null ? sources.get(archive) : null;
+        }
+
+        byte[] read(ScanSource source, String classFileName) throws IOException {
+            if (source.file.isDirectory()) {
+                return Files.readAllBytes(new File(source.file, classFileName).toPath());
+            }
+
+            ZipFile zipFile = openedArchives.get(source.file);
+            if (zipFile == null) {
+                zipFile = new ZipFile(source.file);
+                openedArchives.put(source.file, zipFile);
+            }
+            ZipEntry zipEntry = zipFile.getEntry(classFileName);
+            try (InputStream is = zipFile.getInputStream(zipEntry)) {
+                return readClassFile(is, zipEntry.getSize());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException exception = null;
+            for (ZipFile zipFile : openedArchives.values()) {
+                try {
+                    zipFile.close();
+                } catch (IOException e) {
+                    exception = e;
+                }
+            }
+            if (exception != null) {
+                throw exception;
+            }
+        }
+    }
+
+    /**
+     * Collects the class-level annotations of a class.
+     */
+    private static final class ClassAnnotationsVisitor extends ClassVisitor {
+        private final Set<String> annotationClassNames;
+
+        ClassAnnotationsVisitor(Set<String> annotationClassNames) {
+            super(Opcodes.ASM9);
+            this.annotationClassNames = annotationClassNames;
+        }
+
+        @Override
+        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+            annotationClassNames.add(Type.getType(descriptor).getClassName());
+            return null;
+        }
+    }
+
+    private static final class ScannerThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "mojo-annotations-scanner-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -19,7 +19,9 @@
 package org.apache.maven.tools.plugin.extractor.annotations.scanner;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ComponentAnnotationContent;
@@ -59,6 +61,11 @@ public class MojoAnnotatedClass {
 
     private boolean v4Api;
 
+    /**
+     * class names of all class-level annotations
+     */
+    private Set<String> annotationClassNames;
+
     public MojoAnnotatedClass() {
         // no op
     }
@@ -123,6 +130,18 @@ public class MojoAnnotatedClass {
         return this;
     }
 
+    /**
+     * @return the class names of all class-level annotations, which are only collected for the classes of classes
+     * directories
+     * @since 4.0.0
+     */
+    public Set<String> getAnnotationClassNames() {
+        if (this.annotationClassNames == null) {
+            this.annotationClassNames = new HashSet<>();
+        }
+        return annotationClassNames;
+    }
+
     public String getParentClassName() {
         return parentClassName;
     }
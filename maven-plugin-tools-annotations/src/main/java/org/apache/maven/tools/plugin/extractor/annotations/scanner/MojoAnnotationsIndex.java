@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations.scanner;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.apache.maven.artifact.Artifact;
+
+/**
+ * Index of the scan results of the classes of a plugin, published in its jar so that plugins extending its mojos do
+ * not need to analyze its classes again. The index lists every class file with its CRC-32, which is compared to the
+ * one of the archive's central directory to detect stale indexes, e.g. after classes have been modified or added by
+ * later build steps. Mojo annotations are not indexed, as they are excluded when scanning dependencies.
+ *
+ * @since 4.0.0
+ */
+final class MojoAnnotationsIndex {
+    /**
+     * The path of the index in the plugin archive.
+     */
+    static final String INDEX_ENTRY = "META-INF/maven/mojo-annotations.idx";
+
+    private static final int MAGIC = 0x4d4a4958;
+
+    /**
+     * Must be increased whenever the index format changes, indexes with another version are ignored.
+     */
+    private static final int FORMAT_VERSION = 2;
+
+    private MojoAnnotationsIndex() {
+        // no op
+    }
+
+    /**
+     * @param indexFile the index file to write
+     * @param entries   the indexed class files, by path relative to the classes directory
+     * @throws IOException if the index cannot be written
+     */
+    static void write(Path indexFile, SortedMap<String, Entry> entries) throws IOException {
+        Files.createDirectories(indexFile.getParent());
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(indexFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue().crc);
+                MojoAnnotatedClass mojoAnnotatedClass = entry.getValue().mojoAnnotatedClass;
+                out.writeBoolean(mojoAnnotatedClass != null);
+                if (mojoAnnotatedClass != null) {
+                    ScanResultFormat.writeClass(out, mojoAnnotatedClass, false);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param zipFile  the archive to read the index from
+     * @param pattern  the pattern of the class files to scan
+     * @param artifact the artifact of the archive
+     * @return the annotated classes of the archive, or {@code null} if it has no index, or if the index has another
+     * format version or does not match the class files of the archive
+     * @throws IOException if the index cannot be read
+     */
+    static Map<String, MojoAnnotatedClass> read(ZipFile zipFile, Pattern pattern, Artifact artifact)
+            throws IOException {
+        ZipEntry indexEntry = zipFile.getEntry(INDEX_ENTRY);
+        if (indexEntry == null) {
+            return null;
+        }
+
+        Map<String, Entry> entries;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(zipFile.getInputStream(indexEntry)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            int size = in.readInt();
+            entries = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                String classFile = in.readUTF();
+                long crc = in.readLong();
+                MojoAnnotatedClass mojoAnnotatedClass = in.readBoolean() ? ScanResultFormat.readClass(in) : null;
+                entries.put(classFile, new Entry(crc, mojoAnnotatedClass));
+            }
+        }
+
+        Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = new HashMap<>();
+        int classFiles = 0;
+        Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+        while (zipEntries.hasMoreElements()) {
+            ZipEntry zipEntry = zipEntries.nextElement();
+            if (zipEntry.isDirectory() || !pattern.matcher(zipEntry.getName()).matches()) {
+                continue;
+            }
+            Entry entry = entries.get(zipEntry.getName());
+            if (entry == null || entry.crc != zipEntry.getCrc()) {
+                return null;
+            }
+            classFiles++;
+            if (entry.mojoAnnotatedClass != null) {
+                entry.mojoAnnotatedClass.setArtifact(artifact);
+                mojoAnnotatedClasses.put(entry.mojoAnnotatedClass.getClassName(), entry.mojoAnnotatedClass);
+            }
+        }
+        // class files removed from the archive
+        return classFiles == entries.size() ? mojoAnnotatedClasses : null;
+    }
+
+    /**
+     * An indexed class file.
+     */
+    static final class Entry {
+        private final long crc;
+
+        private final MojoAnnotatedClass mojoAnnotatedClass;
+
+        /**
+         * @param crc                the CRC-32 of the class file
+         * @param mojoAnnotatedClass the scan result of the class file, {@code null} if the class has been ignored
+         */
+        Entry(long crc, MojoAnnotatedClass mojoAnnotatedClass) {
+            this.crc = crc;
+            this.mojoAnnotatedClass = mojoAnnotatedClass;
+        }
+    }
+}
@@ -24,9 +24,11 @@ import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.project.MavenProject;
+import org.apache.maven.tools.plugin.ClassAnnotationsListener;
 
 /**
  * @author Olivier Lamy
@@ -45,6 +47,20 @@ public class MojoAnnotationsScannerRequest {
 
     private String mavenApiVersion;
 
+    private int threadCount = 1;
+
+    private File cacheDirectory;
+
+    private boolean dependenciesOnDemand;
+
+    private File stateDirectory;
+
+    private Predicate<File> deltaFilter;
+
+    private File indexFile;
+
+    private ClassAnnotationsListener classAnnotationsListener;
+
     public MojoAnnotationsScannerRequest() {
         // no o
     }
@@ -96,4 +112,126 @@ public class MojoAnnotationsScannerRequest {
     public void setMavenApiVersion(String mavenApiVersion) {
         this.mavenApiVersion = mavenApiVersion;
     }
+
+    /**
+     * @return the maximum number of threads used to scan dependencies and classes directories
+     * @since 4.0.0
+     */
+    public int getThreadCount() {
+        return threadCount;
+    }
+
+    /**
+     * @param threadCount the maximum number of threads used to scan dependencies and classes directories,
+     *                    values lower than 2 mean sequential scanning
+     * @since 4.0.0
+     */
+    public void setThreadCount(int threadCount) {
+        this.threadCount = threadCount;
+    }
+
+    /**
+     * @return the directory of the persistent cache of archive scan results, or {@code null} if disabled
+     * @since 4.0.0
+     */
+    public File getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    /**
+     * @param cacheDirectory the directory of the persistent cache of archive scan results,
+     *                       {@code null} to disable caching
+     * @since 4.0.0
+     */
+    public void setCacheDirectory(File cacheDirectory) {
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * @return {@code true} if only the dependency classes in the hierarchy of the scanned mojos are scanned
+     * @since 4.0.0
+     */
+    public boolean isDependenciesOnDemand() {
+        return dependenciesOnDemand;
+    }
+
+    /**
+     * @param dependenciesOnDemand {@code true} to scan the classes directories first, and then only the dependency
+     *                             classes which are superclasses of the mojos found, {@code false} to scan all
+     *                             dependency classes
+     * @since 4.0.0
+     */
+    public void setDependenciesOnDemand(boolean dependenciesOnDemand) {
+        this.dependenciesOnDemand = dependenciesOnDemand;
+    }
+
+    /**
+     * @return the directory where the scan results of the classes directories are kept between builds, or
+     * {@code null} if classes directories are always scanned completely
+     * @since 4.0.0
+     */
+    public File getStateDirectory() {
+        return stateDirectory;
+    }
+
+    /**
+     * @param stateDirectory the directory where the scan results of the classes directories are kept between builds,
+     *                       {@code null} to always scan classes directories completely
+     * @since 4.0.0
+     */
+    public void setStateDirectory(File stateDirectory) {
+        this.stateDirectory = stateDirectory;
+    }
+
+    /**
+     * @return tells whether a class file is known to have changed since the previous build, or {@code null}
+     * @since 4.0.0
+     */
+    public Predicate<File> getDeltaFilter() {
+        return deltaFilter;
+    }
+
+    /**
+     * @param deltaFilter tells whether a class file is known to have changed since the previous build, class files
+     *                    with the same size, modification time and content are considered unchanged otherwise
+     * @since 4.0.0
+     */
+    public void setDeltaFilter(Predicate<File> deltaFilter) {
+        this.deltaFilter = deltaFilter;
+    }
+
+    /**
+     * @return the file where the index of the scan results of the classes directories is written, or {@code null}
+     * @since 4.0.0
+     */
+    public File getIndexFile() {
+        return indexFile;
+    }
+
+    /**
+     * @param indexFile the file where the index of the scan results of the classes directories is written, to be
+     *                  packaged as {@code META-INF/maven/mojo-annotations.idx}, {@code null} to not write any index
+     * @since 4.0.0
+     */
+    public void setIndexFile(File indexFile) {
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * @return the listener notified of the class-level annotations of the classes of the classes directories, or
+     * {@code null}
+     * @since 4.0.0
+     */
+    public ClassAnnotationsListener getClassAnnotationsListener() {
+        return classAnnotationsListener;
+    }
+
+    /**
+     * @param classAnnotationsListener the listener notified of the class-level annotations of the classes of the
+     *                                 classes directories once they have been scanned, or {@code null}
+     * @since 4.0.0
+     */
+    public void setClassAnnotationsListener(ClassAnnotationsListener classAnnotationsListener) {
+        this.classAnnotationsListener = classAnnotationsListener;
+    }
 }
@@ -0,0 +1,396 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations.scanner;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.AnnotatedContent;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ComponentAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ExecuteAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.MojoAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ParameterAnnotationContent;
+
+/**
+ * Binary format of the scan results, shared by the {@link MojoAnnotationsIndex index}, the
+ * {@link ArchiveScanCache archive cache} and the {@link ClassesDirectoryScanState classes directory state}.
+ * Only the values of the data model are written, so that reading a file never instantiates any other type, even if
+ * the file has been tampered with.
+ * The versioning and atomic writing of files are also used by the other caches of the extractor.
+ *
+ * @since 4.0.0
+ */
+public final class ScanResultFormat {
+    /**
+     * Identifies the code which produced persisted scan results, which are ignored if written by another version.
+     * Snapshots and unpackaged classes may change without a version change, so their content is part of it.
+     */
+    static final String SCANNER_VERSION = getCodeVersion(ScanResultFormat.class);
+
+    private ScanResultFormat() {
+        // no op
+    }
+
+    /**
+     * Writes a file by moving a completely written temporary file in place, as concurrent builds may write the same
+     * file.
+     *
+     * @param file    the file to write
+     * @param content writes the content
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeAtomically(Path file, ContentWriter content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path tmpFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+                content.write(out);
+            }
+            try {
+                Files.move(tmpFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmpFile);
+        }
+    }
+
+    /**
+     * @param out                the output
+     * @param mojoAnnotatedClasses the annotated classes, by class name
+     * @throws IOException if the classes cannot be written
+     */
+    static void writeClasses(DataOutput out, Map<String, MojoAnnotatedClass> mojoAnnotatedClasses) throws IOException {
+        out.writeInt(mojoAnnotatedClasses.size());
+        // sorted for reproducible output
+        for (MojoAnnotatedClass mojoAnnotatedClass : new TreeMap<>(mojoAnnotatedClasses).values()) {
+            writeClass(out, mojoAnnotatedClass, true);
+        }
+    }
+
+    /**
+     * @param in the input
+     * @return the annotated classes, by class name
+     * @throws IOException if the classes cannot be read
+     */
+    static Map<String, MojoAnnotatedClass> readClasses(DataInput in) throws IOException {
+        int size = in.readInt();
+        Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            MojoAnnotatedClass mojoAnnotatedClass = readClass(in);
+            mojoAnnotatedClasses.put(mojoAnnotatedClass.getClassName(), mojoAnnotatedClass);
+        }
+        return mojoAnnotatedClasses;
+    }
+
+    /**
+     * @param out                the output
+     * @param mojoAnnotatedClass the annotated class
+     * @param withMojo           {@code false} to leave out the Mojo annotation and the names of the class annotations,
+     *                           which are only used for the project's own classes
+     * @throws IOException if the class cannot be written
+     */
+    static void writeClass(DataOutput out, MojoAnnotatedClass mojoAnnotatedClass, boolean withMojo) throws IOException {
+        out.writeUTF(mojoAnnotatedClass.getClassName());
+        writeString(out, mojoAnnotatedClass.getParentClassName());
+        out.writeInt(mojoAnnotatedClass.getClassVersion());
+        out.writeBoolean(mojoAnnotatedClass.isV4Api());
+
+        MojoAnnotationContent mojo = withMojo ? mojoAnnotatedClass.getMojo() : null;
+        out.writeBoolean(mojo != null);
+        if (mojo != null) {
+            writeContent(out, mojo);
+            writeString(out, mojo.name());
+            writeEnum(out, mojo.defaultPhase());
+            writeEnum(out, mojo.requiresDependencyResolution());
+            writeEnum(out, mojo.requiresDependencyCollection());
+            writeEnum(out, mojo.instantiationStrategy());
+            writeString(out, mojo.executionStrategy());
+            out.writeBoolean(mojo.requiresProject());
+            out.writeBoolean(mojo.requiresReports());
+            out.writeBoolean(mojo.aggregator());
+            out.writeBoolean(mojo.requiresDirectInvocation());
+            out.writeBoolean(mojo.requiresOnline());
+            out.writeBoolean(mojo.inheritByDefault());
+            writeString(out, mojo.configurator());
+            out.writeBoolean(mojo.threadSafe());
+        }
+
+        ExecuteAnnotationContent execute = mojoAnnotatedClass.getExecute();
+        out.writeBoolean(execute != null);
+        if (execute != null) {
+            writeString(out, execute.goal());
+            writeString(out, execute.lifecycle());
+            writeEnum(out, execute.phase());
+            writeString(out, execute.customPhase());
+        }
+
+        out.writeInt(mojoAnnotatedClass.getParameters().size());
+        for (Map.Entry<String, ParameterAnnotationContent> entry :
+                new TreeMap<>(mojoAnnotatedClass.getParameters()).entrySet()) {
+            ParameterAnnotationContent parameter = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeUTF(parameter.getFieldName());
+            writeString(out, parameter.getClassName());
+            out.writeInt(parameter.getTypeParameters().size());
+            for (String typeParameter : parameter.getTypeParameters()) {
+                out.writeUTF(typeParameter);
+            }
+            out.writeBoolean(parameter.isAnnotationOnMethod());
+            writeString(out, parameter.name());
+            writeString(out, parameter.alias());
+            writeString(out, parameter.property());
+            writeString(out, parameter.defaultValue());
+            out.writeBoolean(parameter.required());
+            out.writeBoolean(parameter.readonly());
+            writeContent(out, parameter);
+        }
+
+        out.writeInt(mojoAnnotatedClass.getComponents().size());
+        for (Map.Entry<String, ComponentAnnotationContent> entry :
+                new TreeMap<>(mojoAnnotatedClass.getComponents()).entrySet()) {
+            ComponentAnnotationContent component = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeUTF(component.getFieldName());
+            writeString(out, component.getRoleClassName());
+            writeString(out, component.hint());
+            writeContent(out, component);
+        }
+
+        Set<String> annotationClassNames =
+                withMojo ? new TreeSet<>(mojoAnnotatedClass.getAnnotationClassNames()) : Collections.emptySet();
+        out.writeInt(annotationClassNames.size());
+        for (String annotationClassName : annotationClassNames) {
+            out.writeUTF(annotationClassName);
+        }
+    }
+
+    /**
+     * @param in the input
+     * @return the annotated class, without artifact
+     * @throws IOException if the class cannot be read, also in case of invalid values
+     */
+    static MojoAnnotatedClass readClass(DataInput in) throws IOException {
+        try {
+            MojoAnnotatedClass mojoAnnotatedClass = new MojoAnnotatedClass()
+                    .setClassName(in.readUTF())
+                    .setParentClassName(readString(in))
+                    .setClassVersion(in.readInt());
+            mojoAnnotatedClass.setV4Api(in.readBoolean());
+
+            if (in.readBoolean()) {
+                MojoAnnotationContent mojo = new MojoAnnotationContent();
+                readContent(in, mojo);
+                mojo.name(readString(in));
+                mojo.defaultPhase(readString(in));
+                String requiresDependencyResolution = readString(in);
+                if (requiresDependencyResolution != null) {
+                    mojo.requiresDependencyResolution(requiresDependencyResolution);
+                }
+                String requiresDependencyCollection = readString(in);
+                if (requiresDependencyCollection != null) {
+                    mojo.requiresDependencyCollection(requiresDependencyCollection);
+                }
+                String instantiationStrategy = readString(in);
+                if (instantiationStrategy != null) {
+                    mojo.instantiationStrategy(instantiationStrategy);
+                }
+                mojo.executionStrategy(readString(in));
+                mojo.requiresProject(in.readBoolean());
+                mojo.requiresReports(in.readBoolean());
+                mojo.aggregator(in.readBoolean());
+                mojo.requiresDirectInvocation(in.readBoolean());
+                mojo.requiresOnline(in.readBoolean());
+                mojo.inheritByDefault(in.readBoolean());
+                mojo.configurator(readString(in));
+                mojo.threadSafe(in.readBoolean());
+                mojoAnnotatedClass.setMojo(mojo);
+            }
+
+            if (in.readBoolean()) {
+                ExecuteAnnotationContent execute = new ExecuteAnnotationContent();
+                execute.goal(readString(in));
+                execute.lifecycle(readString(in));
+                String phase = readString(in);
+                if (phase != null) {
+                    execute.phase(phase);
+                }
+                execute.customPhase(readString(in));
+                mojoAnnotatedClass.setExecute(execute);
+            }
+
+            int parameters = in.readInt();
+            for (int i = 0; i < parameters; i++) {
+                String key = in.readUTF();
+                String fieldName = in.readUTF();
+                String className = readString(in);
+                int typeParameterCount = in.readInt();
+                List<String> typeParameters = new ArrayList<>();
+                for (int j = 0; j < typeParameterCount; j++) {
+                    typeParameters.add(in.readUTF());
+                }
+                ParameterAnnotationContent parameter =
+                        new ParameterAnnotationContent(fieldName, className, typeParameters, in.readBoolean());
+                parameter.name(readString(in));
+                parameter.alias(readString(in));
+                parameter.property(readString(in));
+                parameter.defaultValue(readString(in));
+                parameter.required(in.readBoolean());
+                parameter.readonly(in.readBoolean());
+                readContent(in, parameter);
+                mojoAnnotatedClass.getParameters().put(key, parameter);
+            }
+
+            int components = in.readInt();
+            for (int i = 0; i < components; i++) {
+                String key = in.readUTF();
+                ComponentAnnotationContent component =
+                        new ComponentAnnotationContent(in.readUTF(), readString(in), readString(in));
+                readContent(in, component);
+                mojoAnnotatedClass.getComponents().put(key, component);
+            }
+
+            int annotationClassNames = in.readInt();
+            for (int i = 0; i < annotationClassNames; i++) {
+                mojoAnnotatedClass.getAnnotationClassNames().add(in.readUTF());
+            }
+            return mojoAnnotatedClass;
+        } catch (IllegalArgumentException e) {
+            // unknown enum constant
+            throw new IOException("Invalid scan result: " + e.getMessage(), e);
+        }
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeEnum(DataOutput out, Enum<?> value) throws IOException {
+        writeString(out, value != null ? value.name() : null);
+    }
+
+    private static void writeContent(DataOutput out, AnnotatedContent content) throws IOException {
+        writeString(out, content.getDescription());
+        writeString(out, content.getSince());
+        writeString(out, content.getDeprecated());
+    }
+
+    private static void readContent(DataInput in, AnnotatedContent content) throws IOException {
+        content.setDescription(readString(in));
+        content.setSince(readString(in));
+        content.setDeprecated(readString(in));
+    }
+
+    /**
+     * Identifies the code of a package and of its subpackages, to ignore the results persisted by another version.
+     * Snapshots and unpackaged classes may change without a version change, so their content is part of it.
+     *
+     * @param type a type of the package
+     * @return the version of the code, which never matches another one if it cannot be determined
+     */
+    public static String getCodeVersion(Class<?> type) {
+        String version = type.getPackage().getImplementationVersion();
+        if (version != null && !version.endsWith("-SNAPSHOT")) {
+            return version;
+        }
+        try {
+            return version + "@" + getCodeFingerprint(type);
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            // never matches, so nothing persisted is used
+            return version + "@" + System.nanoTime();
+        }
+    }
+
+    /**
+     * @return the size and modification time of the jar containing the type, or the digest of the class files of its
+     * package and subpackages if it is not packaged
+     */
+    private static String getCodeFingerprint(Class<?> type) throws IOException, URISyntaxException {
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        URL location = codeSource != null ? codeSource.getLocation() : null;
+        if (location == null) {
+            throw new IOException("Unknown location of " + type.getName());
+        }
+        Path path = Paths.get(location.toURI());
+        if (Files.isRegularFile(path)) {
+            return Files.size(path) + "-" + Files.getLastModifiedTime(path).toMillis();
+        }
+        Path packageDirectory = path.resolve(type.getPackage().getName().replace('.', File.separatorChar));
+        List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(packageDirectory)) {
+            classFiles = files.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (Path classFile : classFiles) {
+            digest.update(packageDirectory.relativize(classFile).toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(Files.readAllBytes(classFile));
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        for (byte b : digest.digest()) {
+            fingerprint.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Writes the content of a file.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
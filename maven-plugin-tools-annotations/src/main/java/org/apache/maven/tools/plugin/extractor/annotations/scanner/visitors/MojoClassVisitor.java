@@ -51,6 +51,15 @@ import static org.apache.maven.tools.plugin.extractor.annotations.scanner.Defaul
  * @since 3.0
  */
 public class MojoClassVisitor extends ClassVisitor {
+    private static final Set<String> CLASS_LEVEL_ANNOTATION_DESCRIPTORS =
+            toDescriptors(MojoAnnotationsScanner.CLASS_LEVEL_ANNOTATIONS);
+
+    private static final Set<String> FIELD_LEVEL_ANNOTATION_DESCRIPTORS =
+            toDescriptors(MojoAnnotationsScanner.FIELD_LEVEL_ANNOTATIONS);
+
+    private static final Set<String> METHOD_LEVEL_ANNOTATION_DESCRIPTORS =
+            toDescriptors(MojoAnnotationsScanner.METHOD_LEVEL_ANNOTATIONS);
+
     private MojoAnnotatedClass mojoAnnotatedClass;
 
     private Map<String, MojoAnnotationVisitor> annotationVisitorMap = new HashMap<>();
@@ -61,8 +70,22 @@ public class MojoClassVisitor extends ClassVisitor {
 
     private int version;
 
+    private final MemberVisitor memberVisitor = new MemberVisitor();
+
+    private final boolean collectAnnotationClassNames;
+
     public MojoClassVisitor() {
+        this(false);
+    }
+
+    /**
+     * @param collectAnnotationClassNames {@code true} to collect the names of all class-level annotations in
+     *                                    {@link MojoAnnotatedClass#getAnnotationClassNames()}
+     * @since 4.0.0
+     */
+    public MojoClassVisitor(boolean collectAnnotationClassNames) {
         super(Opcodes.ASM9);
+        this.collectAnnotationClassNames = collectAnnotationClassNames;
     }
 
     public MojoAnnotatedClass getMojoAnnotatedClass() {
@@ -122,10 +145,13 @@ public class MojoClassVisitor extends ClassVisitor {
 
     @Override
     public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
-        String annotationClassName = Type.getType(desc).getClassName();
-        if (!MojoAnnotationsScanner.CLASS_LEVEL_ANNOTATIONS.contains(annotationClassName)) {
+        if (collectAnnotationClassNames) {
+            mojoAnnotatedClass.getAnnotationClassNames().add(Type.getType(desc).getClassName());
+        }
+        if (!CLASS_LEVEL_ANNOTATION_DESCRIPTORS.contains(desc)) {
             return null;
         }
+        String annotationClassName = Type.getType(desc).getClassName();
         if (annotationClassName.startsWith(MojoAnnotationsScanner.V4_API_ANNOTATIONS_PACKAGE)) {
             mojoAnnotatedClass.setV4Api(true);
         }
@@ -136,11 +162,9 @@ public class MojoClassVisitor extends ClassVisitor {
 
     @Override
     public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
-        List<String> typeParameters = extractTypeParameters(access, signature, true);
-        MojoFieldVisitor mojoFieldVisitor =
-                new MojoFieldVisitor(name, Type.getType(desc).getClassName(), typeParameters);
-        fieldVisitors.add(mojoFieldVisitor);
-        return mojoFieldVisitor;
+        // the MojoFieldVisitor is only created once a relevant annotation is found on the field
+        memberVisitor.visitMember(access, name, desc, signature, true);
+        return memberVisitor.asFieldVisitor();
     }
 
     /**
@@ -183,18 +207,111 @@ public class MojoClassVisitor extends ClassVisitor {
             return null;
         }
 
-        Type type = Type.getType(desc);
+        if (!desc.endsWith(")V")) {
+            return null;
+        }
+
+        // the MojoMethodVisitor is only created once a relevant annotation is found on the method
+        memberVisitor.visitMember(access, name, desc, signature, false);
+        return memberVisitor.asMethodVisitor();
+    }
 
-        if ("void".equals(type.getReturnType().getClassName()) && type.getArgumentTypes().length == 1) {
-            String fieldName = StringUtils.lowercaseFirstLetter(name.substring(3));
-            String className = type.getArgumentTypes()[0].getClassName();
-            List<String> typeParameters = extractTypeParameters(access, signature, false);
+    private static Set<String> toDescriptors(List<String> annotationClassNames) {
+        return annotationClassNames.stream()
+                .map(className -> "L" + className.replace('.', '/') + ";")
+                .collect(Collectors.toSet());
+    }
 
-            MojoMethodVisitor mojoMethodVisitor = new MojoMethodVisitor(fieldName, className, typeParameters);
-            methodVisitors.add(mojoMethodVisitor);
-            return mojoMethodVisitor;
+    /**
+     * Reusable visitor for the fields and methods of the visited class, which defers the creation of
+     * {@link MojoFieldVisitor} and {@link MojoMethodVisitor} instances and the parsing of generic signatures until an
+     * annotation from {@link MojoAnnotationsScanner#FIELD_LEVEL_ANNOTATIONS} or
+     * {@link MojoAnnotationsScanner#METHOD_LEVEL_ANNOTATIONS} is visited.
+     */
+    private final class MemberVisitor {
+        private final FieldVisitor fieldVisitor = new FieldVisitor(Opcodes.ASM9) {
+            @Override
+            public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                return MemberVisitor.this.visitAnnotation(desc, visible);
+            }
+        };
+
+        private final MethodVisitor methodVisitor = new MethodVisitor(Opcodes.ASM9) {
+            @Override
+            public AnnotationVisitor visitAnnotation(String desc, boolean visible) {
+                return MemberVisitor.this.visitAnnotation(desc, visible);
+            }
+        };
+
+        private int access;
+
+        private String name;
+
+        private String desc;
+
+        private String signature;
+
+        private boolean field;
+
+        /**
+         * The visitor of the current member, {@code null} until a relevant annotation is found.
+         */
+        private MojoParameterVisitor parameterVisitor;
+
+        /**
+         * {@code false} if the current method does not qualify as parameter setter.
+         */
+        private boolean parameterCandidate;
+
+        void visitMember(int access, String name, String desc, String signature, boolean field) {
+            this.access = access;
+            this.name = name;
+            this.desc = desc;
+            this.signature = signature;
+            this.field = field;
+            this.parameterVisitor = null;
+            this.parameterCandidate = true;
         }
 
-        return null;
+        FieldVisitor asFieldVisitor() {
+            return fieldVisitor;
+        }
+
+        MethodVisitor asMethodVisitor() {
+            return methodVisitor;
+        }
+
+        AnnotationVisitor visitAnnotation(String annotationDesc, boolean visible) {
+            Set<String> relevantAnnotations =
+                    field ? FIELD_LEVEL_ANNOTATION_DESCRIPTORS : METHOD_LEVEL_ANNOTATION_DESCRIPTORS;
+            if (!parameterCandidate || !relevantAnnotations.contains(annotationDesc)) {
+                return null;
+            }
+
+            if (parameterVisitor == null) {
+                if (field) {
+                    MojoFieldVisitor mojoFieldVisitor = new MojoFieldVisitor(
+                            name, Type.getType(desc).getClassName(), extractTypeParameters(access, signature, true));
+                    fieldVisitors.add(mojoFieldVisitor);
+                    parameterVisitor = mojoFieldVisitor;
+                } else {
+                    Type[] argumentTypes = Type.getArgumentTypes(desc);
+                    if (argumentTypes.length != 1) {
+                        parameterCandidate = false;
+                        return null;
+                    }
+                    MojoMethodVisitor mojoMethodVisitor = new MojoMethodVisitor(
+                            StringUtils.lowercaseFirstLetter(name.substring(3)),
+                            argumentTypes[0].getClassName(),
+                            extractTypeParameters(access, signature, false));
+                    methodVisitors.add(mojoMethodVisitor);
+                    parameterVisitor = mojoMethodVisitor;
+                }
+            }
+
+            return field
+                    ? ((MojoFieldVisitor) parameterVisitor).visitAnnotation(annotationDesc, visible)
+                    : ((MojoMethodVisitor) parameterVisitor).visitAnnotation(annotationDesc, visible);
+        }
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ComponentAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ExecuteAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ParameterAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.scanner.MojoAnnotatedClass;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClassHierarchyIndexTest {
+
+    @Test
+    void mergeHierarchiesOnce() {
+        Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = new HashMap<>();
+        ParameterAnnotationContent baseParameter = parameter("shared");
+        MojoAnnotatedClass base = annotatedClass(mojoAnnotatedClasses, "test.Base", "java.lang.Object")
+                .setExecute(new ExecuteAnnotationContent());
+        base.getParameters().put("shared", baseParameter);
+        base.getParameters().put("base", parameter("base"));
+        base.getComponents().put("component", new ComponentAnnotationContent("component"));
+        MojoAnnotatedClass middle = annotatedClass(mojoAnnotatedClasses, "test.Middle", "test.Base");
+        ParameterAnnotationContent hidingParameter = parameter("shared");
+        MojoAnnotatedClass mojo1 = annotatedClass(mojoAnnotatedClasses, "test.Mojo1", "test.Middle");
+        mojo1.getParameters().put("shared", hidingParameter);
+        MojoAnnotatedClass mojo2 = annotatedClass(mojoAnnotatedClasses, "test.Mojo2", "test.Middle");
+
+        ClassHierarchyIndex index = new ClassHierarchyIndex(mojoAnnotatedClasses);
+
+        assertThat(index.getAncestors(mojo1)).containsExactly(mojo1, middle, base);
+        assertThat(index.getParameters(mojo1))
+                .containsOnlyKeys("shared", "base")
+                .containsEntry("shared", hidingParameter);
+        assertThat(index.getParameters(mojo2)).containsEntry("shared", baseParameter);
+        assertThat(index.getComponents(mojo2)).containsOnlyKeys("component");
+        assertThat(index.findClassWithExecuteAnnotation(mojo2)).isSameAs(base);
+        // resolved once per class
+        assertThat(index.getParameters(middle)).isSameAs(index.getParameters(middle));
+        assertThat(index.getAncestors(mojo2).subList(1, 3)).isEqualTo(index.getAncestors(middle));
+    }
+
+    @Test
+    void stopAtClassesWhichHaveNotBeenScanned() {
+        Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = new HashMap<>();
+        MojoAnnotatedClass mojo = annotatedClass(mojoAnnotatedClasses, "test.Mojo", "test.Missing");
+
+        ClassHierarchyIndex index = new ClassHierarchyIndex(mojoAnnotatedClasses);
+
+        assertThat(index.getAncestors(mojo)).containsExactly(mojo);
+        assertThat(index.getParameters(mojo)).isEmpty();
+        assertThat(index.findClassWithExecuteAnnotation(mojo)).isNull();
+    }
+
+    private static MojoAnnotatedClass annotatedClass(
+            Map<String, MojoAnnotatedClass> mojoAnnotatedClasses, String className, String parentClassName) {
+        MojoAnnotatedClass mojoAnnotatedClass =
+                new MojoAnnotatedClass().setClassName(className).setParentClassName(parentClassName);
+        mojoAnnotatedClasses.put(className, mojoAnnotatedClass);
+        return mojoAnnotatedClass;
+    }
+
+    private static ParameterAnnotationContent parameter(String fieldName) {
+        return new ParameterAnnotationContent(fieldName, "java.lang.String", Collections.emptyList(), false);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ClassLoaderPoolTest {
+    private static final int JAR_COUNT = 20;
+
+    private static final int EXECUTION_COUNT = 50;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void shareClassLoaderBetweenLeases() throws IOException {
+        List<Artifact> artifacts = createArtifacts();
+        ClassLoaderPool pool = new ClassLoaderPool();
+
+        try (ClassLoaderPool.Lease lease1 = pool.lease()) {
+            ClassLoader classLoader = lease1.acquire(artifacts);
+            assertThat(classLoader).isNotNull();
+            // already registered by the holder of the lease
+            assertThat(lease1.acquire(artifacts)).isNull();
+
+            try (ClassLoaderPool.Lease lease2 = pool.lease()) {
+                assertThat(lease2.acquire(artifacts)).isSameAs(classLoader);
+                assertThat(lease2.acquire(artifacts.subList(1, JAR_COUNT))).isNotSameAs(classLoader);
+                assertThat(pool.size()).isEqualTo(2);
+            }
+            assertThat(pool.size()).isEqualTo(1);
+            assertThat(classLoader.getResource("resource0.txt")).isNotNull();
+        }
+        assertThat(pool.size()).isZero();
+    }
+
+    @Test
+    void closeJarFilesAfterEachExecution() throws IOException {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        assumeTrue(os instanceof UnixOperatingSystemMXBean, "open file descriptors cannot be counted");
+        List<Artifact> artifacts = createArtifacts();
+        ClassLoaderPool pool = new ClassLoaderPool();
+
+        long before = ((UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount();
+        for (int i = 0; i < EXECUTION_COUNT; i++) {
+            try (ClassLoaderPool.Lease lease = pool.lease()) {
+                ClassLoader classLoader = lease.acquire(artifacts);
+                // opens every jar file
+                try (InputStream in = classLoader.getResourceAsStream("resource" + (JAR_COUNT - 1) + ".txt")) {
+                    assertThat(in).isNotNull();
+                }
+            }
+        }
+        long after = ((UnixOperatingSystemMXBean) os).getOpenFileDescriptorCount();
+
+        assertThat(pool.size()).isZero();
+        // unclosed classloaders would keep JAR_COUNT files open per execution
+        assertThat(after - before).isLessThan(JAR_COUNT);
+    }
+
+    private List<Artifact> createArtifacts() throws IOException {
+        List<Artifact> artifacts = new ArrayList<>();
+        for (int i = 0; i < JAR_COUNT; i++) {
+            Path jar = directory.resolve("artifact" + i + ".jar");
+            try (OutputStream out = Files.newOutputStream(jar);
+                    JarOutputStream jarOut = new JarOutputStream(out)) {
+                jarOut.putNextEntry(new JarEntry("resource" + i + ".txt"));
+                jarOut.write(String.valueOf(i).getBytes(StandardCharsets.UTF_8));
+            }
+            Artifact artifact = new DefaultArtifact(
+                    "groupId", "artifact" + i, "1.0.0", null, "jar", null, new DefaultArtifactHandler("jar"));
+            artifact.setFile(jar.toFile());
+            artifacts.add(artifact);
+        }
+        return Collections.unmodifiableList(artifacts);
+    }
+}
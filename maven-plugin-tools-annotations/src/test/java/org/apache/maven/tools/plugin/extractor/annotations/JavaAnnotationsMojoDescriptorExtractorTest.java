@@ -18,11 +18,14 @@
  */
 package org.apache.maven.tools.plugin.extractor.annotations;
 
+import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.maven.artifact.Artifact;
@@ -34,6 +37,8 @@ import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.tools.plugin.DefaultPluginToolsRequest;
 import org.apache.maven.tools.plugin.extractor.ExtractionException;
+import org.apache.maven.tools.plugin.extractor.annotations.converter.JavadocBlockTagsToXhtmlConverter;
+import org.apache.maven.tools.plugin.extractor.annotations.converter.JavadocInlineTagsToXhtmlConverter;
 import org.apache.maven.tools.plugin.extractor.annotations.scanner.DefaultMojoAnnotationsScanner;
 import org.codehaus.plexus.logging.Logger;
 import org.junit.jupiter.api.Test;
@@ -41,29 +46,63 @@ import org.junit.jupiter.api.io.TempDir;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 
 class JavaAnnotationsMojoDescriptorExtractorTest {
     @TempDir
     private Path targetDir;
 
+    @TempDir
+    private Path cacheDir;
+
     MojoDescriptor extractDescriptorFromMojoClass(Class<? extends AbstractMojo> mojoClass)
             throws InvalidPluginDescriptorException, ExtractionException, IOException, URISyntaxException {
-        // copy class to an empty tmp directory
-        Path sourceClass = Paths.get(
-                mojoClass.getResource(mojoClass.getSimpleName() + ".class").toURI());
-        Files.copy(sourceClass, targetDir.resolve(sourceClass.getFileName()));
+        return extractDescriptorFromMojoClass(mojoClass, null, false);
+    }
+
+    MojoDescriptor extractDescriptorFromMojoClass(
+            Class<? extends AbstractMojo> mojoClass, String sourceRoot, boolean parseMojoSourcesOnly)
+            throws InvalidPluginDescriptorException, ExtractionException, IOException, URISyntaxException {
+        return extractDescriptorFromMojoClass(newExtractor(), mojoClass, sourceRoot, parseMojoSourcesOnly, null);
+    }
+
+    JavaAnnotationsMojoDescriptorExtractor newExtractor() {
         JavaAnnotationsMojoDescriptorExtractor mojoDescriptorExtractor = new JavaAnnotationsMojoDescriptorExtractor();
+        mojoDescriptorExtractor.enableLogging(mock(Logger.class));
         DefaultMojoAnnotationsScanner scanner = new DefaultMojoAnnotationsScanner();
         scanner.enableLogging(mock(Logger.class));
         mojoDescriptorExtractor.mojoAnnotationsScanner = scanner;
+        mojoDescriptorExtractor.javadocInlineTagsToHtmlConverter =
+                new JavadocInlineTagsToXhtmlConverter(Collections.emptyMap());
+        mojoDescriptorExtractor.javadocBlockTagsToHtmlConverter = new JavadocBlockTagsToXhtmlConverter(
+                mojoDescriptorExtractor.javadocInlineTagsToHtmlConverter, Collections.emptyMap());
+        return mojoDescriptorExtractor;
+    }
+
+    MojoDescriptor extractDescriptorFromMojoClass(
+            JavaAnnotationsMojoDescriptorExtractor mojoDescriptorExtractor,
+            Class<? extends AbstractMojo> mojoClass,
+            String sourceRoot,
+            boolean parseMojoSourcesOnly,
+            File javadocCacheDirectory)
+            throws InvalidPluginDescriptorException, ExtractionException, IOException, URISyntaxException {
+        // copy class to an empty tmp directory
+        Path sourceClass = Paths.get(
+                mojoClass.getResource(mojoClass.getSimpleName() + ".class").toURI());
+        Files.copy(sourceClass, targetDir.resolve(sourceClass.getFileName()), StandardCopyOption.REPLACE_EXISTING);
         PluginDescriptor pluginDescriptor = new PluginDescriptor();
         MavenProject mavenProject = new MavenProject();
         Artifact artifact = new DefaultArtifact("groupId", "artifactId", "1.0.0", null, "jar", "classifier", null);
         mavenProject.setArtifact(artifact);
         mavenProject.getBuild().setOutputDirectory(targetDir.toString());
-        List<MojoDescriptor> mojoDescriptors =
-                mojoDescriptorExtractor.execute(new DefaultPluginToolsRequest(mavenProject, pluginDescriptor));
+        if (sourceRoot != null) {
+            mavenProject.addCompileSourceRoot(sourceRoot);
+        }
+        DefaultPluginToolsRequest request = new DefaultPluginToolsRequest(mavenProject, pluginDescriptor);
+        request.setParseMojoSourcesOnly(parseMojoSourcesOnly);
+        request.setJavadocCacheDirectory(javadocCacheDirectory);
+        List<MojoDescriptor> mojoDescriptors = mojoDescriptorExtractor.execute(request);
         assertEquals(1, mojoDescriptors.size());
         // there should be only one mojo contained in the one class
         return mojoDescriptors.get(0);
@@ -92,4 +131,48 @@ class JavaAnnotationsMojoDescriptorExtractorTest {
         // two conflicting phase ids set
         assertThrows(InvalidPluginDescriptorException.class, () -> extractDescriptorFromMojoClass(Execute2Mojo.class));
     }
+
+    @Test
+    void parseMojoSourcesOnly()
+            throws InvalidPluginDescriptorException, ExtractionException, IOException, URISyntaxException {
+        String sourceRoot = Paths.get("src/test/java").toAbsolutePath().toString();
+        MojoDescriptor full = extractDescriptorFromMojoClass(FooMojo.class, sourceRoot, false);
+        MojoDescriptor targeted = extractDescriptorFromMojoClass(FooMojo.class, sourceRoot, true);
+
+        assertEquals("the cool bar to go", targeted.getParameterMap().get("bar").getDescription());
+        assertEquals("1.0", targeted.getParameterMap().get("bar").getSince());
+        assertEquals("wine is better", targeted.getParameterMap().get("beer").getDeprecated());
+        assertEquals(full.getDescription(), targeted.getDescription());
+        for (String parameter : full.getParameterMap().keySet()) {
+            assertEquals(
+                    full.getParameterMap().get(parameter).getDescription(),
+                    targeted.getParameterMap().get(parameter).getDescription());
+        }
+    }
+
+    @Test
+    void javadocCache() throws InvalidPluginDescriptorException, ExtractionException, IOException, URISyntaxException {
+        String sourceRoot = Paths.get("src/test/java").toAbsolutePath().toString();
+        File javadocCacheDirectory = cacheDir.toFile();
+        MojoDescriptor extracted =
+                extractDescriptorFromMojoClass(newExtractor(), FooMojo.class, sourceRoot, true, javadocCacheDirectory);
+        assertTrue(Files.isRegularFile(cacheDir.resolve("javadoc.cache")));
+
+        // sources are neither parsed nor converted again
+        JavaAnnotationsMojoDescriptorExtractor mojoDescriptorExtractor = newExtractor();
+        mojoDescriptorExtractor.javadocInlineTagsToHtmlConverter = null;
+        mojoDescriptorExtractor.javadocBlockTagsToHtmlConverter = null;
+        MojoDescriptor cached = extractDescriptorFromMojoClass(
+                mojoDescriptorExtractor, FooMojo.class, sourceRoot, true, javadocCacheDirectory);
+
+        assertEquals(extracted.getDescription(), cached.getDescription());
+        assertEquals("the cool bar to go", cached.getParameterMap().get("bar").getDescription());
+        assertEquals("1.0", cached.getParameterMap().get("bar").getSince());
+        assertEquals("wine is better", cached.getParameterMap().get("beer").getDeprecated());
+        for (String parameter : extracted.getParameterMap().keySet()) {
+            assertEquals(
+                    extracted.getParameterMap().get(parameter).getDescription(),
+                    cached.getParameterMap().get(parameter).getDescription());
+        }
+    }
 }
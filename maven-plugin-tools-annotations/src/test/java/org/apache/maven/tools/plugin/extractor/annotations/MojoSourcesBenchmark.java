@@ -0,0 +1,187 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+import org.apache.maven.tools.plugin.extractor.ExtractionException;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.MojoAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.scanner.MojoAnnotatedClass;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures {@link MojoSources#parse} with different thread counts, for mojos sharing a deep hierarchy and for
+ * independent mojos. Not part of the regular test run, execute it with
+ * <pre>
+ * mvn test -pl maven-plugin-tools-annotations -Dtest=MojoSourcesBenchmark [-Dbenchmark.mojos=500]
+ * </pre>
+ */
+class MojoSourcesBenchmark {
+    private static final Logger LOG = LoggerFactory.getLogger(MojoSourcesBenchmark.class);
+
+    private static final int MOJO_COUNT = Integer.getInteger("benchmark.mojos", 500);
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4};
+
+    private static final int WARMUP_RUNS = 3;
+
+    private static final int RUNS = 10;
+
+    private static final int SHARED_DEPTH = 5;
+
+    private static final int FIELDS = 20;
+
+    @TempDir
+    private Path sourceFolder;
+
+    @Test
+    void sharedHierarchy() throws IOException, ExtractionException {
+        benchmark("shared hierarchy", writeSources(MOJO_COUNT, true));
+    }
+
+    @Test
+    void independentHierarchies() throws IOException, ExtractionException {
+        benchmark("independent hierarchies", writeSources(MOJO_COUNT, false));
+    }
+
+    private void benchmark(String scenario, Map<String, MojoAnnotatedClass> mojoAnnotatedClasses)
+            throws ExtractionException {
+        for (int threadCount : THREAD_COUNTS) {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                parse(mojoAnnotatedClasses, threadCount);
+            }
+            long[] times = new long[RUNS];
+            for (int i = 0; i < RUNS; i++) {
+                long start = System.nanoTime();
+                parse(mojoAnnotatedClasses, threadCount);
+                times[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(times);
+            LOG.info(
+                    "{}, {} classes, {} thread(s): median {} ms, min {} ms, max {} ms",
+                    scenario,
+                    mojoAnnotatedClasses.size(),
+                    threadCount,
+                    TimeUnit.NANOSECONDS.toMillis(times[RUNS / 2]),
+                    TimeUnit.NANOSECONDS.toMillis(times[0]),
+                    TimeUnit.NANOSECONDS.toMillis(times[RUNS - 1]));
+        }
+    }
+
+    private void parse(Map<String, MojoAnnotatedClass> mojoAnnotatedClasses, int threadCount)
+            throws ExtractionException {
+        try (MojoSources mojoSources = new MojoSources("UTF-8", mock(org.codehaus.plexus.logging.Logger.class))) {
+            JavaProjectBuilder builder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+            mojoSources.addClassLoader(builder, getClass().getClassLoader());
+            mojoSources.addSourceFolder(builder, sourceFolder.toFile());
+            Map<String, JavaClass> javaClasses = mojoSources.parse(
+                    builder, mojoAnnotatedClasses, threadCount, MojoSourcesBenchmark::discoverClasses);
+            assertThat(javaClasses).hasSameSizeAs(mojoAnnotatedClasses);
+        }
+    }
+
+    private static Map<String, JavaClass> discoverClasses(JavaProjectBuilder builder) {
+        Map<String, JavaClass> javaClasses = new HashMap<>();
+        for (JavaClass javaClass : builder.getClasses()) {
+            javaClasses.put(javaClass.getFullyQualifiedName(), javaClass);
+        }
+        return javaClasses;
+    }
+
+    /**
+     * Writes {@code mojoCount} mojos either all extending the same chain of {@value #SHARED_DEPTH} abstract mojos,
+     * or each extending its own abstract mojo.
+     */
+    private Map<String, MojoAnnotatedClass> writeSources(int mojoCount, boolean shared) throws IOException {
+        Path packageDirectory = Files.createDirectories(sourceFolder.resolve("bench"));
+        Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = new HashMap<>();
+
+        String sharedParent = null;
+        if (shared) {
+            for (int depth = 0; depth < SHARED_DEPTH; depth++) {
+                String name = "AbstractLevel" + depth + "Mojo";
+                write(packageDirectory, name, sharedParent, "abstract ");
+                mojoAnnotatedClasses.put("bench." + name, annotatedClass("bench." + name, sharedParent));
+                sharedParent = "bench." + name;
+            }
+        }
+
+        for (int i = 0; i < mojoCount; i++) {
+            String parent = sharedParent;
+            if (!shared) {
+                String parentName = "AbstractGoal" + i + "Mojo";
+                write(packageDirectory, parentName, null, "abstract ");
+                mojoAnnotatedClasses.put("bench." + parentName, annotatedClass("bench." + parentName, null));
+                parent = "bench." + parentName;
+            }
+            String name = "Goal" + i + "Mojo";
+            write(packageDirectory, name, parent, "");
+            mojoAnnotatedClasses.put("bench." + name, annotatedClass("bench." + name, parent));
+        }
+        return mojoAnnotatedClasses;
+    }
+
+    private static void write(Path packageDirectory, String className, String parentClassName, String modifier)
+            throws IOException {
+        StringBuilder source = new StringBuilder("package bench;\n\n");
+        source.append("/**\n * The ").append(className).append(" mojo.\n *\n * @since 1.0\n */\n");
+        source.append("public ").append(modifier).append("class ").append(className);
+        if (parentClassName != null) {
+            source.append(" extends ").append(parentClassName);
+        }
+        source.append(" {\n");
+        for (int i = 0; i < FIELDS; i++) {
+            source.append("    /**\n     * Parameter ")
+                    .append(i)
+                    .append(" of {@link ")
+                    .append(className)
+                    .append("}.\n     */\n    private String ")
+                    .append(Character.toLowerCase(className.charAt(0)))
+                    .append(className.substring(1))
+                    .append(i)
+                    .append(";\n\n");
+        }
+        source.append("}\n");
+        Files.write(
+                packageDirectory.resolve(className + ".java"), source.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MojoAnnotatedClass annotatedClass(String className, String parentClassName) {
+        return new MojoAnnotatedClass()
+                .setClassName(className)
+                .setParentClassName(parentClassName)
+                .setMojo(new MojoAnnotationContent());
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+import com.thoughtworks.qdox.model.JavaClass;
+import org.apache.maven.tools.plugin.extractor.ExtractionException;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.MojoAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.scanner.MojoAnnotatedClass;
+import org.codehaus.plexus.logging.Logger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class MojoSourcesTest {
+    private static final int MOJO_COUNT = 40;
+
+    @TempDir
+    private Path sourceFolder;
+
+    @Test
+    void parseInPartitionsLikeSequentially() throws IOException, ExtractionException {
+        Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = writeSources();
+
+        Map<String, JavaClass> sequential = parse(mojoAnnotatedClasses, 1).javaClasses;
+        Parsed parallel = parse(mojoAnnotatedClasses, 4);
+
+        assertThat(parallel.javaClasses).hasSize(MOJO_COUNT + 2).containsOnlyKeys(sequential.keySet());
+        for (JavaClass expected : sequential.values()) {
+            JavaClass actual = parallel.javaClasses.get(expected.getFullyQualifiedName());
+            assertThat(actual.getComment()).isEqualTo(expected.getComment());
+            assertThat(actual.getFields()).hasSameSizeAs(expected.getFields());
+            // hierarchies are resolved from sources within the partition
+            JavaClass superClass = actual.getSuperJavaClass();
+            assertThat(superClass.getComment())
+                    .isEqualTo(expected.getSuperJavaClass().getComment());
+            // references are resolved on demand
+            JavaProjectBuilder builder = parallel.mojoSources.getBuilder(actual, null);
+            assertThat(builder).isNotNull();
+            assertThat(builder.getClassByName("test.Helper").getComment()).isEqualTo("A helper.");
+        }
+    }
+
+    private Parsed parse(Map<String, MojoAnnotatedClass> mojoAnnotatedClasses, int threadCount)
+            throws ExtractionException {
+        try (MojoSources mojoSources = new MojoSources("UTF-8", mock(Logger.class))) {
+            JavaProjectBuilder builder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+            mojoSources.addClassLoader(builder, getClass().getClassLoader());
+            mojoSources.addSourceFolder(builder, sourceFolder.toFile());
+            Map<String, JavaClass> javaClasses =
+                    mojoSources.parse(builder, mojoAnnotatedClasses, threadCount, MojoSourcesTest::discoverClasses);
+            return new Parsed(mojoSources, javaClasses);
+        }
+    }
+
+    private static Map<String, JavaClass> discoverClasses(JavaProjectBuilder builder) {
+        Map<String, JavaClass> javaClasses = new HashMap<>();
+        for (JavaClass javaClass : builder.getClasses()) {
+            javaClasses.put(javaClass.getFullyQualifiedName(), javaClass);
+        }
+        return javaClasses;
+    }
+
+    private Map<String, MojoAnnotatedClass> writeSources() throws IOException {
+        Path packageDirectory = Files.createDirectories(sourceFolder.resolve("test"));
+        Map<String, MojoAnnotatedClass> mojoAnnotatedClasses = new HashMap<>();
+
+        write(packageDirectory, "Helper", "/** A helper. */ public class Helper {}");
+        write(
+                packageDirectory,
+                "AbstractBaseMojo",
+                "/** The base. @since 1.0 */ public abstract class AbstractBaseMojo {"
+                        + " /** The base parameter. */ protected String base; }");
+        mojoAnnotatedClasses.put("test.AbstractBaseMojo", annotatedClass("test.AbstractBaseMojo", null));
+        write(
+                packageDirectory,
+                "AbstractMiddleMojo",
+                "/** The middle. */ public abstract class AbstractMiddleMojo extends AbstractBaseMojo {"
+                        + " /** The middle parameter. */ protected String middle; }");
+        mojoAnnotatedClasses.put(
+                "test.AbstractMiddleMojo", annotatedClass("test.AbstractMiddleMojo", "test.AbstractBaseMojo"));
+
+        for (int i = 0; i < MOJO_COUNT; i++) {
+            String name = "Goal" + i + "Mojo";
+            write(
+                    packageDirectory,
+                    name,
+                    "/** Goal " + i + ", see {@link Helper}. */ public class " + name
+                            + " extends AbstractMiddleMojo { /** Parameter " + i + ". */ private String p" + i
+                            + "; }");
+            mojoAnnotatedClasses.put("test." + name, annotatedClass("test." + name, "test.AbstractMiddleMojo"));
+        }
+        return mojoAnnotatedClasses;
+    }
+
+    private static void write(Path packageDirectory, String className, String body) throws IOException {
+        Files.write(
+                packageDirectory.resolve(className + ".java"),
+                ("package test;\n\n" + body + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MojoAnnotatedClass annotatedClass(String className, String parentClassName) {
+        return new MojoAnnotatedClass()
+                .setClassName(className)
+                .setParentClassName(parentClassName)
+                .setMojo(new MojoAnnotationContent());
+    }
+
+    private static final class Parsed {
+        private final MojoSources mojoSources;
+
+        private final Map<String, JavaClass> javaClasses;
+
+        Parsed(MojoSources mojoSources, Map<String, JavaClass> javaClasses) {
+            this.mojoSources = mojoSources;
+            this.javaClasses = javaClasses;
+        }
+    }
+}
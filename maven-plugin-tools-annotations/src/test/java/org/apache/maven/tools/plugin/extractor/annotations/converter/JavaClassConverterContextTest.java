@@ -290,6 +290,33 @@ class JavaClassConverterContextTest {
                 context.getLocation());
     }
 
+    @Test
+    void testResolutionCache() {
+        ReferenceResolutionCache resolutionCache = new ReferenceResolutionCache();
+        for (int i = 0; i < 3; i++) {
+            ConverterContext cachingContext = new JavaClassConverterContext(
+                    contextClass, contextClass, builder, Collections.emptyMap(), linkGenerator, 10, resolutionCache);
+            assertEquals(
+                    new FullyQualifiedJavadocReference("java.lang", "String", true),
+                    cachingContext.resolveReference(JavadocReference.parse("String")));
+            assertEquals(
+                    new FullyQualifiedJavadocReference(
+                            currentPackageName, "SuperClass", "superField1", MemberType.FIELD, false),
+                    cachingContext.resolveReference(JavadocReference.parse("#superField1")));
+            // unresolvable references are cached as well
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> cachingContext.resolveReference(JavadocReference.parse("InvalidClass")));
+            assertTrue(cachingContext.isReferencedBy(
+                    new FullyQualifiedJavadocReference(currentPackageName, "SuperClass", false)));
+            assertFalse(cachingContext.isReferencedBy(
+                    new FullyQualifiedJavadocReference(currentPackageName, "OtherClass", false)));
+        }
+        // 3 references and the hierarchy of the class
+        assertEquals(4, resolutionCache.getMisses());
+        assertEquals(3 * 5 - 4, resolutionCache.getHits());
+    }
+
     @Test
     void testGetStaticFieldValue() {
         assertEquals(
@@ -78,6 +78,17 @@ class JavadocInlineTagsToXhtmlConverterTest {
         assertEquals("<code>test</code>", converter.convert(test, context));
     }
 
+    @Test
+    void testNestedBraces() {
+        String test = "{@code Map<String, {a, {b}}>} and {@code {}}";
+        assertEquals("<code>Map&lt;String, {a, {b}}&gt;</code> and <code>{}</code>", converter.convert(test, context));
+
+        // intentional change: the unbalanced brace leaves the code tag unclosed, so it is kept as text instead of
+        // being converted up to the first closing brace to "<code>{text</code>"
+        test = "Unclosed {@code {text} and {@literal text}";
+        assertEquals("Unclosed {@code {text} and text", converter.convert(test, context));
+    }
+
     @Test
     void testLiteral() {
         String test = "{@literal text}";
@@ -188,6 +199,23 @@ class JavadocInlineTagsToXhtmlConverterTest {
                 converter.convert(test, context));
     }
 
+    @Test
+    void testToXhtml() {
+        // the output of Jsoup's pretty printed XML serialization is pinned here: XhtmlSnippetNormalizer has to produce
+        // the same for the snippets it handles, so a Jsoup upgrade changing it must be noticed
+        assertEquals(
+                "text <b>bold</b> &amp; <code>a &lt; b</code>",
+                JavadocInlineTagsToXhtmlConverter.toXHTML("text <b>bold</b> &amp; <code>a &lt; b</code>"));
+        assertEquals(
+                "<p>first</p>\n<p>second</p>", JavadocInlineTagsToXhtmlConverter.toXHTML("<p>first</p><p>second</p>"));
+        assertEquals(
+                "<ul>\n <li>one</li>\n <li>two</li>\n</ul>",
+                JavadocInlineTagsToXhtmlConverter.toXHTML("<ul><li>one</li><li>two</li></ul>"));
+        assertEquals("<b>unclosed</b>", JavadocInlineTagsToXhtmlConverter.toXHTML("<b>unclosed"));
+        assertEquals("a&#xa0;b", JavadocInlineTagsToXhtmlConverter.toXHTML("a&nbsp;b"));
+        assertEquals("<pre>  keep\n</pre>", JavadocInlineTagsToXhtmlConverter.toXHTML("<pre>\n  keep\n</pre>"));
+    }
+
     @Test
     void testUnknownTag() {
         String test = "{@unknown text}";
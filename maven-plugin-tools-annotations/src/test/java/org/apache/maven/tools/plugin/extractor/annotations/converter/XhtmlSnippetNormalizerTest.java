@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations.converter;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.thoughtworks.qdox.JavaProjectBuilder;
+import com.thoughtworks.qdox.library.SortedClassLibraryBuilder;
+import com.thoughtworks.qdox.model.JavaAnnotatedElement;
+import com.thoughtworks.qdox.model.JavaClass;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class XhtmlSnippetNormalizerTest {
+
+    @Test
+    void normalizeInlineMarkup() {
+        assertThat(XhtmlSnippetNormalizer.normalize("  Some\n\t<CODE>a  &lt;b&gt;</CODE> &amp; text \n"))
+                .isEqualTo("Some <code>a &lt;b&gt;</code> &amp; text");
+        assertThat(XhtmlSnippetNormalizer.normalize("<a HREF='https://example.com/a#b'><code>b</code></a>"))
+                .isEqualTo("<a href=\"https://example.com/a#b\"><code>b</code></a>");
+        assertThat(XhtmlSnippetNormalizer.normalize("a < b & c")).isEqualTo("a &lt; b &amp; c");
+    }
+
+    @Test
+    void leaveOtherMarkupToJsoup() {
+        assertThat(XhtmlSnippetNormalizer.normalize("<p>block</p>")).isNull();
+        assertThat(XhtmlSnippetNormalizer.normalize("<b>unclosed")).isNull();
+        assertThat(XhtmlSnippetNormalizer.normalize("<b><i>misnested</b></i>")).isNull();
+        assertThat(XhtmlSnippetNormalizer.normalize("stray</b>")).isNull();
+        assertThat(XhtmlSnippetNormalizer.normalize("text<!-- comment -->")).isNull();
+        assertThat(XhtmlSnippetNormalizer.normalize("a&nbsp;b")).isNull();
+        assertThat(XhtmlSnippetNormalizer.normalize("<a href=unquoted>a</a>")).isNull();
+    }
+
+    @Test
+    void sameOutputAsJsoup() {
+        List<String> snippets = new ArrayList<>(Arrays.asList(
+                "",
+                " ",
+                "text",
+                " leading and trailing ",
+                "<b> bold </b>",
+                " <b>bold</b> ",
+                "text <b>bold</b> ",
+                "<b>bold</b> text",
+                "<b>bold</b> <i>italic</i>",
+                "a <code>\n  indented\n  </code> b",
+                "quotes \" and ' stay",
+                "non ascii é€",
+                "1 < 2 and 3 <= 4",
+                "a & b",
+                "&lt;&gt;&amp;&quot;",
+                "<span class=\"x\" id='y'>s</span>",
+                "<a href=\"#anchor\" title=\"t\">link</a>"));
+        JavaProjectBuilder builder = new JavaProjectBuilder(new SortedClassLibraryBuilder());
+        builder.addSourceTree(new File("src/main/java"));
+        builder.addSourceTree(new File("../maven-plugin-tools-api/src/main/java"));
+        for (JavaClass javaClass : builder.getClasses()) {
+            addComment(snippets, javaClass);
+            javaClass.getFields().forEach(field -> addComment(snippets, field));
+            javaClass.getMethods().forEach(method -> addComment(snippets, method));
+        }
+
+        int normalized = 0;
+        for (String snippet : snippets) {
+            String xhtml = XhtmlSnippetNormalizer.normalize(snippet);
+            if (xhtml != null) {
+                assertThat(xhtml).as(snippet).isEqualTo(jsoup(snippet));
+                normalized++;
+            }
+        }
+        // most javadoc does not need Jsoup
+        assertThat(normalized).isGreaterThan(snippets.size() / 2);
+    }
+
+    private static void addComment(List<String> snippets, JavaAnnotatedElement element) {
+        if (element.getComment() != null) {
+            snippets.add(element.getComment());
+        }
+    }
+
+    private static String jsoup(String snippet) {
+        Document document = Jsoup.parse("<html><head></head><body>" + snippet + "</body>");
+        document.outputSettings().syntax(Document.OutputSettings.Syntax.xml);
+        return document.body().html();
+    }
+}
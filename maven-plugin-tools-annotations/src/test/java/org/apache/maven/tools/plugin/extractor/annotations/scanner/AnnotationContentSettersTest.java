@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations.scanner;
+
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ExecuteAnnotationContent;
+import org.apache.maven.tools.plugin.extractor.annotations.datamodel.MojoAnnotationContent;
+import org.codehaus.plexus.util.reflection.ReflectorException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AnnotationContentSettersTest {
+    @Test
+    void setAttributes() throws Exception {
+        MojoAnnotationContent mojo = new MojoAnnotationContent();
+        AnnotationContentSetters.set(mojo, "name", "foo");
+        AnnotationContentSetters.set(mojo, "threadSafe", Boolean.TRUE);
+        AnnotationContentSetters.set(mojo, "defaultPhase", "COMPILE");
+
+        assertThat(mojo.name()).isEqualTo("foo");
+        assertThat(mojo.threadSafe()).isTrue();
+        assertThat(mojo.defaultPhase()).isEqualTo(LifecyclePhase.COMPILE);
+    }
+
+    @Test
+    void unknownAttribute() {
+        assertThatThrownBy(() -> AnnotationContentSetters.set(new ExecuteAnnotationContent(), "unknown", "value"))
+                .isInstanceOf(ReflectorException.class)
+                .hasMessageContaining("unknown");
+    }
+
+    @Test
+    void wrongValueType() {
+        assertThatThrownBy(() -> AnnotationContentSetters.set(new MojoAnnotationContent(), "threadSafe", "yes"))
+                .isInstanceOf(ReflectorException.class);
+    }
+}
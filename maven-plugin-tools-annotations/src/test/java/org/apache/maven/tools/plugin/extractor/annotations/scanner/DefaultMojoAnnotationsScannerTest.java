@@ -18,14 +18,35 @@
  */
 package org.apache.maven.tools.plugin.extractor.annotations.scanner;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
 import org.apache.maven.plugins.annotations.Execute;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -35,10 +56,13 @@ import org.apache.maven.tools.plugin.extractor.annotations.AbstractFooMojo;
 import org.apache.maven.tools.plugin.extractor.annotations.DeprecatedMojo;
 import org.apache.maven.tools.plugin.extractor.annotations.FooMojo;
 import org.apache.maven.tools.plugin.extractor.annotations.ParametersWithGenericsMojo;
+import org.apache.maven.tools.plugin.extractor.annotations.converter.test.CurrentClass;
+import org.apache.maven.tools.plugin.extractor.annotations.converter.test.SuperClass;
 import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ComponentAnnotationContent;
 import org.apache.maven.tools.plugin.extractor.annotations.datamodel.ParameterAnnotationContent;
 import org.codehaus.plexus.logging.Logger;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.codehaus.plexus.testing.PlexusExtension.getBasedir;
@@ -140,6 +164,29 @@ class DefaultMojoAnnotationsScannerTest {
                 .containsExactly("java.lang.String", "java.util.List<java.lang.String>");
     }
 
+    @Test
+    void scanClassWithoutMojoAnnotations() throws ExtractionException, IOException {
+        File directoryToScan = new File(CurrentClass.class.getResource("").getFile());
+
+        scanner.enableLogging(mock(Logger.class));
+        Map<String, MojoAnnotatedClass> result =
+                scanner.scanDirectory(directoryToScan, Collections.singletonList("CurrentClass.class"), null, false);
+
+        assertThat(result).hasSize(1);
+
+        MojoAnnotatedClass annotatedClass = result.get(CurrentClass.class.getName());
+        assertThat(annotatedClass.hasAnnotations()).isFalse();
+        assertThat(annotatedClass.getParentClassName()).isEqualTo(SuperClass.class.getName());
+        assertThat(annotatedClass.getClassVersion())
+                .isEqualTo(scanner.scanDirectory(
+                                new File(FooMojo.class.getResource("").getFile()),
+                                Collections.singletonList("FooMojo.class"),
+                                null,
+                                false)
+                        .get(FooMojo.class.getName())
+                        .getClassVersion());
+    }
+
     @Test
     void scanFooMojoClass() throws Exception {
         MojoAnnotationsScannerRequest request = new MojoAnnotationsScannerRequest();
@@ -235,4 +282,300 @@ class DefaultMojoAnnotationsScannerTest {
                                 Collections.singletonList("java.lang.String"),
                                 true));
     }
+
+    @Test
+    void scanParallelKeepsSourceOrder() throws Exception {
+        File classesDirectory = new File(getBasedir(), "target/test-classes");
+        Artifact dependency = new DefaultArtifact(
+                "groupId", "dependency", "1.0.0", null, "jar", null, new DefaultArtifactHandler("jar"));
+        dependency.setFile(classesDirectory);
+        Artifact projectArtifact = new DefaultArtifact(
+                "groupId", "project", "1.0.0", null, "jar", null, new DefaultArtifactHandler("jar"));
+        MavenProject project = new MavenProject();
+        project.setArtifact(projectArtifact);
+
+        scanner.enableLogging(mock(Logger.class));
+        Map<String, MojoAnnotatedClass> sequential = scanner.scan(newRequest(dependency, project, classesDirectory, 1));
+        Map<String, MojoAnnotatedClass> parallel = scanner.scan(newRequest(dependency, project, classesDirectory, 4));
+
+        assertThat(parallel).containsOnlyKeys(sequential.keySet());
+        // classes directory is scanned after the dependencies, so its classes win
+        MojoAnnotatedClass fooMojo = parallel.get(FooMojo.class.getName());
+        assertThat(fooMojo.getArtifact()).isSameAs(projectArtifact);
+        assertThat(fooMojo.getMojo()).isNotNull();
+        assertThat(fooMojo.getParameters())
+                .hasSameSizeAs(sequential.get(FooMojo.class.getName()).getParameters());
+    }
+
+    private static MojoAnnotationsScannerRequest newRequest(
+            Artifact dependency, MavenProject project, File classesDirectory, int threadCount) {
+        MojoAnnotationsScannerRequest request = new MojoAnnotationsScannerRequest();
+        request.setDependencies(Collections.singleton(dependency));
+        request.setClassesDirectories(Collections.singletonList(classesDirectory));
+        request.setProject(project);
+        request.setThreadCount(threadCount);
+        return request;
+    }
+
+    @Test
+    void scanDependenciesOnDemand(@TempDir Path tempDirectory) throws Exception {
+        File testClasses = new File(getBasedir(), "target/test-classes");
+        String fooMojo = FooMojo.class.getName().replace('.', '/') + ".class";
+        String abstractFooMojo = AbstractFooMojo.class.getName().replace('.', '/') + ".class";
+        String deprecatedMojo = DeprecatedMojo.class.getName().replace('.', '/') + ".class";
+
+        Path classesDirectory = tempDirectory.resolve("classes");
+        Path mojoClass = classesDirectory.resolve(fooMojo);
+        Files.createDirectories(mojoClass.getParent());
+        Files.copy(new File(testClasses, fooMojo).toPath(), mojoClass);
+
+        File archive = tempDirectory.resolve("dependency.jar").toFile();
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (String classFile : Arrays.asList(abstractFooMojo, deprecatedMojo)) {
+                zos.putNextEntry(new ZipEntry(classFile));
+                zos.write(Files.readAllBytes(new File(testClasses, classFile).toPath()));
+                zos.closeEntry();
+            }
+        }
+
+        Artifact dependency = new DefaultArtifact(
+                "groupId", "dependency", "1.0.0", null, "jar", null, new DefaultArtifactHandler("jar"));
+        dependency.setFile(archive);
+        MavenProject project = new MavenProject();
+        project.setArtifact(new DefaultArtifact(
+                "groupId", "project", "1.0.0", null, "jar", null, new DefaultArtifactHandler("jar")));
+
+        MojoAnnotationsScannerRequest request = newRequest(dependency, project, classesDirectory.toFile(), 1);
+        request.setDependenciesOnDemand(true);
+
+        scanner.enableLogging(mock(Logger.class));
+        Map<String, MojoAnnotatedClass> result = scanner.scan(request);
+
+        // unrelated dependency classes are not scanned
+        assertThat(result).containsOnlyKeys(FooMojo.class.getName(), AbstractFooMojo.class.getName());
+        MojoAnnotatedClass parent = result.get(AbstractFooMojo.class.getName());
+        assertThat(parent.getArtifact()).isSameAs(dependency);
+        // Mojo annotations of dependencies are excluded, as in a full scan
+        assertThat(parent.getMojo()).isNull();
+
+        // a later dependency directory overrides the classes of an earlier dependency archive, as in a full scan
+        Path dependencyDirectory = tempDirectory.resolve("dependency-classes");
+        Files.createDirectories(dependencyDirectory.resolve(abstractFooMojo).getParent());
+        Files.copy(new File(testClasses, abstractFooMojo).toPath(), dependencyDirectory.resolve(abstractFooMojo));
+        Artifact directoryDependency = new DefaultArtifact(
+                "groupId", "dependency-classes", "1.0.0", null, "jar", null, new DefaultArtifactHandler("jar"));
+        directoryDependency.setFile(dependencyDirectory.toFile());
+        request.setDependencies(new LinkedHashSet<>(Arrays.asList(dependency, directoryDependency)));
+
+        assertThat(scanner.scan(request).get(AbstractFooMojo.class.getName()).getArtifact())
+                .isSameAs(directoryDependency);
+        request.setDependenciesOnDemand(false);
+        assertThat(scanner.scan(request).get(AbstractFooMojo.class.getName()).getArtifact())
+                .isSameAs(directoryDependency);
+    }
+
+    @Test
+    void scanClassesDirectoryIncrementally(@TempDir Path tempDirectory) throws Exception {
+        File testClasses = new File(getBasedir(), "target/test-classes");
+        String fooMojo = FooMojo.class.getName().replace('.', '/') + ".class";
+        String abstractFooMojo = AbstractFooMojo.class.getName().replace('.', '/') + ".class";
+        String deprecatedMojo = DeprecatedMojo.class.getName().replace('.', '/') + ".class";
+
+        Path classesDirectory = tempDirectory.resolve("classes");
+        Path fooMojoClass = classesDirectory.resolve(fooMojo);
+        Path abstractFooMojoClass = classesDirectory.resolve(abstractFooMojo);
+        Files.createDirectories(fooMojoClass.getParent());
+        Files.copy(new File(testClasses, fooMojo).toPath(), fooMojoClass);
+        Files.copy(new File(testClasses, abstractFooMojo).toPath(), abstractFooMojoClass);
+
+        MavenProject project = new MavenProject();
+        project.setArtifact(new DefaultArtifact(
+                "groupId", "project", "1.0.0", null, "jar", null, new DefaultArtifactHandler("jar")));
+        MojoAnnotationsScannerRequest request = new MojoAnnotationsScannerRequest();
+        request.setClassesDirectories(Collections.singletonList(classesDirectory.toFile()));
+        request.setProject(project);
+        request.setStateDirectory(tempDirectory.resolve("state").toFile());
+
+        scanner.enableLogging(mock(Logger.class));
+        assertThat(scanner.scan(request)).containsOnlyKeys(FooMojo.class.getName(), AbstractFooMojo.class.getName());
+
+        // deleted classes are evicted
+        Files.delete(abstractFooMojoClass);
+        assertThat(scanner.scan(request)).containsOnlyKeys(FooMojo.class.getName());
+
+        // unchanged size and modification time, the previous result is used without reading the class file
+        FileTime lastModified = Files.getLastModifiedTime(fooMojoClass);
+        Files.write(fooMojoClass, new byte[(int) Files.size(fooMojoClass)]);
+        Files.setLastModifiedTime(fooMojoClass, lastModified);
+        Map<String, MojoAnnotatedClass> result = scanner.scan(request);
+        assertThat(result).containsOnlyKeys(FooMojo.class.getName());
+        assertThat(result.get(FooMojo.class.getName()).getMojo()).isNotNull();
+        assertThat(result.get(FooMojo.class.getName()).getArtifact()).isSameAs(project.getArtifact());
+
+        // changed class files are analyzed again
+        Files.copy(new File(testClasses, deprecatedMojo).toPath(), fooMojoClass, StandardCopyOption.REPLACE_EXISTING);
+        assertThat(scanner.scan(request)).containsOnlyKeys(DeprecatedMojo.class.getName());
+    }
+
+    @Test
+    void scanArchiveWithIndex(@TempDir Path tempDirectory) throws Exception {
+        File testClasses = new File(getBasedir(), "target/test-classes");
+        String fooMojo = FooMojo.class.getName().replace('.', '/') + ".class";
+        String abstractFooMojo = AbstractFooMojo.class.getName().replace('.', '/') + ".class";
+        String deprecatedMojo = DeprecatedMojo.class.getName().replace('.', '/') + ".class";
+
+        Path classesDirectory = tempDirectory.resolve("classes");
+        Files.createDirectories(classesDirectory.resolve(fooMojo).getParent());
+        for (String classFile : Arrays.asList(fooMojo, abstractFooMojo)) {
+            Files.copy(new File(testClasses, classFile).toPath(), classesDirectory.resolve(classFile));
+        }
+
+        MavenProject project = new MavenProject();
+        project.setArtifact(new DefaultArtifact(
+                "groupId", "project", "1.0.0", null, "jar", null, new DefaultArtifactHandler("jar")));
+        MojoAnnotationsScannerRequest request = new MojoAnnotationsScannerRequest();
+        request.setClassesDirectories(Collections.singletonList(classesDirectory.toFile()));
+        request.setProject(project);
+        request.setStateDirectory(tempDirectory.resolve("state").toFile());
+        Path indexFile = tempDirectory.resolve("mojo-annotations.idx");
+        request.setIndexFile(indexFile.toFile());
+
+        scanner.enableLogging(mock(Logger.class));
+        scanner.scan(request);
+        // the index of an unchanged classes directory is written from the scan state
+        Files.delete(indexFile);
+        Map<String, MojoAnnotatedClass> scanned = scanner.scan(request);
+
+        Map<String, Path> entries = new LinkedHashMap<>();
+        for (String entry : Arrays.asList(fooMojo, abstractFooMojo)) {
+            entries.put(entry, classesDirectory.resolve(entry));
+        }
+        entries.put(MojoAnnotationsIndex.INDEX_ENTRY, indexFile);
+        File archive = tempDirectory.resolve("plugin.jar").toFile();
+        writeArchive(archive, entries);
+        Artifact artifact =
+                new DefaultArtifact("groupId", "plugin", "1.0.0", null, "jar", null, new DefaultArtifactHandler("jar"));
+
+        try (ZipFile zipFile = new ZipFile(archive)) {
+            assertThat(MojoAnnotationsIndex.read(zipFile, Pattern.compile("[^-]+\\.class"), artifact))
+                    .isNotNull();
+        }
+        Map<String, MojoAnnotatedClass> indexed = scanner.scanArchive(archive, artifact, true);
+        assertThat(indexed).containsOnlyKeys(scanned.keySet());
+        MojoAnnotatedClass indexedFooMojo = indexed.get(FooMojo.class.getName());
+        MojoAnnotatedClass scannedFooMojo = scanned.get(FooMojo.class.getName());
+        assertThat(indexedFooMojo.getArtifact()).isSameAs(artifact);
+        assertThat(indexedFooMojo.getMojo()).isNull();
+        assertThat(indexedFooMojo.getParentClassName()).isEqualTo(AbstractFooMojo.class.getName());
+        assertThat(indexedFooMojo.getClassVersion()).isEqualTo(scannedFooMojo.getClassVersion());
+        assertThat(indexedFooMojo.getExecute())
+                .hasToString(scannedFooMojo.getExecute().toString());
+        assertThat(indexedFooMojo.getParameters()).isEqualTo(scannedFooMojo.getParameters());
+        assertThat(indexedFooMojo.getComponents())
+                .hasToString(scannedFooMojo.getComponents().toString());
+
+        // classes added after the index has been written
+        entries.put(deprecatedMojo, new File(testClasses, deprecatedMojo).toPath());
+        File staleArchive = tempDirectory.resolve("stale.jar").toFile();
+        writeArchive(staleArchive, entries);
+        try (ZipFile zipFile = new ZipFile(staleArchive)) {
+            assertThat(MojoAnnotationsIndex.read(zipFile, Pattern.compile("[^-]+\\.class"), artifact))
+                    .isNull();
+        }
+        Map<String, MojoAnnotatedClass> rescanned = scanner.scanArchive(staleArchive, artifact, true);
+        assertThat(rescanned).containsKeys(FooMojo.class.getName(), DeprecatedMojo.class.getName());
+        // the class annotations are only collected for the project's classes
+        assertThat(rescanned.get(DeprecatedMojo.class.getName()).getAnnotationClassNames())
+                .isEmpty();
+    }
+
+    private static void writeArchive(File archive, Map<String, Path> entries) throws IOException {
+        try (ZipOutputStream zos = new ZipOutputStream(new FileOutputStream(archive))) {
+            for (Map.Entry<String, Path> entry : entries.entrySet()) {
+                zos.putNextEntry(new ZipEntry(entry.getKey()));
+                zos.write(Files.readAllBytes(entry.getValue()));
+                zos.closeEntry();
+            }
+        }
+    }
+
+    @Test
+    void notifyClassAnnotations() throws Exception {
+        MavenProject project = new MavenProject();
+        project.setArtifact(new DefaultArtifact(
+                "groupId", "project", "1.0.0", null, "jar", null, new DefaultArtifactHandler("jar")));
+        MojoAnnotationsScannerRequest request = new MojoAnnotationsScannerRequest();
+        request.setClassesDirectories(Collections.singletonList(new File(getBasedir(), "target/test-classes")));
+        request.setIncludePatterns(Arrays.asList("**/DeprecatedMojo.class", "**/CurrentClass.class"));
+        request.setProject(project);
+        Map<String, Set<String>> notified = new HashMap<>();
+        request.setClassAnnotationsListener(notified::put);
+
+        scanner.enableLogging(mock(Logger.class));
+        scanner.scan(request);
+
+        assertThat(notified).containsOnlyKeys(DeprecatedMojo.class.getName(), CurrentClass.class.getName());
+        assertThat(notified.get(DeprecatedMojo.class.getName()))
+                .containsExactlyInAnyOrder(Mojo.class.getName(), Deprecated.class.getName());
+        assertThat(notified.get(CurrentClass.class.getName())).isEmpty();
+    }
+
+    @Test
+    void scanArchiveWithCache(@TempDir Path cacheDirectory) throws Exception {
+        File archive = new File("target/test-classes/java8-annotations.jar");
+        Artifact artifact = new DefaultArtifact(
+                "groupId", "java8-annotations", "1.0.0", null, "jar", null, new DefaultArtifactHandler("jar"));
+        scanner.enableLogging(mock(Logger.class));
+        Map<String, MojoAnnotatedClass> expected = scanner.scanArchive(archive, artifact, true);
+
+        ArchiveScanCache cache = new ArchiveScanCache(cacheDirectory.toFile(), mock(Logger.class));
+        assertThat(cache.get(archive, artifact, true)).isNull();
+        cache.put(archive, artifact, true, expected);
+
+        Map<String, MojoAnnotatedClass> cached = cache.get(archive, artifact, true);
+        assertThat(cached).containsOnlyKeys(expected.keySet());
+        assertThat(cached.values()).allSatisfy(c -> assertThat(c.getArtifact()).isSameAs(artifact));
+        // entries depend on whether mojos are excluded
+        assertThat(cache.get(archive, artifact, false)).isNull();
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(2);
+
+        // corrupt entries are discarded
+        Path entry;
+        try (Stream<Path> files = Files.walk(cacheDirectory)) {
+            entry = files.filter(Files::isRegularFile).findFirst().get();
+        }
+        Files.write(entry, new byte[] {1, 2, 3});
+        assertThat(cache.get(archive, artifact, true)).isNull();
+        assertThat(entry).doesNotExist();
+    }
+
+    @Test
+    void writeAndReadScanResults() throws Exception {
+        MojoAnnotationsScannerRequest request = new MojoAnnotationsScannerRequest();
+        request.setClassesDirectories(Collections.singletonList(new File(getBasedir(), "target/test-classes")));
+        request.setIncludePatterns(
+                Arrays.asList("**/FooMojo.class", "**/DeprecatedMojo.class", "**/ParametersWithGenericsMojo.class"));
+        request.setProject(new MavenProject());
+        scanner.enableLogging(mock(Logger.class));
+        Map<String, MojoAnnotatedClass> expected = scanner.scan(request);
+        assertThat(expected).hasSize(3);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ScanResultFormat.writeClasses(out, expected);
+        }
+        Map<String, MojoAnnotatedClass> actual;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            actual = ScanResultFormat.readClasses(in);
+        }
+
+        assertThat(actual).containsOnlyKeys(expected.keySet());
+        for (MojoAnnotatedClass mojoAnnotatedClass : expected.values()) {
+            assertThat(actual.get(mojoAnnotatedClass.getClassName()))
+                    .usingRecursiveComparison()
+                    .ignoringFields("artifact")
+                    .isEqualTo(mojoAnnotatedClass);
+        }
+    }
 }
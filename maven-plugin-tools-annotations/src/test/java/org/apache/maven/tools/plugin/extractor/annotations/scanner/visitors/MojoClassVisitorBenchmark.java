@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations.scanner.visitors;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.StringUtils;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.util.TraceSignatureVisitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures the memory allocated by {@link MojoClassVisitor} while visiting the classes of maven-core and Guava, with
+ * the flags used by the scanner, against a visitor which ignores everything and against a visitor which creates a
+ * member visitor and parses the generic signature of every field and setter, like {@link MojoClassVisitor} did
+ * before 4.0.0. Not part of the regular test run, execute it with
+ * <pre>
+ * mvn test -pl maven-plugin-tools-annotations -Dtest=MojoClassVisitorBenchmark
+ * </pre>
+ */
+class MojoClassVisitorBenchmark {
+    private static final Logger LOG = LoggerFactory.getLogger(MojoClassVisitorBenchmark.class);
+
+    private static final List<String> JAR_CLASSES =
+            Arrays.asList("org.apache.maven.project.MavenProject", "com.google.common.collect.ImmutableList");
+
+    private static final int FLAGS = ClassReader.SKIP_FRAMES | ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG;
+
+    private static final int WARMUP_RUNS = 3;
+
+    private static final int RUNS = 5;
+
+    private static final long KB = 1024;
+
+    @Test
+    void allocation() throws Exception {
+        List<byte[]> classFiles = readClassFiles();
+        assertThat(classFiles).isNotEmpty();
+
+        long baseline = measure(classFiles, () -> new ClassVisitor(Opcodes.ASM9) {});
+        long eager = measure(classFiles, EagerMojoClassVisitor::new);
+        long lazy = measure(classFiles, MojoClassVisitor::new);
+
+        LOG.info(
+                "{} classes: empty visitor {} KB, eager visitor {} KB (+{} KB), MojoClassVisitor {} KB (+{} KB)",
+                classFiles.size(),
+                baseline / KB,
+                eager / KB,
+                (eager - baseline) / KB,
+                lazy / KB,
+                (lazy - baseline) / KB);
+        assertThat(lazy).isLessThan(eager);
+    }
+
+    /**
+     * @return the smallest number of bytes allocated by the current thread to visit all class files
+     */
+    private static long measure(List<byte[]> classFiles, Supplier<ClassVisitor> visitors) {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < WARMUP_RUNS + RUNS; i++) {
+            long start = allocatedBytes();
+            for (byte[] classFile : classFiles) {
+                new ClassReader(classFile).accept(visitors.get(), FLAGS);
+            }
+            long allocated = allocatedBytes() - start;
+            if (i >= WARMUP_RUNS) {
+                min = Math.min(min, allocated);
+            }
+        }
+        return min;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static List<byte[]> readClassFiles() throws ClassNotFoundException, IOException {
+        List<byte[]> classFiles = new ArrayList<>();
+        for (String className : JAR_CLASSES) {
+            File jar = new File(Class.forName(className)
+                    .getProtectionDomain()
+                    .getCodeSource()
+                    .getLocation()
+                    .getPath());
+            try (JarFile jarFile = new JarFile(jar)) {
+                Enumeration<JarEntry> entries = jarFile.entries();
+                while (entries.hasMoreElements()) {
+                    JarEntry entry = entries.nextElement();
+                    if (entry.getName().endsWith(".class") && !entry.getName().endsWith("module-info.class")) {
+                        try (InputStream in = jarFile.getInputStream(entry)) {
+                            classFiles.add(IOUtil.toByteArray(in));
+                        }
+                    }
+                }
+            }
+        }
+        return classFiles;
+    }
+
+    /**
+     * Visits fields and setters like {@link MojoClassVisitor} did before 4.0.0: a member visitor is created and the
+     * generic signature is parsed for each of them, whether they are annotated or not.
+     */
+    private static final class EagerMojoClassVisitor extends MojoClassVisitor {
+        private final List<MojoFieldVisitor> fieldVisitors = new ArrayList<>();
+
+        private final List<MojoMethodVisitor> methodVisitors = new ArrayList<>();
+
+        @Override
+        public FieldVisitor visitField(int access, String name, String desc, String signature, Object value) {
+            MojoFieldVisitor mojoFieldVisitor = new MojoFieldVisitor(
+                    name, Type.getType(desc).getClassName(), extractTypeParameters(access, signature, true));
+            fieldVisitors.add(mojoFieldVisitor);
+            return mojoFieldVisitor;
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+            if ((access & Opcodes.ACC_PUBLIC) != Opcodes.ACC_PUBLIC
+                    || (access & Opcodes.ACC_STATIC) == Opcodes.ACC_STATIC) {
+                return null;
+            }
+            if (name.length() < 4 || !(name.startsWith("add") || name.startsWith("set"))) {
+                return null;
+            }
+            Type type = Type.getType(desc);
+            if (!"void".equals(type.getReturnType().getClassName()) || type.getArgumentTypes().length != 1) {
+                return null;
+            }
+            MojoMethodVisitor mojoMethodVisitor = new MojoMethodVisitor(
+                    StringUtils.lowercaseFirstLetter(name.substring(3)),
+                    type.getArgumentTypes()[0].getClassName(),
+                    extractTypeParameters(access, signature, false));
+            methodVisitors.add(mojoMethodVisitor);
+            return mojoMethodVisitor;
+        }
+
+        private static List<String> extractTypeParameters(int access, String signature, boolean isField) {
+            if (signature == null || signature.isEmpty()) {
+                return Collections.emptyList();
+            }
+            TraceSignatureVisitor traceSignatureVisitor = new TraceSignatureVisitor(access);
+            SignatureReader signatureReader = new SignatureReader(signature);
+            if (isField) {
+                signatureReader.acceptType(traceSignatureVisitor);
+            } else {
+                signatureReader.accept(traceSignatureVisitor);
+            }
+            String declaration = traceSignatureVisitor.getDeclaration();
+            int startTypeParameters = declaration.indexOf('<');
+            if (startTypeParameters == -1) {
+                return Collections.emptyList();
+            }
+            String typeParameters = declaration.substring(startTypeParameters + 1, declaration.lastIndexOf('>'));
+            return Arrays.asList(typeParameters.split(", "));
+        }
+    }
+}
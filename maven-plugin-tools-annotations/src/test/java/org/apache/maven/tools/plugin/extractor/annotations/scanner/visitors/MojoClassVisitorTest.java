@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.extractor.annotations.scanner.visitors;
+
+import java.util.List;
+
+import org.apache.maven.plugins.annotations.Parameter;
+import org.junit.jupiter.api.Test;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MojoClassVisitorTest {
+    private static final String PARAMETER = Type.getDescriptor(Parameter.class);
+
+    private static final String OTHER = Type.getDescriptor(SuppressWarnings.class);
+
+    /**
+     * Not a valid generic signature, which fails if it is parsed.
+     */
+    private static final String INVALID_SIGNATURE = "Ljava/util/List<";
+
+    @Test
+    void unannotatedMembersAreNotVisited() {
+        MojoClassVisitor visitor = visitClass();
+
+        FieldVisitor plainField =
+                visitor.visitField(Opcodes.ACC_PRIVATE, "plain", "Ljava/util/List;", INVALID_SIGNATURE, null);
+        assertThat(plainField.visitAnnotation(OTHER, false)).isNull();
+        plainField.visitEnd();
+        FieldVisitor otherField = visitor.visitField(Opcodes.ACC_PRIVATE, "other", "Ljava/util/List;", null, null);
+        otherField.visitEnd();
+        MethodVisitor plainSetter = visitor.visitMethod(
+                Opcodes.ACC_PUBLIC, "setPlain", "(Ljava/util/List;)V", "(" + INVALID_SIGNATURE + ")V", null);
+        plainSetter.visitEnd();
+        MethodVisitor otherSetter =
+                visitor.visitMethod(Opcodes.ACC_PUBLIC, "setOther", "(Ljava/util/List;)V", null, null);
+        otherSetter.visitEnd();
+
+        // a single visitor is reused for all members, and no member visitor is created
+        assertThat(otherField).isSameAs(plainField);
+        assertThat(otherSetter).isSameAs(plainSetter);
+        assertThat(visitor.findParameterVisitors()).isEmpty();
+    }
+
+    @Test
+    void annotatedMembersGetTypeParameters() {
+        MojoClassVisitor visitor = visitClass();
+
+        FieldVisitor field = visitor.visitField(
+                Opcodes.ACC_PRIVATE, "names", "Ljava/util/List;", "Ljava/util/List<Ljava/lang/String;>;", null);
+        assertThat(field.visitAnnotation(OTHER, false)).isNull();
+        assertThat(field.visitAnnotation(PARAMETER, false)).isNotNull();
+        field.visitEnd();
+        MethodVisitor setter = visitor.visitMethod(
+                Opcodes.ACC_PUBLIC,
+                "setSizes",
+                "(Ljava/util/Map;)V",
+                "(Ljava/util/Map<Ljava/lang/String;Ljava/lang/Integer;>;)V",
+                null);
+        assertThat(setter.visitAnnotation(PARAMETER, false)).isNotNull();
+        setter.visitEnd();
+
+        List<MojoParameterVisitor> parameters = visitor.findParameterVisitors();
+        assertThat(parameters).hasSize(2);
+        assertThat(parameters.get(0).getFieldName()).isEqualTo("names");
+        assertThat(parameters.get(0).getClassName()).isEqualTo("java.util.List");
+        assertThat(parameters.get(0).getTypeParameters()).containsExactly("java.lang.String");
+        assertThat(parameters.get(0).isAnnotationOnMethod()).isFalse();
+        assertThat(parameters.get(1).getFieldName()).isEqualTo("sizes");
+        assertThat(parameters.get(1).getClassName()).isEqualTo("java.util.Map");
+        assertThat(parameters.get(1).getTypeParameters()).containsExactly("java.lang.String", "java.lang.Integer");
+        assertThat(parameters.get(1).isAnnotationOnMethod()).isTrue();
+    }
+
+    @Test
+    void signatureOfAnnotatedMemberIsParsed() {
+        MojoClassVisitor visitor = visitClass();
+
+        FieldVisitor field =
+                visitor.visitField(Opcodes.ACC_PRIVATE, "invalid", "Ljava/util/List;", INVALID_SIGNATURE, null);
+        // shows that the signature of the unannotated members above was not parsed
+        assertThatThrownBy(() -> field.visitAnnotation(PARAMETER, false)).isInstanceOf(RuntimeException.class);
+    }
+
+    private static MojoClassVisitor visitClass() {
+        MojoClassVisitor visitor = new MojoClassVisitor();
+        visitor.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, "test/TestMojo", null, "java/lang/Object", null);
+        return visitor;
+    }
+}
@@ -18,15 +18,19 @@
  */
 package org.apache.maven.tools.plugin;
 
+import java.io.File;
 import java.net.URI;
+import java.time.Duration;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.settings.Settings;
+import org.apache.maven.tools.plugin.javadoc.JavadocLinkGeneratorPool;
 import org.codehaus.plexus.util.ReaderFactory;
 import org.eclipse.aether.RepositorySystemSession;
 
@@ -42,6 +46,8 @@ public class DefaultPluginToolsRequest implements PluginToolsRequest {
 
     private static final String DEFAULT_ENCODING = ReaderFactory.FILE_ENCODING;
 
+    private static final Duration DEFAULT_JAVADOC_SITE_CACHE_TTL = Duration.ofHours(24);
+
     private PluginDescriptor pluginDescriptor;
 
     private MavenProject project;
@@ -66,6 +72,32 @@ public class DefaultPluginToolsRequest implements PluginToolsRequest {
 
     private String mavenApiVersion;
 
+    private int scanThreadCount = 1;
+
+    private File scanCacheDirectory;
+
+    private boolean scanDependenciesOnDemand;
+
+    private File scanStateDirectory;
+
+    private Predicate<File> scanDeltaFilter;
+
+    private File scanIndexFile;
+
+    private ClassAnnotationsListener classAnnotationsListener;
+
+    private boolean parseMojoSourcesOnly;
+
+    private int parseThreadCount = 1;
+
+    private File javadocCacheDirectory;
+
+    private File javadocSiteCacheDirectory;
+
+    private Duration javadocSiteCacheTtl = DEFAULT_JAVADOC_SITE_CACHE_TTL;
+
+    private JavadocLinkGeneratorPool javadocLinkGeneratorPool;
+
     public DefaultPluginToolsRequest(MavenProject project, PluginDescriptor pluginDescriptor) {
         this.project = project;
         this.pluginDescriptor = pluginDescriptor;
@@ -232,4 +264,147 @@ public class DefaultPluginToolsRequest implements PluginToolsRequest {
     public String getUsedMavenApiVersion() {
         return mavenApiVersion;
     }
+
+    @Override
+    public PluginToolsRequest setScanThreadCount(int scanThreadCount) {
+        this.scanThreadCount = scanThreadCount;
+        return this;
+    }
+
+    @Override
+    public int getScanThreadCount() {
+        return scanThreadCount;
+    }
+
+    @Override
+    public PluginToolsRequest setScanCacheDirectory(File scanCacheDirectory) {
+        this.scanCacheDirectory = scanCacheDirectory;
+        return this;
+    }
+
+    @Override
+    public File getScanCacheDirectory() {
+        return scanCacheDirectory;
+    }
+
+    @Override
+    public PluginToolsRequest setScanDependenciesOnDemand(boolean scanDependenciesOnDemand) {
+        this.scanDependenciesOnDemand = scanDependenciesOnDemand;
+        return this;
+    }
+
+    @Override
+    public boolean isScanDependenciesOnDemand() {
+        return scanDependenciesOnDemand;
+    }
+
+    @Override
+    public PluginToolsRequest setScanStateDirectory(File scanStateDirectory) {
+        this.scanStateDirectory = scanStateDirectory;
+        return this;
+    }
+
+    @Override
+    public File getScanStateDirectory() {
+        return scanStateDirectory;
+    }
+
+    @Override
+    public PluginToolsRequest setScanDeltaFilter(Predicate<File> scanDeltaFilter) {
+        this.scanDeltaFilter = scanDeltaFilter;
+        return this;
+    }
+
+    @Override
+    public Predicate<File> getScanDeltaFilter() {
+        return scanDeltaFilter;
+    }
+
+    @Override
+    public PluginToolsRequest setScanIndexFile(File scanIndexFile) {
+        this.scanIndexFile = scanIndexFile;
+        return this;
+    }
+
+    @Override
+    public File getScanIndexFile() {
+        return scanIndexFile;
+    }
+
+    @Override
+    public PluginToolsRequest setClassAnnotationsListener(ClassAnnotationsListener classAnnotationsListener) {
+        this.classAnnotationsListener = classAnnotationsListener;
+        return this;
+    }
+
+    @Override
+    public ClassAnnotationsListener getClassAnnotationsListener() {
+        return classAnnotationsListener;
+    }
+
+    @Override
+    public PluginToolsRequest setParseMojoSourcesOnly(boolean parseMojoSourcesOnly) {
+        this.parseMojoSourcesOnly = parseMojoSourcesOnly;
+        return this;
+    }
+
+    @Override
+    public boolean isParseMojoSourcesOnly() {
+        return parseMojoSourcesOnly;
+    }
+
+    @Override
+    public PluginToolsRequest setParseThreadCount(int parseThreadCount) {
+        this.parseThreadCount = parseThreadCount;
+        return this;
+    }
+
+    @Override
+    public int getParseThreadCount() {
+        return parseThreadCount;
+    }
+
+    @Override
+    public PluginToolsRequest setJavadocCacheDirectory(File javadocCacheDirectory) {
+        this.javadocCacheDirectory = javadocCacheDirectory;
+        return this;
+    }
+
+    @Override
+    public File getJavadocCacheDirectory() {
+        return javadocCacheDirectory;
+    }
+
+    @Override
+    public PluginToolsRequest setJavadocSiteCacheDirectory(File javadocSiteCacheDirectory) {
+        this.javadocSiteCacheDirectory = javadocSiteCacheDirectory;
+        return this;
+    }
+
+    @Override
+    public File getJavadocSiteCacheDirectory() {
+        return javadocSiteCacheDirectory;
+    }
+
+    @Override
+    public PluginToolsRequest setJavadocSiteCacheTtl(Duration javadocSiteCacheTtl) {
+        this.javadocSiteCacheTtl = javadocSiteCacheTtl;
+        return this;
+    }
+
+    @Override
+    public Duration getJavadocSiteCacheTtl() {
+        return javadocSiteCacheTtl;
+    }
+
+    @Override
+    public PluginToolsRequest setJavadocLinkGeneratorPool(JavadocLinkGeneratorPool javadocLinkGeneratorPool) {
+        this.javadocLinkGeneratorPool = javadocLinkGeneratorPool;
+        return this;
+    }
+
+    @Override
+    public JavadocLinkGeneratorPool getJavadocLinkGeneratorPool() {
+        return javadocLinkGeneratorPool;
+    }
 }
@@ -18,20 +18,26 @@
  */
 package org.apache.maven.tools.plugin;
 
+import java.io.File;
 import java.net.URI;
+import java.time.Duration;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Predicate;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.settings.Settings;
+import org.apache.maven.tools.plugin.javadoc.JavadocLinkGeneratorPool;
 import org.eclipse.aether.RepositorySystemSession;
 
 /**
  * Request that encapsulates all information relevant to the process of extracting
  * {@link org.apache.maven.plugin.descriptor.MojoDescriptor MojoDescriptor}
  * instances from metadata for a certain type of mojo.
+ * The methods added in 4.0.0 have default implementations which ignore the given values and return the ones disabling
+ * the according feature, so that existing implementations keep working.
  *
  * @author jdcasey
  * @since 2.5
@@ -211,4 +217,246 @@ public interface PluginToolsRequest {
      * @since 3.8.0
      */
     String getUsedMavenApiVersion();
+
+    /**
+     * @param scanThreadCount the maximum number of threads extractors may use to scan the project's classes and
+     *                        dependencies, values lower than 2 mean sequential scanning
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setScanThreadCount(int scanThreadCount) {
+        return this;
+    }
+
+    /**
+     * @return the maximum number of threads extractors may use to scan the project's classes and dependencies
+     * @since 4.0.0
+     */
+    default int getScanThreadCount() {
+        return 1;
+    }
+
+    /**
+     * @param scanCacheDirectory the directory where extractors may persist the scan results of dependencies,
+     *                           {@code null} to disable caching
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setScanCacheDirectory(File scanCacheDirectory) {
+        return this;
+    }
+
+    /**
+     * @return the directory where extractors may persist the scan results of dependencies, or {@code null} if
+     * caching is disabled
+     * @since 4.0.0
+     */
+    default File getScanCacheDirectory() {
+        return null;
+    }
+
+    /**
+     * @param scanDependenciesOnDemand {@code true} if extractors should only scan the dependency classes which are
+     *                                 part of the class hierarchy of the project's mojos, instead of all classes
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setScanDependenciesOnDemand(boolean scanDependenciesOnDemand) {
+        return this;
+    }
+
+    /**
+     * @return {@code true} if extractors should only scan the dependency classes which are part of the class
+     * hierarchy of the project's mojos
+     * @since 4.0.0
+     */
+    default boolean isScanDependenciesOnDemand() {
+        return false;
+    }
+
+    /**
+     * @param scanStateDirectory the directory where extractors may persist the scan results of the project's own
+     *                           classes between builds, {@code null} to disable incremental scanning
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setScanStateDirectory(File scanStateDirectory) {
+        return this;
+    }
+
+    /**
+     * @return the directory where extractors may persist the scan results of the project's own classes between
+     * builds, or {@code null} if incremental scanning is disabled
+     * @since 4.0.0
+     */
+    default File getScanStateDirectory() {
+        return null;
+    }
+
+    /**
+     * @param scanDeltaFilter tells whether the build environment reports a file as changed since the previous build,
+     *                        {@code null} if the build environment does not track changes
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setScanDeltaFilter(Predicate<File> scanDeltaFilter) {
+        return this;
+    }
+
+    /**
+     * @return tells whether the build environment reports a file as changed since the previous build, or {@code null}
+     * if the build environment does not track changes
+     * @since 4.0.0
+     */
+    default Predicate<File> getScanDeltaFilter() {
+        return null;
+    }
+
+    /**
+     * @param scanIndexFile the file where extractors may write an index of the scan results of the project's own
+     *                      classes, to be packaged with them, {@code null} to not write any index
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setScanIndexFile(File scanIndexFile) {
+        return this;
+    }
+
+    /**
+     * @return the file where extractors may write an index of the scan results of the project's own classes, or
+     * {@code null} if no index should be written
+     * @since 4.0.0
+     */
+    default File getScanIndexFile() {
+        return null;
+    }
+
+    /**
+     * @param classAnnotationsListener the listener notified of the class-level annotations of the project's classes
+     *                                 analyzed by extractors, or {@code null}
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setClassAnnotationsListener(ClassAnnotationsListener classAnnotationsListener) {
+        return this;
+    }
+
+    /**
+     * @return the listener notified of the class-level annotations of the project's classes analyzed by extractors,
+     * or {@code null}
+     * @since 4.0.0
+     */
+    default ClassAnnotationsListener getClassAnnotationsListener() {
+        return null;
+    }
+
+    /**
+     * @param parseMojoSourcesOnly {@code true} if extractors should only parse the source files of the mojos and of
+     *                             their superclasses, resolving other types on demand, instead of whole source trees
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setParseMojoSourcesOnly(boolean parseMojoSourcesOnly) {
+        return this;
+    }
+
+    /**
+     * @return {@code true} if extractors should only parse the source files of the mojos and of their superclasses
+     * @since 4.0.0
+     */
+    default boolean isParseMojoSourcesOnly() {
+        return false;
+    }
+
+    /**
+     * @param parseThreadCount the maximum number of threads extractors may use to parse the mojo sources, values lower
+     *                         than 2 mean sequential parsing
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setParseThreadCount(int parseThreadCount) {
+        return this;
+    }
+
+    /**
+     * @return the maximum number of threads extractors may use to parse the mojo sources
+     * @since 4.0.0
+     */
+    default int getParseThreadCount() {
+        return 1;
+    }
+
+    /**
+     * @param javadocCacheDirectory the directory where extractors may persist the javadoc content extracted from the
+     *                              project's sources between builds, {@code null} to disable the cache
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setJavadocCacheDirectory(File javadocCacheDirectory) {
+        return this;
+    }
+
+    /**
+     * @return the directory where extractors may persist the javadoc content extracted from the project's sources
+     * between builds, or {@code null} if the cache is disabled
+     * @since 4.0.0
+     */
+    default File getJavadocCacheDirectory() {
+        return null;
+    }
+
+    /**
+     * @param javadocSiteCacheDirectory the directory where the package lists of external javadoc sites may be kept
+     *                                  between builds, {@code null} to fetch them on every build
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setJavadocSiteCacheDirectory(File javadocSiteCacheDirectory) {
+        return this;
+    }
+
+    /**
+     * @return the directory where the package lists of external javadoc sites may be kept between builds, or
+     * {@code null} if they are fetched on every build
+     * @since 4.0.0
+     */
+    default File getJavadocSiteCacheDirectory() {
+        return null;
+    }
+
+    /**
+     * @param javadocSiteCacheTtl how long cached package lists of external javadoc sites are used without
+     *                            revalidation
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setJavadocSiteCacheTtl(Duration javadocSiteCacheTtl) {
+        return this;
+    }
+
+    /**
+     * @return how long cached package lists of external javadoc sites are used without revalidation
+     * @since 4.0.0
+     */
+    default Duration getJavadocSiteCacheTtl() {
+        return Duration.ZERO;
+    }
+
+    /**
+     * @param javadocLinkGeneratorPool the pool providing the javadoc link generators shared with other consumers, or
+     *                                 {@code null} to create a link generator for each consumer
+     * @return This request.
+     * @since 4.0.0
+     */
+    default PluginToolsRequest setJavadocLinkGeneratorPool(JavadocLinkGeneratorPool javadocLinkGeneratorPool) {
+        return this;
+    }
+
+    /**
+     * @return the pool providing the javadoc link generators shared with other consumers, may be {@code null}
+     * @since 4.0.0
+     */
+    default JavadocLinkGeneratorPool getJavadocLinkGeneratorPool() {
+        return null;
+    }
 }
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.javadoc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.Credentials;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.CookieSpecs;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.DefaultProxyRoutePlanner;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeader;
+import org.apache.http.protocol.HttpContext;
+import org.apache.maven.settings.Proxy;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.wagon.proxy.ProxyInfo;
+import org.apache.maven.wagon.proxy.ProxyUtils;
+import org.codehaus.plexus.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP client shared by all fetches from javadoc sites, so that connections to the same host are kept alive and
+ * reused instead of being opened again for every resource.
+ * The proxy settings are evaluated once, hosts matching the non proxy hosts are connected to directly.
+ * Hosts which could not be reached once are not contacted again by the same client.
+ *
+ * @since 4.0.0
+ */
+final class JavadocHttpClient implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(JavadocHttpClient.class);
+
+    /** The default timeout used when fetching url, i.e. 2000. */
+    static final int DEFAULT_TIMEOUT = 2000;
+
+    /** The maximum number of connections kept open to the same host. */
+    static final int MAX_CONNECTIONS_PER_HOST = 4;
+
+    /** How long idle connections are kept alive, in case the server does not tell. */
+    static final long DEFAULT_KEEP_ALIVE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+
+    private final CloseableHttpClient httpClient;
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private final Set<String> failedHosts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * @param settings The settings to use for setting up the client or {@code null}.
+     */
+    JavadocHttpClient(Settings settings) {
+        this.connectionManager = createConnectionManager();
+        this.httpClient = createHttpClient(settings);
+    }
+
+    private PoolingHttpClientConnectionManager createConnectionManager() {
+        Registry<ConnectionSocketFactory> csfRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", PlainConnectionSocketFactory.getSocketFactory())
+                .register("https", SSLConnectionSocketFactory.getSystemSocketFactory())
+                .build();
+
+        PoolingHttpClientConnectionManager connectionManager =
+                new PoolingHttpClientConnectionManager(csfRegistry, (route, config) -> {
+                    connections.incrementAndGet();
+                    return ManagedHttpClientConnectionFactory.INSTANCE.create(route, config);
+                });
+        connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS_PER_HOST);
+        connectionManager.setMaxTotal(MAX_CONNECTIONS_PER_HOST * 8);
+        return connectionManager;
+    }
+
+    // CHECKSTYLE_OFF: LineLength
+    /**
+     * Creates a new {@code HttpClient} instance, derived from
+     * <a href="https://github.com/apache/maven-javadoc-plugin/blob/231316be785782b61d96783fad111325868cfa1f/src/main/java/org/apache/maven/plugins/javadoc/JavadocUtil.java">JavadocUtil</a>.
+     *
+     * @param settings The settings to use for setting up the client or {@code null}.
+     * @return A new {@code HttpClient} instance.
+     * @see #DEFAULT_TIMEOUT
+     */
+    // CHECKSTYLE_ON: LineLength
+    private CloseableHttpClient createHttpClient(Settings settings) {
+        HttpClientBuilder builder = HttpClients.custom();
+
+        builder.setConnectionManager(connectionManager);
+        builder.setKeepAliveStrategy((response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAlive > 0 ? keepAlive : DEFAULT_KEEP_ALIVE_MILLIS;
+        });
+        builder.setDefaultRequestConfig(RequestConfig.custom()
+                .setSocketTimeout(DEFAULT_TIMEOUT)
+                .setConnectTimeout(DEFAULT_TIMEOUT)
+                .setCircularRedirectsAllowed(true)
+                .setCookieSpec(CookieSpecs.IGNORE_COOKIES)
+                .build());
+
+        // Some web servers don't allow the default user-agent sent by httpClient
+        builder.setUserAgent("Mozilla/4.0 (compatible; MSIE 6.0; Windows NT 5.0)");
+
+        // Some server reject requests that do not have an Accept header
+        builder.setDefaultHeaders(Arrays.asList(new BasicHeader(HttpHeaders.ACCEPT, "*/*")));
+
+        if (settings != null && settings.getActiveProxy() != null) {
+            Proxy activeProxy = settings.getActiveProxy();
+
+            ProxyInfo proxyInfo = new ProxyInfo();
+            proxyInfo.setNonProxyHosts(activeProxy.getNonProxyHosts());
+
+            if (StringUtils.isNotEmpty(activeProxy.getHost())) {
+                HttpHost proxy = new HttpHost(activeProxy.getHost(), activeProxy.getPort());
+                builder.setRoutePlanner(new DefaultProxyRoutePlanner(proxy) {
+                    @Override
+                    protected HttpHost determineProxy(HttpHost target, HttpRequest request, HttpContext context) {
+                        return ProxyUtils.validateNonProxyHosts(proxyInfo, target.getHostName()) ? null : proxy;
+                    }
+                });
+
+                if (StringUtils.isNotEmpty(activeProxy.getUsername()) && activeProxy.getPassword() != null) {
+                    Credentials credentials =
+                            new UsernamePasswordCredentials(activeProxy.getUsername(), activeProxy.getPassword());
+
+                    CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
+                    credentialsProvider.setCredentials(AuthScope.ANY, credentials);
+                    builder.setDefaultCredentialsProvider(credentialsProvider);
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param request the request
+     * @param context the context, receiving the redirect locations
+     * @return the response, to be closed in order to give the connection back to the pool
+     * @throws IOException in case of a problem or the connection was aborted
+     */
+    CloseableHttpResponse execute(HttpGet request, HttpClientContext context) throws IOException {
+        String host = getHost(request.getURI());
+        if (failedHosts.contains(host)) {
+            throw new IOException("Skipping " + request.getURI() + " as " + host + " could not be reached before");
+        }
+        try {
+            try {
+                requests.incrementAndGet();
+                return httpClient.execute(request, context);
+            } catch (SocketTimeoutException e) {
+                // could be a sporadic failure, one more retry before we give up
+                requests.incrementAndGet();
+                return httpClient.execute(request, context);
+            }
+        } catch (UnknownHostException | ConnectException | InterruptedIOException e) {
+            markFailed(request.getURI());
+            throw e;
+        }
+    }
+
+    /**
+     * Prevents further requests to the host of the given URI, e.g. because it did not respond in time.
+     *
+     * @param uri the URI whose host could not be reached
+     */
+    void markFailed(URI uri) {
+        if (failedHosts.add(getHost(uri))) {
+            LOG.debug("Not contacting {} anymore as it could not be reached", getHost(uri));
+        }
+    }
+
+    /**
+     * @param uri the URI
+     * @return {@code true} if the host of the given URI could not be reached before
+     */
+    boolean hasFailed(URI uri) {
+        return failedHosts.contains(getHost(uri));
+    }
+
+    private static String getHost(URI uri) {
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    /**
+     * @return the number of requests executed with this client
+     */
+    int getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @return the number of connections opened by this client
+     */
+    int getConnectionCount() {
+        return connections.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (requests.get() > 0) {
+            LOG.debug(
+                    "Fetched {} javadoc resources over {} connections ({} reused)",
+                    requests.get(),
+                    connections.get(),
+                    Math.max(0, requests.get() - connections.get()));
+        }
+        httpClient.close();
+    }
+}
@@ -19,18 +19,29 @@
 package org.apache.maven.tools.plugin.javadoc;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.regex.Pattern;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.maven.settings.Settings;
+import org.apache.maven.tools.plugin.PluginToolsRequest;
 import org.codehaus.plexus.languages.java.version.JavaVersion;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,8 +50,12 @@ import org.slf4j.LoggerFactory;
  * Generates links for elements (packages, classes, fields, constructors, methods) in external
  * and/or an internal (potentially not yet existing) javadoc site.
  * The external site must be accessible for it to be considered due to the different fragment formats.
+ * All external sites are fetched with the same HTTP client, which keeps the connections alive until this generator
+ * is {@link #close() closed}. They are set up concurrently, sites not being accessible within
+ * {@link #DEFAULT_EXTERNAL_SITES_TIMEOUT} are left out.
+ * Instances are thread-safe, and their sites may be shared through a {@link JavadocLinkGeneratorPool}.
  */
-public class JavadocLinkGenerator {
+public class JavadocLinkGenerator implements Closeable {
     /**
      * Javadoc tool version ranges whose generated sites expose different link formats.
      *
@@ -70,9 +85,20 @@ public class JavadocLinkGenerator {
         }
     }
 
+    /**
+     * How long to wait for all external sites to be set up, i.e. 10 seconds.
+     *
+     * @since 4.0.0
+     */
+    public static final Duration DEFAULT_EXTERNAL_SITES_TIMEOUT = Duration.ofSeconds(10);
+
+    /** The maximum number of external sites being set up at the same time. */
+    private static final int MAX_CONCURRENT_SITES = 8;
+
     private static final Logger LOG = LoggerFactory.getLogger(JavadocLinkGenerator.class);
     private final List<JavadocSite> externalJavadocSites;
     private final JavadocSite internalJavadocSite; // may be null
+    private final JavadocHttpClient httpClient; // may be null, not owned by views of pooled generators
 
     /**
      * Constructor for an offline internal site only.
@@ -108,6 +134,56 @@ public class JavadocLinkGenerator {
             String internalJavadocVersion,
             List<URI> externalJavadocSiteUrls,
             Settings settings) {
+        this(internalJavadocSiteUrl, internalJavadocVersion, externalJavadocSiteUrls, settings, null, null);
+    }
+
+    /**
+     * Constructor for both an internal (offline) and external (online) sites, keeping the package lists of the
+     * external sites between builds.
+     *
+     * @param internalJavadocSiteUrl
+     * @param internalJavadocVersion
+     * @param externalJavadocSiteUrls
+     * @param settings
+     * @param cacheDirectory the directory where the package lists of the external sites are kept, {@code null} to
+     *                       fetch them on every build
+     * @param cacheTtl how long cached package lists are used without asking the external sites whether they changed
+     * @since 4.0.0
+     */
+    public JavadocLinkGenerator(
+            URI internalJavadocSiteUrl,
+            String internalJavadocVersion,
+            List<URI> externalJavadocSiteUrls,
+            Settings settings,
+            File cacheDirectory,
+            Duration cacheTtl) {
+        this(
+                internalJavadocSiteUrl,
+                internalJavadocVersion,
+                externalJavadocSiteUrls,
+                settings,
+                cacheDirectory,
+                cacheTtl,
+                DEFAULT_EXTERNAL_SITES_TIMEOUT);
+    }
+
+    /**
+     * Creates a view of a pooled generator, which uses its sites but does not own their connections.
+     */
+    JavadocLinkGenerator(JavadocLinkGenerator pooled) {
+        this.internalJavadocSite = pooled.internalJavadocSite;
+        this.externalJavadocSites = pooled.externalJavadocSites;
+        this.httpClient = null;
+    }
+
+    JavadocLinkGenerator(
+            URI internalJavadocSiteUrl,
+            String internalJavadocVersion,
+            List<URI> externalJavadocSiteUrls,
+            Settings settings,
+            File cacheDirectory,
+            Duration cacheTtl,
+            Duration externalSitesTimeout) {
         if (internalJavadocSiteUrl != null) {
             // resolve version
             JavaVersion javadocVersion = JavaVersion.parse(internalJavadocVersion);
@@ -116,24 +192,70 @@ public class JavadocLinkGenerator {
         } else {
             internalJavadocSite = null;
         }
-        if (externalJavadocSiteUrls != null) {
-            externalJavadocSites = new ArrayList<>(externalJavadocSiteUrls.size());
-            for (URI siteUrl : externalJavadocSiteUrls) {
-                try {
-                    externalJavadocSites.add(new JavadocSite(siteUrl, settings));
-                } catch (IOException e) {
-                    LOG.warn("Could not use {} as base URL: {}", siteUrl, e.getMessage(), e);
-                }
-            }
+        if (externalJavadocSiteUrls != null && !externalJavadocSiteUrls.isEmpty()) {
+            httpClient = new JavadocHttpClient(settings);
+            JavadocSiteCache cache = cacheDirectory != null
+                    ? new JavadocSiteCache(cacheDirectory.toPath(), cacheTtl, settings != null && settings.isOffline())
+                    : null;
+            externalJavadocSites = createExternalSites(externalJavadocSiteUrls, cache, externalSitesTimeout);
         } else {
+            httpClient = null;
             externalJavadocSites = Collections.emptyList();
         }
         if (internalJavadocSite == null && externalJavadocSites.isEmpty()) {
+            closeHttpClient();
             throw new IllegalArgumentException(
                     "Either internal or at least one accessible external javadoc " + "URLs must be given!");
         }
     }
 
+    /**
+     * Sets up the external sites concurrently, as each one needs at least one request.
+     *
+     * @return the accessible sites, in the order of the given URLs as that defines their priority
+     */
+    private List<JavadocSite> createExternalSites(
+            List<URI> externalJavadocSiteUrls, JavadocSiteCache cache, Duration timeout) {
+        List<JavadocSite> sites = new ArrayList<>(externalJavadocSiteUrls.size());
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(externalJavadocSiteUrls.size(), MAX_CONCURRENT_SITES), new SiteThreadFactory());
+        try {
+            List<Future<JavadocSite>> results = new ArrayList<>(externalJavadocSiteUrls.size());
+            for (URI siteUrl : externalJavadocSiteUrls) {
+                results.add(executor.submit(() -> new JavadocSite(siteUrl, httpClient, cache)));
+            }
+
+            long deadline = System.nanoTime() + timeout.toNanos();
+            for (int i = 0; i < results.size(); i++) {
+                URI siteUrl = externalJavadocSiteUrls.get(i);
+                try {
+                    sites.add(results.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        LOG.warn("Could not use {} as base URL: {}", siteUrl, cause.getMessage(), cause);
+                    } else if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    } else {
+                        throw new IllegalStateException(cause);
+                    }
+                } catch (TimeoutException e) {
+                    results.get(i).cancel(true);
+                    httpClient.markFailed(siteUrl);
+                    LOG.warn("Could not use {} as base URL: not accessible within {} ms", siteUrl, timeout.toMillis());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Interrupted while setting up the external javadoc sites, using only {} of them", sites.size());
+        } finally {
+            executor.shutdownNow();
+        }
+        return sites;
+    }
+
     /**
      * Generates a (deep-)link to a HTML page in any of the sites given to the constructor.
      * The link is not validated (i.e. might point to a non-existing page).
@@ -183,6 +305,64 @@ public class JavadocLinkGenerator {
         return javadocSite.createLink(packageAndClassName.getKey(), packageAndClassName.getValue());
     }
 
+    /**
+     * Returns a link generator for the javadoc sites configured in a request, using the sites of the request's
+     * {@link PluginToolsRequest#getJavadocLinkGeneratorPool() pool} if any.
+     *
+     * @param request the request
+     * @return the link generator, to be closed by the caller, or {@code null} if the request configures no javadoc
+     * site
+     * @throws IllegalArgumentException in case neither an internal nor an accessible external site is given
+     * @since 4.0.0
+     */
+    public static JavadocLinkGenerator create(PluginToolsRequest request) {
+        if (request.getInternalJavadocBaseUrl() == null
+                && (request.getExternalJavadocBaseUrls() == null
+                        || request.getExternalJavadocBaseUrls().isEmpty())) {
+            return null;
+        }
+        JavadocLinkGeneratorPool pool = request.getJavadocLinkGeneratorPool();
+        if (pool != null) {
+            return pool.acquire(
+                    request.getInternalJavadocBaseUrl(),
+                    request.getInternalJavadocVersion(),
+                    request.getExternalJavadocBaseUrls(),
+                    request.getSettings(),
+                    request.getJavadocSiteCacheDirectory(),
+                    request.getJavadocSiteCacheTtl());
+        }
+        return new JavadocLinkGenerator(
+                request.getInternalJavadocBaseUrl(),
+                request.getInternalJavadocVersion(),
+                request.getExternalJavadocBaseUrls(),
+                request.getSettings(),
+                request.getJavadocSiteCacheDirectory(),
+                request.getJavadocSiteCacheTtl());
+    }
+
+    /**
+     * Closes the connections to the external javadoc sites owned by this generator. Generators
+     * {@link JavadocLinkGeneratorPool#acquire(URI, String, List, Settings, File, Duration) acquired} from a pool do not
+     * own any, their connections are closed together with the pool.
+     * Links to external sites can no longer be created afterwards, if they need to be validated against the site.
+     *
+     * @since 4.0.0
+     */
+    @Override
+    public void close() {
+        closeHttpClient();
+    }
+
+    void closeHttpClient() {
+        if (httpClient != null) {
+            try {
+                httpClient.close();
+            } catch (IOException e) {
+                LOG.debug("Could not close the HTTP client: {}", e.getMessage(), e);
+            }
+        }
+    }
+
     public URI getInternalJavadocSiteBaseUrl() {
         if (internalJavadocSite == null) {
             throw new IllegalStateException("Could not get docroot of internal javadoc as it hasn't been set");
@@ -200,12 +380,10 @@ public class JavadocLinkGenerator {
      */
     public static boolean isLinkValid(URI url, Path baseDirectory) {
         if (url.isAbsolute()) {
-            try (BufferedReader reader = JavadocSite.getReader(url.toURL(), null)) {
-                if (url.getFragment() != null) {
-                    Pattern pattern = JavadocSite.getAnchorPattern(url.getFragment());
-                    if (reader.lines().noneMatch(pattern.asPredicate())) {
-                        return false;
-                    }
+            try (BufferedReader reader = JavadocSite.getReader(url.toURL(), (Settings) null)) {
+                if (url.getFragment() != null
+                        && !JavadocSite.readAnchors(reader).contains(url.getFragment())) {
+                    return false;
                 }
             } catch (IOException e) {
                 return false;
@@ -220,4 +398,15 @@ public class JavadocLinkGenerator {
             return exists;
         }
     }
+
+    private static final class SiteThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "javadoc-site-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.javadoc;
+
+import java.io.Closeable;
+import java.io.File;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.settings.Settings;
+
+/**
+ * Link generators shared by all the consumers using the same link configuration, so that the external javadoc sites
+ * are only set up once, e.g. once for the extraction and all descriptors of a plugin.
+ * The generators handed out are thread-safe views of the pooled ones, which do not own the connections to the
+ * external sites. The connections are closed together with this pool.
+ *
+ * @since 4.0.0
+ */
+public class JavadocLinkGeneratorPool implements Closeable {
+    private final Map<List<Object>, JavadocLinkGenerator> linkGenerators = new ConcurrentHashMap<>();
+
+    /**
+     * Returns a view of the link generator for the given configuration, creating it on first use.
+     * The parameters are the same as the ones of
+     * {@link JavadocLinkGenerator#JavadocLinkGenerator(URI, String, List, Settings, File, Duration)}.
+     *
+     * @param internalJavadocSiteUrl
+     * @param internalJavadocVersion
+     * @param externalJavadocSiteUrls
+     * @param settings
+     * @param cacheDirectory
+     * @param cacheTtl
+     * @return a view of the shared link generator, which may be closed without affecting the pool
+     * @throws IllegalArgumentException in case neither an internal nor an accessible external site is given
+     */
+    public JavadocLinkGenerator acquire(
+            URI internalJavadocSiteUrl,
+            String internalJavadocVersion,
+            List<URI> externalJavadocSiteUrls,
+            Settings settings,
+            File cacheDirectory,
+            Duration cacheTtl) {
+        List<URI> externalUrls =
+                externalJavadocSiteUrls != null ? new ArrayList<>(externalJavadocSiteUrls) : Collections.emptyList();
+        // settings are compared by identity, which is enough to tell apart the settings of different sessions
+        List<Object> key = Arrays.asList(
+                internalJavadocSiteUrl, internalJavadocVersion, externalUrls, settings, cacheDirectory, cacheTtl);
+        JavadocLinkGenerator pooled = linkGenerators.computeIfAbsent(
+                key,
+                k -> new JavadocLinkGenerator(
+                        internalJavadocSiteUrl,
+                        internalJavadocVersion,
+                        externalUrls,
+                        settings,
+                        cacheDirectory,
+                        cacheTtl));
+        return new JavadocLinkGenerator(pooled);
+    }
+
+    /**
+     * @return the number of link generators in this pool
+     */
+    int size() {
+        return linkGenerators.size();
+    }
+
+    /**
+     * Closes all link generators of this pool.
+     */
+    @Override
+    public void close() {
+        for (JavadocLinkGenerator linkGenerator : linkGenerators.values()) {
+            linkGenerator.closeHttpClient();
+        }
+        linkGenerators.clear();
+    }
+}
@@ -19,69 +19,61 @@
 package org.apache.maven.tools.plugin.javadoc;
 
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.MalformedURLException;
-import java.net.SocketTimeoutException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.AbstractMap;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.apache.http.Header;
 import org.apache.http.HttpHeaders;
-import org.apache.http.HttpHost;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
-import org.apache.http.auth.AuthScope;
-import org.apache.http.auth.Credentials;
-import org.apache.http.auth.UsernamePasswordCredentials;
-import org.apache.http.client.CredentialsProvider;
-import org.apache.http.client.config.CookieSpecs;
-import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.protocol.HttpClientContext;
-import org.apache.http.config.Registry;
-import org.apache.http.config.RegistryBuilder;
-import org.apache.http.conn.socket.ConnectionSocketFactory;
-import org.apache.http.conn.socket.PlainConnectionSocketFactory;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.impl.client.BasicCredentialsProvider;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
-import org.apache.http.message.BasicHeader;
-import org.apache.maven.settings.Proxy;
+import org.apache.http.util.EntityUtils;
 import org.apache.maven.settings.Settings;
 import org.apache.maven.tools.plugin.javadoc.FullyQualifiedJavadocReference.MemberType;
-import org.apache.maven.wagon.proxy.ProxyInfo;
-import org.apache.maven.wagon.proxy.ProxyUtils;
 import org.codehaus.plexus.util.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Allows to create links to a site generated by javadoc (incl. deep-linking).
  * The site may be either accessible (online) or non-accessible (offline) when using this class.
  */
 class JavadocSite {
-    private static final String PREFIX_MODULE = "module:";
+    static final String PREFIX_MODULE = "module:";
+
+    private static final Logger LOG = LoggerFactory.getLogger(JavadocSite.class);
+
+    // javadoc 17 uses"<section ... id=<anchor> >"
+    private static final Pattern ANCHOR_PATTERN = Pattern.compile("(?:name|NAME|id)=\"([^\"]*)\"");
 
     final URI baseUri;
 
-    final Settings settings;
+    final JavadocHttpClient httpClient; // null in case this an offline site
 
     final Map<String, String> containedPackageNamesAndModules; // empty in case this an offline site
 
@@ -112,50 +104,34 @@ class JavadocSite {
                         JavadocLinkGenerator.JavadocToolVersionRange.JDK8_OR_9));
     }
 
-    JavadocLinkGenerator.JavadocToolVersionRange version; // null in case not yet known for online sites
+    volatile JavadocLinkGenerator.JavadocToolVersionRange version; // null in case not yet known for online sites
+
+    private final Map<URI, Set<String>> anchorsPerPage = new ConcurrentHashMap<>();
 
     /**
      * Constructor for online sites having an accessible {@code package-list} or {@code element-list}.
      * @param url
-     * @param settings
+     * @param httpClient the client used for all fetches from the site
      * @throws IOException
      */
-    JavadocSite(final URI url, final Settings settings) throws IOException {
-        Map<String, String> containedPackageNamesAndModules;
-        boolean requireModuleNameInPath = false;
-        try {
-            // javadoc > 1.2 && < 10
-            containedPackageNamesAndModules = getPackageListWithModules(url.resolve("package-list"), settings);
-        } catch (FileNotFoundException e) {
-            try {
-                // javadoc 10+
-                containedPackageNamesAndModules = getPackageListWithModules(url.resolve("element-list"), settings);
-
-                Optional<String> firstModuleName = containedPackageNamesAndModules.values().stream()
-                        .filter(StringUtils::isNotBlank)
-                        .findFirst();
-                if (firstModuleName.isPresent()) {
-                    // are module names part of the URL (since JDK11)?
-                    try (Reader reader = getReader(
-                            url.resolve(firstModuleName.get() + "/module-summary.html")
-                                    .toURL(),
-                            null)) {
-                        requireModuleNameInPath = true;
-                    } catch (IOException ioe) {
-                        // ignore
-                    }
-                }
-            } catch (FileNotFoundException e2) {
-                throw new IOException("Found neither 'package-list' nor 'element-list' below url " + url
-                        + ". The given URL does probably not specify the root of a javadoc site or has been generated with"
-                        + " javadoc 1.2 or older.");
-            }
-        }
-        this.containedPackageNamesAndModules = containedPackageNamesAndModules;
+    JavadocSite(final URI url, final JavadocHttpClient httpClient) throws IOException {
+        this(url, httpClient, null);
+    }
+
+    /**
+     * Constructor for online sites having an accessible {@code package-list} or {@code element-list}.
+     * @param url
+     * @param httpClient the client used for all fetches from the site
+     * @param cache the cache of package lists, may be {@code null}
+     * @throws IOException
+     */
+    JavadocSite(final URI url, final JavadocHttpClient httpClient, final JavadocSiteCache cache) throws IOException {
+        JavadocSiteCache.Entry packageList = getPackageList(url, httpClient, cache);
+        this.containedPackageNamesAndModules = packageList.getPackageNamesAndModules();
         this.baseUri = url;
-        this.settings = settings;
+        this.httpClient = httpClient;
         this.version = null;
-        this.requireModuleNameInPath = requireModuleNameInPath;
+        this.requireModuleNameInPath = packageList.isRequireModuleNameInPath();
     }
 
     /** Constructor for offline sites. This throws {@link UnsupportedOperationException}
@@ -165,32 +141,117 @@ class JavadocSite {
         this.baseUri = url;
         Objects.requireNonNull(version);
         this.version = version;
-        this.settings = null;
+        this.httpClient = null;
         this.containedPackageNamesAndModules = Collections.emptyMap();
         this.requireModuleNameInPath = requireModuleNameInPath;
     }
 
-    static Map<String, String> getPackageListWithModules(final URI url, final Settings settings) throws IOException {
-        Map<String, String> containedPackageNamesAndModules = new HashMap<>();
-        try (BufferedReader reader = getReader(url.toURL(), settings)) {
-            String line;
-            String module = null;
-            while ((line = reader.readLine()) != null) {
-                // each line starting with "module:" contains the module name afterwards
-                if (line.startsWith(PREFIX_MODULE)) {
-                    module = line.substring(PREFIX_MODULE.length());
-                } else {
-                    containedPackageNamesAndModules.put(line, module);
+    private static JavadocSiteCache.Entry getPackageList(
+            final URI url, final JavadocHttpClient httpClient, final JavadocSiteCache cache) throws IOException {
+        JavadocSiteCache.Entry cached = cache != null ? cache.load(url) : null;
+        if (cached != null && cache.isFresh(cached)) {
+            return cached;
+        }
+        try {
+            JavadocSiteCache.Entry packageList = fetchPackageList(url, httpClient, cached);
+            if (cache != null && packageList.isComplete()) {
+                cache.store(url, packageList);
+            }
+            return packageList;
+        } catch (IOException e) {
+            if (cached == null) {
+                throw e;
+            }
+            LOG.warn("Using the cached package list of {} as it could not be fetched: {}", url, e.getMessage());
+            return cached;
+        }
+    }
+
+    private static JavadocSiteCache.Entry fetchPackageList(
+            final URI url, final JavadocHttpClient httpClient, final JavadocSiteCache.Entry cached) throws IOException {
+        if (cached != null) {
+            Validators validators = new Validators(cached.getETag(), cached.getLastModified());
+            try {
+                JavadocSiteCache.Entry packageList =
+                        fetchPackageList(url, cached.getListName(), httpClient, validators);
+                if (packageList == null) {
+                    cached.revalidated();
+                    return cached;
                 }
+                return packageList;
+            } catch (FileNotFoundException e) {
+                // the site has been regenerated with another javadoc version
+            }
+        }
+        try {
+            // javadoc > 1.2 && < 10
+            return fetchPackageList(url, "package-list", httpClient, new Validators(null, null));
+        } catch (FileNotFoundException e) {
+            try {
+                // javadoc 10+
+                return fetchPackageList(url, "element-list", httpClient, new Validators(null, null));
+            } catch (FileNotFoundException e2) {
+                throw new IOException("Found neither 'package-list' nor 'element-list' below url " + url
+                        + ". The given URL does probably not specify the root of a javadoc site or has been generated with"
+                        + " javadoc 1.2 or older.");
             }
-            return containedPackageNamesAndModules;
         }
     }
 
-    static boolean findLineContaining(final URI url, final Settings settings, Pattern pattern) throws IOException {
-        try (BufferedReader reader = getReader(url.toURL(), settings)) {
-            return reader.lines().anyMatch(pattern.asPredicate());
+    /**
+     * @return the package list, or {@code null} if it has not been modified since the given validators
+     */
+    private static JavadocSiteCache.Entry fetchPackageList(
+            final URI url, final String listName, final JavadocHttpClient httpClient, final Validators validators)
+            throws IOException {
+        Map<String, String> containedPackageNamesAndModules;
+        try (BufferedReader reader = getReader(url.resolve(listName).toURL(), httpClient, null, validators)) {
+            if (reader == null) {
+                return null;
+            }
+            containedPackageNamesAndModules = readPackageListWithModules(reader);
         }
+        boolean requireModuleNameInPath = false;
+        boolean complete = true;
+        Optional<String> firstModuleName = containedPackageNamesAndModules.values().stream()
+                .filter(StringUtils::isNotBlank)
+                .findFirst();
+        if (firstModuleName.isPresent()) {
+            // are module names part of the URL (since JDK11)?
+            try (Reader reader = getReader(
+                    url.resolve(firstModuleName.get() + "/module-summary.html").toURL(), httpClient)) {
+                requireModuleNameInPath = true;
+            } catch (FileNotFoundException e) {
+                // module names are not part of the URL
+            } catch (IOException e) {
+                // unknown, e.g. after a timeout, so the result must not be cached
+                LOG.debug("Unable to check whether module names are part of the URLs of {}: {}", url, e.toString());
+                complete = false;
+            }
+        }
+        return new JavadocSiteCache.Entry(
+                url,
+                listName,
+                containedPackageNamesAndModules,
+                requireModuleNameInPath,
+                validators.eTag,
+                validators.lastModified,
+                complete);
+    }
+
+    static Map<String, String> readPackageListWithModules(BufferedReader reader) throws IOException {
+        Map<String, String> containedPackageNamesAndModules = new HashMap<>();
+        String line;
+        String module = null;
+        while ((line = reader.readLine()) != null) {
+            // each line starting with "module:" contains the module name afterwards
+            if (line.startsWith(PREFIX_MODULE)) {
+                module = line.substring(PREFIX_MODULE.length());
+            } else {
+                containedPackageNamesAndModules.put(line, module);
+            }
+        }
+        return containedPackageNamesAndModules;
     }
 
     public URI getBaseUri() {
@@ -436,101 +497,110 @@ class JavadocSite {
     }
 
     boolean findAnchor(URI uri, String anchorNameOrId) throws MalformedURLException, IOException {
-        return findLineContaining(uri, settings, getAnchorPattern(anchorNameOrId));
+        return getAnchors(uri).contains(anchorNameOrId);
+    }
+
+    /**
+     * @param uri the URI of a page of this site
+     * @return the names and ids of the anchors in the page, only fetched once per page
+     * @throws IOException in case the page cannot be fetched
+     */
+    Set<String> getAnchors(URI uri) throws IOException {
+        Set<String> anchors = anchorsPerPage.get(uri);
+        if (anchors == null) {
+            try (BufferedReader reader = getReader(uri.toURL(), httpClient)) {
+                anchors = readAnchors(reader);
+            }
+            anchorsPerPage.put(uri, anchors);
+        }
+        return anchors;
     }
 
-    static Pattern getAnchorPattern(String anchorNameOrId) {
-        // javadoc 17 uses"<section ... id=<anchor> >"
-        return Pattern.compile(".*(name|NAME|id)=\\\"" + Pattern.quote(anchorNameOrId) + "\\\"");
+    static Set<String> readAnchors(BufferedReader reader) throws IOException {
+        Set<String> anchors = new HashSet<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            Matcher matcher = ANCHOR_PATTERN.matcher(line);
+            while (matcher.find()) {
+                anchors.add(matcher.group(1));
+            }
+        }
+        return anchors;
     }
 
     // ---------------
     // CHECKSTYLE_OFF: LineLength
-    // the following methods are copies from private methods contained in
+    // the following methods are derived from private methods contained in
     // https://github.com/apache/maven-javadoc-plugin/blob/231316be785782b61d96783fad111325868cfa1f/src/main/java/org/apache/maven/plugins/javadoc/JavadocUtil.java
     // CHECKSTYLE_ON: LineLength
     // ---------------
     /** The default timeout used when fetching url, i.e. 2000. */
-    public static final int DEFAULT_TIMEOUT = 2000;
+    public static final int DEFAULT_TIMEOUT = JavadocHttpClient.DEFAULT_TIMEOUT;
 
     /**
-     * Creates a new {@code HttpClient} instance.
+     * Opens the given URL with a client which is only used for this URL.
      *
+     * @param url the URL
      * @param settings The settings to use for setting up the client or {@code null}.
-     * @param url The {@code URL} to use for setting up the client or {@code null}.
-     * @return A new {@code HttpClient} instance.
-     * @see #DEFAULT_TIMEOUT
-     * @since 2.8
+     * @return the reader, which closes the client once being closed
+     * @throws IOException in case the URL cannot be opened
      */
-    private static CloseableHttpClient createHttpClient(Settings settings, URL url) {
-        HttpClientBuilder builder = HttpClients.custom();
-
-        Registry<ConnectionSocketFactory> csfRegistry = RegistryBuilder.<ConnectionSocketFactory>create()
-                .register("http", PlainConnectionSocketFactory.getSocketFactory())
-                .register("https", SSLConnectionSocketFactory.getSystemSocketFactory())
-                .build();
-
-        builder.setConnectionManager(new PoolingHttpClientConnectionManager(csfRegistry));
-        builder.setDefaultRequestConfig(RequestConfig.custom()
-                .setSocketTimeout(DEFAULT_TIMEOUT)
-                .setConnectTimeout(DEFAULT_TIMEOUT)
-                .setCircularRedirectsAllowed(true)
-                .setCookieSpec(CookieSpecs.IGNORE_COOKIES)
-                .build());
-
-        // Some web servers don't allow the default user-agent sent by httpClient
-        builder.setUserAgent("Mozilla/4.0 (compatible; MSIE 6.0; Windows NT 5.0)");
-
-        // Some server reject requests that do not have an Accept header
-        builder.setDefaultHeaders(Arrays.asList(new BasicHeader(HttpHeaders.ACCEPT, "*/*")));
-
-        if (settings != null && settings.getActiveProxy() != null) {
-            Proxy activeProxy = settings.getActiveProxy();
-
-            ProxyInfo proxyInfo = new ProxyInfo();
-            proxyInfo.setNonProxyHosts(activeProxy.getNonProxyHosts());
-
-            if (StringUtils.isNotEmpty(activeProxy.getHost())
-                    && (url == null || !ProxyUtils.validateNonProxyHosts(proxyInfo, url.getHost()))) {
-                HttpHost proxy = new HttpHost(activeProxy.getHost(), activeProxy.getPort());
-                builder.setProxy(proxy);
-
-                if (StringUtils.isNotEmpty(activeProxy.getUsername()) && activeProxy.getPassword() != null) {
-                    Credentials credentials =
-                            new UsernamePasswordCredentials(activeProxy.getUsername(), activeProxy.getPassword());
-
-                    CredentialsProvider credentialsProvider = new BasicCredentialsProvider();
-                    credentialsProvider.setCredentials(AuthScope.ANY, credentials);
-                    builder.setDefaultCredentialsProvider(credentialsProvider);
-                }
-            }
+    static BufferedReader getReader(URL url, Settings settings) throws IOException {
+        if ("file".equals(url.getProtocol())) {
+            return getReader(url, (JavadocHttpClient) null);
+        }
+        JavadocHttpClient httpClient = new JavadocHttpClient(settings);
+        try {
+            return getReader(url, httpClient, httpClient, null);
+        } catch (IOException | RuntimeException e) {
+            httpClient.close();
+            throw e;
         }
-        return builder.build();
     }
 
-    static BufferedReader getReader(URL url, Settings settings) throws IOException {
-        BufferedReader reader = null;
+    /**
+     * @param url the URL
+     * @param httpClient the client used for http(s) URLs, not closed by this method
+     * @return the reader, which gives the connection back to the client once being closed
+     * @throws IOException in case the URL cannot be opened
+     */
+    static BufferedReader getReader(URL url, JavadocHttpClient httpClient) throws IOException {
+        return getReader(url, httpClient, null, null);
+    }
 
+    /**
+     * @param validators the validators of a previous response, in order to make the request conditional, updated with
+     *                   the ones of the response (may be {@code null})
+     * @return the reader, or {@code null} if the resource has not been modified since the given validators
+     */
+    private static BufferedReader getReader(
+            URL url, JavadocHttpClient httpClient, Closeable closeWithReader, Validators validators)
+            throws IOException {
         if ("file".equals(url.getProtocol())) {
             // Intentionally using the platform default encoding here since this is what Javadoc uses internally.
-            reader = new BufferedReader(new InputStreamReader(url.openStream()));
-        } else {
-            // http, https...
-            final CloseableHttpClient httpClient = createHttpClient(settings, url);
+            return new BufferedReader(new InputStreamReader(url.openStream()));
+        }
+        // http, https...
+        final HttpGet httpMethod = new HttpGet(url.toString());
+        if (validators != null && validators.eTag != null) {
+            httpMethod.setHeader(HttpHeaders.IF_NONE_MATCH, validators.eTag);
+        }
+        if (validators != null && validators.lastModified != null) {
+            httpMethod.setHeader(HttpHeaders.IF_MODIFIED_SINCE, validators.lastModified);
+        }
 
-            final HttpGet httpMethod = new HttpGet(url.toString());
-
-            HttpResponse response;
-            HttpClientContext httpContext = HttpClientContext.create();
-            try {
-                response = httpClient.execute(httpMethod, httpContext);
-            } catch (SocketTimeoutException e) {
-                // could be a sporadic failure, one more retry before we give up
-                response = httpClient.execute(httpMethod, httpContext);
-            }
+        HttpClientContext httpContext = HttpClientContext.create();
+        CloseableHttpResponse response = httpClient.execute(httpMethod, httpContext);
 
+        try {
             int status = response.getStatusLine().getStatusCode();
-            if (status != HttpStatus.SC_OK) {
+            if (status == HttpStatus.SC_NOT_MODIFIED && validators != null) {
+                response.close();
+                if (closeWithReader != null) {
+                    closeWithReader.close();
+                }
+                return null;
+            } else if (status != HttpStatus.SC_OK) {
                 throw new FileNotFoundException(
                         "Unexpected HTTP status code " + status + " getting resource " + url.toExternalForm() + ".");
             } else {
@@ -546,25 +616,52 @@ class JavadocSite {
                     }
                 }
             }
+        } catch (IOException e) {
+            // consume the content so that the connection can be reused
+            EntityUtils.consumeQuietly(response.getEntity());
+            response.close();
+            throw e;
+        }
 
-            // Intentionally using the platform default encoding here since this is what Javadoc uses internally.
-            reader = new BufferedReader(
-                    new InputStreamReader(response.getEntity().getContent())) {
-                @Override
-                public void close() throws IOException {
+        if (validators != null) {
+            validators.eTag = getHeader(response, HttpHeaders.ETAG);
+            validators.lastModified = getHeader(response, HttpHeaders.LAST_MODIFIED);
+        }
+        final CloseableHttpResponse httpResponse = response;
+        // Intentionally using the platform default encoding here since this is what Javadoc uses internally.
+        return new BufferedReader(new InputStreamReader(response.getEntity().getContent())) {
+            @Override
+            public void close() throws IOException {
+                // closing the content reads it up to the end, which gives the connection back to the pool
+                try {
                     super.close();
-
-                    if (httpMethod != null) {
-                        httpMethod.releaseConnection();
-                    }
-                    if (httpClient != null) {
-                        httpClient.close();
+                } finally {
+                    httpResponse.close();
+                    if (closeWithReader != null) {
+                        closeWithReader.close();
                     }
                 }
-            };
-        }
+            }
+        };
+    }
+
+    private static String getHeader(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header != null ? header.getValue() : null;
+    }
+
+    /**
+     * The validators of a response, used to make later requests for the same resource conditional.
+     */
+    private static final class Validators {
+        private String eTag;
+
+        private String lastModified;
 
-        return reader;
+        Validators(String eTag, String lastModified) {
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
     }
 
     /**
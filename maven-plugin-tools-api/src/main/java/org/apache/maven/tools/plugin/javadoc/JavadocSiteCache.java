@@ -0,0 +1,311 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.javadoc;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The package lists of online javadoc sites, kept between builds so that the sites are only fetched again once the
+ * time to live of the cached list has expired, and then only conditionally with the validators of the cached list.
+ * Cached lists are still used if the site cannot be reached, and are not revalidated at all in offline mode.
+ * <p>
+ * Each list is stored as a text file, with a header of {@code name=value} lines describing the site, followed by an
+ * empty line and by the package list in the format of the {@code element-list} of javadoc.
+ *
+ * @since 4.0.0
+ */
+final class JavadocSiteCache {
+    /**
+     * Must be increased whenever the format of the cache files changes.
+     */
+    private static final String FORMAT = "javadoc-site-cache-2";
+
+    private static final Logger LOG = LoggerFactory.getLogger(JavadocSiteCache.class);
+
+    private final Path cacheDirectory;
+
+    private final Duration ttl;
+
+    private final boolean offline;
+
+    /**
+     * @param cacheDirectory the directory where the package lists are stored
+     * @param ttl            how long cached package lists are used without revalidation
+     * @param offline        {@code true} if cached package lists should never be revalidated
+     */
+    JavadocSiteCache(Path cacheDirectory, Duration ttl, boolean offline) {
+        this.cacheDirectory = cacheDirectory;
+        this.ttl = ttl;
+        this.offline = offline;
+    }
+
+    /**
+     * @param entry the cached package list
+     * @return {@code true} if the package list may be used without revalidation
+     */
+    boolean isFresh(Entry entry) {
+        return offline || System.currentTimeMillis() - entry.validated < ttl.toMillis();
+    }
+
+    /**
+     * @param baseUri the base URI of the site
+     * @return the cached package list of the site, or {@code null} if there is none or if it is unusable
+     */
+    Entry load(URI baseUri) {
+        Path cacheFile = getCacheFile(baseUri);
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            if (!FORMAT.equals(reader.readLine())) {
+                LOG.debug("Ignoring javadoc site cache {} of another format", cacheFile);
+                return null;
+            }
+            Map<String, String> header = new HashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                int separator = line.indexOf('=');
+                if (separator < 0) {
+                    throw new IOException("Invalid header line: " + line);
+                }
+                header.put(line.substring(0, separator), line.substring(separator + 1));
+            }
+            if (!baseUri.toString().equals(header.get("baseUri"))) {
+                return null;
+            }
+            return new Entry(
+                    baseUri.toString(),
+                    Objects.requireNonNull(header.get("listName"), "listName"),
+                    JavadocSite.readPackageListWithModules(reader),
+                    Boolean.parseBoolean(header.get("requireModuleNameInPath")),
+                    header.get("eTag"),
+                    header.get("lastModified"),
+                    true,
+                    Long.parseLong(header.get("validated")));
+        } catch (IOException | RuntimeException e) {
+            LOG.debug("Ignoring javadoc site cache {} ({})", cacheFile, e.toString());
+        }
+        // will be overwritten
+        return null;
+    }
+
+    /**
+     * @param baseUri the base URI of the site
+     * @param entry   the package list of the site
+     */
+    void store(URI baseUri, Entry entry) {
+        Path cacheFile = getCacheFile(baseUri);
+        Path tmpFile = null;
+        try {
+            Files.createDirectories(cacheDirectory);
+            tmpFile =
+                    Files.createTempFile(cacheDirectory, cacheFile.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tmpFile, StandardCharsets.UTF_8)) {
+                for (String line : toLines(entry)) {
+                    writer.write(line);
+                    writer.write('\n');
+                }
+            }
+            try {
+                Files.move(tmpFile, cacheFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmpFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOG.warn("Unable to write javadoc site cache {}: {}", cacheFile, e.getMessage());
+            if (tmpFile != null) {
+                try {
+                    Files.deleteIfExists(tmpFile);
+                } catch (IOException ioe) {
+                    // ignore
+                }
+            }
+        }
+    }
+
+    private static List<String> toLines(Entry entry) {
+        List<String> lines = new ArrayList<>();
+        lines.add(FORMAT);
+        lines.add("baseUri=" + entry.baseUri);
+        lines.add("listName=" + entry.listName);
+        lines.add("requireModuleNameInPath=" + entry.requireModuleNameInPath);
+        if (entry.eTag != null) {
+            lines.add("eTag=" + entry.eTag);
+        }
+        if (entry.lastModified != null) {
+            lines.add("lastModified=" + entry.lastModified);
+        }
+        lines.add("validated=" + entry.validated);
+        lines.add("");
+
+        // packages without module first, as they precede the first module line
+        Map<String, List<String>> packagesByModule = new TreeMap<>();
+        for (Map.Entry<String, String> packageAndModule : new TreeMap<>(entry.packageNamesAndModules).entrySet()) {
+            if (packageAndModule.getValue() == null) {
+                lines.add(packageAndModule.getKey());
+            } else {
+                packagesByModule
+                        .computeIfAbsent(packageAndModule.getValue(), m -> new ArrayList<>())
+                        .add(packageAndModule.getKey());
+            }
+        }
+        for (Map.Entry<String, List<String>> packages : packagesByModule.entrySet()) {
+            lines.add(JavadocSite.PREFIX_MODULE + packages.getKey());
+            lines.addAll(packages.getValue());
+        }
+        return lines;
+    }
+
+    private Path getCacheFile(URI baseUri) {
+        try {
+            byte[] digest =
+                    MessageDigest.getInstance("SHA-1").digest(baseUri.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder fileName = new StringBuilder(digest.length * 2 + 5);
+            for (byte b : digest) {
+                fileName.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return cacheDirectory.resolve(fileName.append(".site").toString());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The package list of a site, with the validators of the response it has been parsed from.
+     */
+    static final class Entry {
+        private final String baseUri;
+
+        private final String listName;
+
+        private final Map<String, String> packageNamesAndModules;
+
+        private final boolean requireModuleNameInPath;
+
+        private final String eTag;
+
+        private final String lastModified;
+
+        private final boolean complete;
+
+        private long validated;
+
+        /**
+         * @param baseUri                 the base URI of the site
+         * @param listName                the name of the package list, either {@code package-list} or
+         *                                {@code element-list}
+         * @param packageNamesAndModules  the modules by package name, modules being {@code null} for sites without
+         *                                modules
+         * @param requireModuleNameInPath {@code true} if the module name is part of the path of the pages
+         * @param eTag                    the entity tag of the package list, may be {@code null}
+         * @param lastModified            the last modification date of the package list, may be {@code null}
+         * @param complete                {@code false} if some information could not be determined, e.g. because
+         *                                the site was not reachable, so that the package list must not be cached
+         */
+        Entry(
+                URI baseUri,
+                String listName,
+                Map<String, String> packageNamesAndModules,
+                boolean requireModuleNameInPath,
+                String eTag,
+                String lastModified,
+                boolean complete) {
+            this(
+                    baseUri.toString(),
+                    listName,
+                    packageNamesAndModules,
+                    requireModuleNameInPath,
+                    eTag,
+                    lastModified,
+                    complete,
+                    System.currentTimeMillis());
+        }
+
+        private Entry(
+                String baseUri,
+                String listName,
+                Map<String, String> packageNamesAndModules,
+                boolean requireModuleNameInPath,
+                String eTag,
+                String lastModified,
+                boolean complete,
+                long validated) {
+            this.baseUri = baseUri;
+            this.listName = listName;
+            this.packageNamesAndModules = new HashMap<>(packageNamesAndModules);
+            this.requireModuleNameInPath = requireModuleNameInPath;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+            this.complete = complete;
+            this.validated = validated;
+        }
+
+        String getListName() {
+            return listName;
+        }
+
+        Map<String, String> getPackageNamesAndModules() {
+            return packageNamesAndModules;
+        }
+
+        boolean isRequireModuleNameInPath() {
+            return requireModuleNameInPath;
+        }
+
+        String getETag() {
+            return eTag;
+        }
+
+        String getLastModified() {
+            return lastModified;
+        }
+
+        boolean isComplete() {
+            return complete;
+        }
+
+        /**
+         * Marks the package list as being still up to date.
+         */
+        void revalidated() {
+            validated = System.currentTimeMillis();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.javadoc;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.maven.tools.plugin.javadoc.FullyQualifiedJavadocReference.MemberType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JavadocLinkGeneratorPoolTest {
+
+    @Test
+    void testShareLinkGeneratorsPerConfiguration() throws IOException, URISyntaxException {
+        Map<String, Integer> requestCounts = new ConcurrentHashMap<>();
+        HttpServer server = JavadocSiteTest.startJavadocServer("jdk11", requestCounts);
+        try (JavadocLinkGeneratorPool pool = new JavadocLinkGeneratorPool()) {
+            List<URI> externalUrls = Collections.singletonList(JavadocSiteTest.getBaseUri(server));
+            JavadocLinkGenerator linkGenerator = pool.acquire(null, null, externalUrls, null, null, null);
+            // views do not own the connections of the pooled generator
+            pool.acquire(null, null, externalUrls, null, null, null).close();
+
+            assertEquals(1, pool.size());
+            assertEquals(1, requestCounts.get("/element-list"));
+            // the anchors are still fetched with the shared client
+            assertEquals(
+                    "noParamMethod()",
+                    linkGenerator
+                            .createLink(new FullyQualifiedJavadocReference(
+                                    "org.apache.maven.tools.plugin.extractor.annotations.converter.test",
+                                    "CurrentClass",
+                                    "noParamMethod()",
+                                    MemberType.METHOD,
+                                    true))
+                            .getFragment());
+
+            URI internalUrl = getClass().getResource("/javadoc/jdk11/").toURI();
+            pool.acquire(internalUrl, "11", externalUrls, null, null, null);
+            assertEquals(2, pool.size());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
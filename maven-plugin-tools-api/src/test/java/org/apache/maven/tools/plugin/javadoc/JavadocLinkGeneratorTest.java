@@ -18,11 +18,20 @@
  */
 package org.apache.maven.tools.plugin.javadoc;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import com.sun.net.httpserver.HttpServer;
 import org.apache.maven.tools.plugin.javadoc.FullyQualifiedJavadocReference.MemberType;
 import org.codehaus.plexus.languages.java.version.JavaVersion;
 import org.junit.jupiter.api.Test;
@@ -31,6 +40,7 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class JavadocLinkGeneratorTest {
 
@@ -143,4 +153,49 @@ class JavadocLinkGeneratorTest {
                 () -> new JavadocLinkGenerator(
                         Collections.singletonList(new URI("https://example.com/apidocs/")), null));
     }
+
+    @Test
+    void testExternalSitesKeepOrderAndSkipSlowSites() throws IOException, URISyntaxException {
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer slowServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        slowServer.createContext("/", exchange -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        slowServer.start();
+        HttpServer jdk11Server = JavadocSiteTest.startJavadocServer("jdk11", new ConcurrentHashMap<>());
+        HttpServer jdk8Server = JavadocSiteTest.startJavadocServer("jdk8", new ConcurrentHashMap<>());
+        try {
+            long start = System.nanoTime();
+            try (JavadocLinkGenerator linkGenerator = new JavadocLinkGenerator(
+                    null,
+                    null,
+                    Arrays.asList(
+                            JavadocSiteTest.getBaseUri(slowServer),
+                            JavadocSiteTest.getBaseUri(jdk11Server),
+                            JavadocSiteTest.getBaseUri(jdk8Server)),
+                    null,
+                    null,
+                    null,
+                    Duration.ofMillis(500))) {
+                assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+                // both sites contain the package, the first accessible one wins
+                assertEquals(
+                        JavadocSiteTest.getBaseUri(jdk11Server)
+                                .resolve("org/apache/maven/tools/plugin/extractor/annotations/converter/test/"
+                                        + "package-summary.html"),
+                        linkGenerator.createLink(new FullyQualifiedJavadocReference(
+                                "org.apache.maven.tools.plugin.extractor.annotations.converter.test", true)));
+            }
+        } finally {
+            release.countDown();
+            slowServer.stop(0);
+            jdk11Server.stop(0);
+            jdk8Server.stop(0);
+        }
+    }
 }
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.maven.tools.plugin.javadoc;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JavadocSiteCacheTest {
+    private static final String PACKAGE_NAME = "org.apache.maven.tools.plugin.extractor.annotations.converter.test";
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    void useCachedPackageListWithinTtl() throws IOException, URISyntaxException {
+        Map<String, Integer> requestCounts = new ConcurrentHashMap<>();
+        HttpServer server = JavadocSiteTest.startJavadocServer("jdk11", requestCounts);
+        try (JavadocHttpClient httpClient = new JavadocHttpClient(null)) {
+            URI baseUri = JavadocSiteTest.getBaseUri(server);
+            JavadocSiteCache cache = new JavadocSiteCache(cacheDirectory, Duration.ofHours(1), false);
+            new JavadocSite(baseUri, httpClient, cache);
+            int requestCount = httpClient.getRequestCount();
+
+            JavadocSite site = new JavadocSite(baseUri, httpClient, cache);
+
+            assertEquals(requestCount, httpClient.getRequestCount());
+            assertTrue(site.hasEntryFor(Optional.empty(), Optional.of(PACKAGE_NAME)));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void revalidateExpiredPackageList() throws IOException, URISyntaxException {
+        Map<String, Integer> requestCounts = new ConcurrentHashMap<>();
+        HttpServer server = JavadocSiteTest.startJavadocServer("jdk11", requestCounts);
+        try (JavadocHttpClient httpClient = new JavadocHttpClient(null)) {
+            URI baseUri = JavadocSiteTest.getBaseUri(server);
+            JavadocSiteCache cache = new JavadocSiteCache(cacheDirectory, Duration.ZERO, false);
+            new JavadocSite(baseUri, httpClient, cache);
+            requestCounts.clear();
+
+            JavadocSite site = new JavadocSite(baseUri, httpClient, cache);
+
+            // only the package list known from the cache is requested, and it is not modified
+            assertEquals(1, requestCounts.size());
+            assertEquals(1, requestCounts.get("/element-list"));
+            assertTrue(site.hasEntryFor(Optional.empty(), Optional.of(PACKAGE_NAME)));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void useCachedPackageListOfUnreachableSite() throws IOException, URISyntaxException {
+        HttpServer server = JavadocSiteTest.startJavadocServer("jdk11", new ConcurrentHashMap<>());
+        URI baseUri = JavadocSiteTest.getBaseUri(server);
+        JavadocSiteCache cache = new JavadocSiteCache(cacheDirectory, Duration.ZERO, false);
+        try (JavadocHttpClient httpClient = new JavadocHttpClient(null)) {
+            new JavadocSite(baseUri, httpClient, cache);
+        } finally {
+            server.stop(0);
+        }
+
+        try (JavadocHttpClient httpClient = new JavadocHttpClient(null)) {
+            JavadocSite site = new JavadocSite(baseUri, httpClient, cache);
+            assertTrue(site.hasEntryFor(Optional.empty(), Optional.of(PACKAGE_NAME)));
+            // without cache
+            assertThrows(IOException.class, () -> new JavadocSite(baseUri, httpClient));
+        }
+    }
+
+    @Test
+    void ignoreCacheOfOtherSite() throws URISyntaxException {
+        JavadocSiteCache cache = new JavadocSiteCache(cacheDirectory, Duration.ofHours(1), false);
+        URI baseUri = new URI("https://javadoc.example.com/");
+        assertNull(cache.load(baseUri));
+    }
+
+    @Test
+    void storeAndLoadPackageList() throws URISyntaxException {
+        JavadocSiteCache cache = new JavadocSiteCache(cacheDirectory, Duration.ofHours(1), false);
+        URI baseUri = new URI("https://javadoc.example.com/api/");
+        Map<String, String> packageNamesAndModules = new HashMap<>();
+        packageNamesAndModules.put("org.example", null);
+        packageNamesAndModules.put("java.lang", "java.base");
+        packageNamesAndModules.put("java.util", "java.base");
+        packageNamesAndModules.put("java.sql", "java.sql");
+        cache.store(
+                baseUri,
+                new JavadocSiteCache.Entry(
+                        baseUri, "element-list", packageNamesAndModules, true, "\"1234\"", null, true));
+
+        JavadocSiteCache.Entry entry = cache.load(baseUri);
+
+        assertNotNull(entry);
+        assertEquals("element-list", entry.getListName());
+        assertEquals(packageNamesAndModules, entry.getPackageNamesAndModules());
+        assertTrue(entry.isRequireModuleNameInPath());
+        assertEquals("\"1234\"", entry.getETag());
+        assertNull(entry.getLastModified());
+        assertTrue(cache.isFresh(entry));
+    }
+
+    @Test
+    void doNotCachePackageListWithUnknownModulePaths() throws IOException, URISyntaxException {
+        AtomicBoolean moduleSummaryAvailable = new AtomicBoolean();
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            byte[] content = "Not found".getBytes(StandardCharsets.UTF_8);
+            int status = 404;
+            if (path.equals("/element-list")) {
+                content = "module:java.base\njava.lang\n".getBytes(StandardCharsets.UTF_8);
+                status = 200;
+            } else if (path.equals("/java.base/module-summary.html")) {
+                if (!moduleSummaryAvailable.get()) {
+                    // the probe fails without telling anything about the site
+                    exchange.close();
+                    return;
+                }
+                content = "<html></html>".getBytes(StandardCharsets.UTF_8);
+                status = 200;
+            }
+            exchange.sendResponseHeaders(status, content.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(content);
+            }
+        });
+        server.start();
+        try (JavadocHttpClient httpClient = new JavadocHttpClient(null)) {
+            URI baseUri = JavadocSiteTest.getBaseUri(server);
+            JavadocSiteCache cache = new JavadocSiteCache(cacheDirectory, Duration.ofHours(1), false);
+
+            new JavadocSite(baseUri, httpClient, cache);
+            assertNull(cache.load(baseUri));
+
+            moduleSummaryAvailable.set(true);
+            new JavadocSite(baseUri, httpClient, cache);
+            JavadocSiteCache.Entry entry = cache.load(baseUri);
+            assertNotNull(entry);
+            assertTrue(entry.isRequireModuleNameInPath());
+        } finally {
+            server.stop(0);
+        }
+    }
+}
@@ -40,32 +40,40 @@ class JavadocSiteIT {
     @ParameterizedTest
     @MethodSource("javadocBaseUrls")
     void testConstructors(URI javadocBaseUrl) throws IOException {
-        JavadocSite site = new JavadocSite(javadocBaseUrl, null);
-        JavadocSiteTest.assertUrlValid(site.createLink(new FullyQualifiedJavadocReference(
-                "java.lang", "String", "String(byte[],int)", MemberType.CONSTRUCTOR, true)));
+        try (JavadocHttpClient httpClient = new JavadocHttpClient(null)) {
+            JavadocSite site = new JavadocSite(javadocBaseUrl, httpClient);
+            JavadocSiteTest.assertUrlValid(site.createLink(new FullyQualifiedJavadocReference(
+                    "java.lang", "String", "String(byte[],int)", MemberType.CONSTRUCTOR, true)));
+        }
     }
 
     @ParameterizedTest
     @MethodSource("javadocBaseUrls")
     void testMethods(URI javadocBaseUrl) throws IOException {
-        JavadocSite site = new JavadocSite(javadocBaseUrl, null);
-        JavadocSiteTest.assertUrlValid(site.createLink(new FullyQualifiedJavadocReference(
-                "java.lang", "String", "copyValueOf(char[],int,int)", MemberType.METHOD, true)));
+        try (JavadocHttpClient httpClient = new JavadocHttpClient(null)) {
+            JavadocSite site = new JavadocSite(javadocBaseUrl, httpClient);
+            JavadocSiteTest.assertUrlValid(site.createLink(new FullyQualifiedJavadocReference(
+                    "java.lang", "String", "copyValueOf(char[],int,int)", MemberType.METHOD, true)));
+        }
     }
 
     @ParameterizedTest
     @MethodSource("javadocBaseUrls")
     void testFields(URI javadocBaseUrl) throws IOException {
-        JavadocSite site = new JavadocSite(javadocBaseUrl, null);
-        JavadocSiteTest.assertUrlValid(site.createLink(new FullyQualifiedJavadocReference(
-                "java.lang", "String", "CASE_INSENSITIVE_ORDER", MemberType.FIELD, true)));
+        try (JavadocHttpClient httpClient = new JavadocHttpClient(null)) {
+            JavadocSite site = new JavadocSite(javadocBaseUrl, httpClient);
+            JavadocSiteTest.assertUrlValid(site.createLink(new FullyQualifiedJavadocReference(
+                    "java.lang", "String", "CASE_INSENSITIVE_ORDER", MemberType.FIELD, true)));
+        }
     }
 
     @ParameterizedTest
     @MethodSource("javadocBaseUrls")
     void testNestedClass(URI javadocBaseUrl) throws IOException {
-        JavadocSite site = new JavadocSite(javadocBaseUrl, null);
-        JavadocSiteTest.assertUrlValid(
-                site.createLink(new FullyQualifiedJavadocReference("java.util", "Map.Entry", true)));
+        try (JavadocHttpClient httpClient = new JavadocHttpClient(null)) {
+            JavadocSite site = new JavadocSite(javadocBaseUrl, httpClient);
+            JavadocSiteTest.assertUrlValid(
+                    site.createLink(new FullyQualifiedJavadocReference("java.util", "Map.Entry", true)));
+        }
     }
 }
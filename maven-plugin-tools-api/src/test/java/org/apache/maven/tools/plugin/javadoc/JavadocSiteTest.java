@@ -20,13 +20,26 @@ package org.apache.maven.tools.plugin.javadoc;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 
+import com.sun.net.httpserver.HttpServer;
+import org.apache.maven.settings.Settings;
 import org.apache.maven.tools.plugin.javadoc.FullyQualifiedJavadocReference.MemberType;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -36,6 +49,7 @@ import org.opentest4j.AssertionFailedError;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Tests against the locally available javadoc sites. Doesn't require internet connectivity.
@@ -115,6 +129,87 @@ class JavadocSiteTest {
                 "org.apache.maven.tools.plugin.extractor.annotations.converter.test", "CurrentClass", false)));
     }
 
+    @Test
+    void testOnlineSiteReusesConnections() throws IOException, URISyntaxException {
+        HttpServer server = startJavadocServer("jdk11", new ConcurrentHashMap<>());
+        try (JavadocHttpClient httpClient = new JavadocHttpClient(null)) {
+            // the version of an online site is detected by probing the anchors of its pages
+            JavadocSite site = new JavadocSite(getBaseUri(server), httpClient);
+            site.createLink(new FullyQualifiedJavadocReference(
+                    "org.apache.maven.tools.plugin.extractor.annotations.converter.test",
+                    "CurrentClass",
+                    "noParamMethod()",
+                    MemberType.METHOD,
+                    true));
+            site.createLink(new FullyQualifiedJavadocReference(
+                    "org.apache.maven.tools.plugin.extractor.annotations.converter.test",
+                    "CurrentClass",
+                    "field1",
+                    MemberType.FIELD,
+                    true));
+            assertTrue(httpClient.getRequestCount() >= 3, "Requests: " + httpClient.getRequestCount());
+            assertEquals(1, httpClient.getConnectionCount());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testOnlineSiteFetchesPagesOnce() throws IOException, URISyntaxException {
+        Map<String, Integer> requestCounts = new ConcurrentHashMap<>();
+        HttpServer server = startJavadocServer("jdk11", requestCounts);
+        try (JavadocHttpClient httpClient = new JavadocHttpClient(null)) {
+            JavadocSite site = new JavadocSite(getBaseUri(server), httpClient);
+            URI fieldLink = site.createLink(new FullyQualifiedJavadocReference(
+                    "org.apache.maven.tools.plugin.extractor.annotations.converter.test",
+                    "CurrentClass",
+                    "field1",
+                    MemberType.FIELD,
+                    true));
+            // probes all formats until the one of javadoc 10+
+            URI methodLink = site.createLink(new FullyQualifiedJavadocReference(
+                    "org.apache.maven.tools.plugin.extractor.annotations.converter.test",
+                    "CurrentClass",
+                    "genericsParamMethod(java.util.Collection,java.util.function.BiConsumer)",
+                    MemberType.METHOD,
+                    true));
+            assertEquals("field1", fieldLink.getFragment());
+            assertEquals(
+                    "genericsParamMethod(java.util.Collection,java.util.function.BiConsumer)",
+                    methodLink.getFragment());
+            assertEquals(JavadocLinkGenerator.JavadocToolVersionRange.JDK10_OR_HIGHER, site.version);
+            assertEquals(
+                    1,
+                    requestCounts.get(
+                            "/org/apache/maven/tools/plugin/extractor/annotations/converter/test/CurrentClass.html"));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void testUnreachableHostIsNotContactedAgain() throws IOException, URISyntaxException {
+        HttpServer server = startJavadocServer("jdk11", new ConcurrentHashMap<>());
+        URI baseUri = getBaseUri(server);
+        server.stop(0);
+        try (JavadocHttpClient httpClient = new JavadocHttpClient(null)) {
+            assertThrows(IOException.class, () -> new JavadocSite(baseUri, httpClient));
+            assertTrue(httpClient.hasFailed(baseUri.resolve("element-list")));
+            int requestCount = httpClient.getRequestCount();
+
+            assertThrows(IOException.class, () -> new JavadocSite(baseUri, httpClient));
+            assertEquals(requestCount, httpClient.getRequestCount());
+        }
+    }
+
+    @Test
+    void testReadAnchors() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new StringReader(
+                "<a name=\"a1\"></a><a NAME=\"a2\">\n<section id=\"&lt;init&gt;()\" class=\"detail\">"))) {
+            assertEquals(new HashSet<>(Arrays.asList("a1", "a2", "&lt;init&gt;()")), JavadocSite.readAnchors(reader));
+        }
+    }
+
     @Test
     void testGetPackageAndClassName() {
         assertEquals(
@@ -146,16 +241,49 @@ class JavadocSiteTest {
     }
 
     static void assertUrlValid(final URI url) {
-        try (BufferedReader reader = JavadocSite.getReader(url.toURL(), null)) {
+        try (BufferedReader reader = JavadocSite.getReader(url.toURL(), (Settings) null)) {
             if (url.getFragment() != null) {
-                Pattern pattern = JavadocSite.getAnchorPattern(url.getFragment());
-                if (!reader.lines().anyMatch(pattern.asPredicate())) {
-                    throw new AssertionFailedError("Although URL " + url + " exists, no line matching the pattern "
-                            + pattern + " found in response");
+                Set<String> anchors = JavadocSite.readAnchors(reader);
+                if (!anchors.contains(url.getFragment())) {
+                    throw new AssertionFailedError(
+                            "Although URL " + url + " exists, no anchor " + url.getFragment() + " found in response");
                 }
             }
         } catch (IOException e) {
             throw new AssertionFailedError("Could not find URL " + url, e);
         }
     }
+
+    static HttpServer startJavadocServer(String name, Map<String, Integer> requestCounts)
+            throws IOException, URISyntaxException {
+        Path javadocDirectory = Paths.get(
+                JavadocSiteTest.class.getResource("/javadoc/" + name + "/").toURI());
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            requestCounts.merge(path, 1, Integer::sum);
+            Path file = javadocDirectory.resolve(path.substring(1));
+            boolean found = Files.isRegularFile(file);
+            byte[] content = found ? Files.readAllBytes(file) : "Not found".getBytes(StandardCharsets.UTF_8);
+            String eTag = "\"" + Arrays.hashCode(content) + "\"";
+            if (found && eTag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+                return;
+            }
+            if (found) {
+                exchange.getResponseHeaders().set("ETag", eTag);
+            }
+            exchange.sendResponseHeaders(found ? 200 : 404, content.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(content);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    static URI getBaseUri(HttpServer server) throws URISyntaxException {
+        return new URI("http", null, "localhost", server.getAddress().getPort(), "/", null, null);
+    }
 }
@@ -170,25 +170,20 @@ public class PluginDescriptorFilesGenerator implements Generator {
 
             w.startElement("mojos");
 
-            final JavadocLinkGenerator javadocLinkGenerator;
-            if (request.getInternalJavadocBaseUrl() != null
-                    || (request.getExternalJavadocBaseUrls() != null
-                            && !request.getExternalJavadocBaseUrls().isEmpty())) {
-                javadocLinkGenerator = new JavadocLinkGenerator(
-                        request.getInternalJavadocBaseUrl(),
-                        request.getInternalJavadocVersion(),
-                        request.getExternalJavadocBaseUrls(),
-                        request.getSettings());
-            } else {
-                javadocLinkGenerator = null;
-            }
-            if (pluginDescriptor.getMojos() != null) {
-                List<MojoDescriptor> descriptors = pluginDescriptor.getMojos();
+            JavadocLinkGenerator javadocLinkGenerator = JavadocLinkGenerator.create(request);
+            try {
+                if (pluginDescriptor.getMojos() != null) {
+                    List<MojoDescriptor> descriptors = pluginDescriptor.getMojos();
 
-                PluginUtils.sortMojos(descriptors);
+                    PluginUtils.sortMojos(descriptors);
 
-                for (MojoDescriptor descriptor : descriptors) {
-                    processMojoDescriptor(descriptor, w, type, javadocLinkGenerator, isV4);
+                    for (MojoDescriptor descriptor : descriptors) {
+                        processMojoDescriptor(descriptor, w, type, javadocLinkGenerator, isV4);
+                    }
+                }
+            } finally {
+                if (javadocLinkGenerator != null) {
+                    javadocLinkGenerator.close();
                 }
             }
 